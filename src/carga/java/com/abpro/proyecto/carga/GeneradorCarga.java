@@ -0,0 +1,493 @@
+package com.abpro.proyecto.carga;
+
+import com.abpro.proyecto.metrics.LatencyHistogram;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Generador de carga y prueba de resistencia contra una instancia en ejecución
+ *
+ * Envía una mezcla configurable de lecturas y escrituras sobre /personas y
+ * al final informa el rendimiento, los percentiles de latencia por
+ * operación y los códigos de respuesta. Después verifica que el servidor
+ * contenga exactamente lo que confirmaron sus respuestas (ver
+ * RegistroPersonas): altas perdidas, bajas que reaparecen y registros
+ * duplicados hacen fallar la ejecución.
+ *
+ * Modos:
+ * - cerrado: carga.usuarios clientes que envían una petición, esperan la
+ *   respuesta y envían la siguiente. Mide la capacidad, pero si el
+ *   servidor se demora los clientes envían menos (omisión coordinada),
+ *   así que los percentiles altos salen optimistas.
+ * - abierto: las peticiones salen a tasa constante (carga.tasa por
+ *   segundo) respondan o no las anteriores, y la latencia se mide desde
+ *   el instante en que cada una debía salir. Es el modo para medir
+ *   latencia bajo una carga dada.
+ *
+ * Propiedades del sistema:
+ * - carga.url: URL base de la API (por defecto http://localhost:8080/api)
+ * - carga.modo: cerrado (por defecto) o abierto
+ * - carga.usuarios: clientes concurrentes del modo cerrado (por defecto 16)
+ * - carga.tasa: peticiones por segundo del modo abierto (por defecto 500)
+ * - carga.maximo-en-curso: peticiones sin respuesta admitidas en el modo
+ *   abierto; las que no salen por este límite se informan como omitidas
+ *   (por defecto 10000)
+ * - carga.mezcla: pesos por operación (por defecto
+ *   "obtener=60,listar=10,crear=15,actualizar=10,eliminar=5")
+ * - carga.duracion-segundos: duración de la medición (por defecto 30)
+ * - carga.calentamiento-segundos: carga previa que no se mide (por defecto 5)
+ * - carga.precarga: personas creadas por lotes antes de empezar (por defecto 1000)
+ * - carga.intervalo-informe-segundos: frecuencia del informe parcial (por defecto 10)
+ * - carga.timeout-segundos: tiempo máximo por petición (por defecto 10)
+ * - carga.verificar: verificación final de consistencia (por defecto true)
+ *
+ * Ejecutar con "mvn -Pcarga compile exec:java -Dcarga.modo=abierto -Dcarga.tasa=2000".
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class GeneradorCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int TAMANIO_PAGINA = 100;
+    private static final int LOTE_PRECARGA = 1000;
+    // Código registrado cuando no hubo respuesta (timeout o error de conexión)
+    private static final int SIN_RESPUESTA = 0;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final HttpClient cliente;
+    private final String base;
+    private final Duration timeout;
+    private final Operacion.Mezcla mezcla;
+    private final RegistroPersonas registro = new RegistroPersonas();
+
+    private final Map<Operacion, LatencyHistogram> latencias = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, Map<Integer, LongAdder>> estados = new EnumMap<>(Operacion.class);
+    private final LatencyHistogram latenciaTotal = new LatencyHistogram();
+    private final AtomicReference<LatencyHistogram> latenciaIntervalo = new AtomicReference<>(new LatencyHistogram());
+    private final LongAdder erroresIntervalo = new LongAdder();
+    private final LongAdder omitidas = new LongAdder();
+
+    // Solo se miden las peticiones que debían salir desde este instante (fin del calentamiento)
+    private volatile long inicioMedicion = Long.MAX_VALUE;
+
+    GeneradorCarga(String base, Duration timeout, Operacion.Mezcla mezcla) {
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.timeout = timeout;
+        this.mezcla = mezcla;
+        for (Operacion operacion : Operacion.values()) {
+            latencias.put(operacion, new LatencyHistogram());
+            estados.put(operacion, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("carga.url", "http://localhost:8080/api");
+        String modo = System.getProperty("carga.modo", "cerrado");
+        int usuarios = Integer.getInteger("carga.usuarios", 16);
+        double tasa = Double.parseDouble(System.getProperty("carga.tasa", "500"));
+        int maximoEnCurso = Integer.getInteger("carga.maximo-en-curso", 10_000);
+        int duracion = Integer.getInteger("carga.duracion-segundos", 30);
+        int calentamiento = Integer.getInteger("carga.calentamiento-segundos", 5);
+        int precarga = Integer.getInteger("carga.precarga", 1000);
+        int intervalo = Integer.getInteger("carga.intervalo-informe-segundos", 10);
+        Duration timeout = Duration.ofSeconds(Integer.getInteger("carga.timeout-segundos", 10));
+        boolean verificar = Boolean.parseBoolean(System.getProperty("carga.verificar", "true"));
+        Operacion.Mezcla mezcla = Operacion.Mezcla.parsear(System.getProperty("carga.mezcla",
+                "obtener=60,listar=10,crear=15,actualizar=10,eliminar=5"));
+        if (!modo.equals("cerrado") && !modo.equals("abierto")) {
+            throw new IllegalArgumentException("carga.modo debe ser cerrado o abierto: " + modo);
+        }
+
+        GeneradorCarga generador = new GeneradorCarga(url, timeout, mezcla);
+        generador.comprobarServidor();
+        generador.precargar(precarga);
+        System.out.println("Carga contra " + url + ": modo " + modo
+                + (modo.equals("cerrado") ? " con " + usuarios + " usuarios" : " a " + tasa + " peticiones/s")
+                + ", " + mezcla + ", " + calentamiento + " s de calentamiento y " + duracion + " s de medición");
+
+        long inicio = System.nanoTime();
+        generador.inicioMedicion = inicio + TimeUnit.SECONDS.toNanos(calentamiento);
+        long fin = generador.inicioMedicion + TimeUnit.SECONDS.toNanos(duracion);
+
+        ScheduledExecutorService informes = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carga-informe");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        informes.scheduleAtFixedRate(() -> generador.informarIntervalo(inicio, intervalo),
+                intervalo, intervalo, TimeUnit.SECONDS);
+        try {
+            if (modo.equals("cerrado")) {
+                generador.cicloCerrado(usuarios, fin);
+            } else {
+                generador.cicloAbierto(tasa, maximoEnCurso, inicio, fin);
+            }
+        } finally {
+            informes.shutdownNow();
+        }
+
+        generador.informarTotal(duracion);
+        if (verificar && !generador.verificar()) {
+            throw new IllegalStateException("La verificación encontró personas perdidas, reaparecidas o duplicadas");
+        }
+    }
+
+    /**
+     * Cada usuario envía la siguiente petición cuando recibe la respuesta anterior
+     */
+    void cicloCerrado(int usuarios, long fin) throws InterruptedException {
+        List<Thread> hilos = new ArrayList<>(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            Thread hilo = new Thread(() -> {
+                while (System.nanoTime() < fin) {
+                    ejecutar(mezcla.elegir(), System.nanoTime()).join();
+                }
+            }, "carga-usuario-" + i);
+            hilo.start();
+            hilos.add(hilo);
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+    }
+
+    /**
+     * Las peticiones salen en su instante previsto, sin esperar a las anteriores
+     */
+    void cicloAbierto(double tasa, int maximoEnCurso, long inicio, long fin) throws InterruptedException {
+        Semaphore enCurso = new Semaphore(maximoEnCurso);
+        for (long i = 0; ; i++) {
+            long previsto = inicio + (long) (i * 1e9 / tasa);
+            if (previsto >= fin) {
+                break;
+            }
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            if (!enCurso.tryAcquire()) {
+                // No se envía, pero tampoco se oculta: el servidor no dio abasto
+                if (previsto >= inicioMedicion) {
+                    omitidas.increment();
+                }
+                continue;
+            }
+            ejecutar(mezcla.elegir(), previsto).whenComplete((resultado, error) -> enCurso.release());
+        }
+        // Las últimas en curso terminan antes de verificar
+        enCurso.tryAcquire(maximoEnCurso, timeout.toMillis() + 5000, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Envía una operación y registra su latencia desde el instante previsto
+     */
+    CompletableFuture<Void> ejecutar(Operacion operacion, long previsto) {
+        long id = -1;
+        if (operacion == Operacion.OBTENER || operacion == Operacion.ACTUALIZAR) {
+            id = registro.elegir();
+        } else if (operacion == Operacion.ELIMINAR) {
+            id = registro.retirar();
+        }
+        if (id < 0 && operacion != Operacion.LISTAR) {
+            // Sin personas conocidas: se crea una
+            operacion = Operacion.CREAR;
+        }
+
+        CompletableFuture<Integer> estado;
+        switch (operacion) {
+            case LISTAR:
+                estado = listar();
+                break;
+            case OBTENER:
+                estado = obtener(id);
+                break;
+            case ACTUALIZAR:
+                estado = actualizar(id);
+                break;
+            case ELIMINAR:
+                estado = eliminar(id);
+                break;
+            default:
+                estado = crear();
+        }
+        Operacion medida = operacion;
+        return estado.handle((codigo, error) -> {
+            // Un cuerpo ilegible cuenta como petición sin respuesta válida
+            registrar(medida, previsto, error != null ? SIN_RESPUESTA : codigo);
+            return null;
+        });
+    }
+
+    private CompletableFuture<Integer> listar() {
+        return enviar(peticion("/personas?limit=" + TAMANIO_PAGINA).GET())
+                .thenApply(GeneradorCarga::codigo);
+    }
+
+    private CompletableFuture<Integer> obtener(long id) {
+        return enviar(peticion("/personas/" + id).GET()).thenApply(respuesta -> {
+            int codigo = codigo(respuesta);
+            if (codigo == 200) {
+                // Los nombres no cambian: otro nombre es una lectura de otro registro
+                if (!registro.nombreDe(id).equals(leer(respuesta).path("data").path("nombre").asText())) {
+                    registro.lecturaInconsistente();
+                }
+            } else if (codigo == 404) {
+                registro.noEncontrada(id);
+            }
+            return codigo;
+        });
+    }
+
+    private CompletableFuture<Integer> crear() {
+        String nombre = registro.nuevoNombre();
+        return enviar(peticion("/personas").POST(cuerpo(nombre))).thenApply(respuesta -> {
+            int codigo = codigo(respuesta);
+            if (codigo == 201) {
+                registro.altaConfirmada(leer(respuesta).path("data").path("id").asLong(), nombre);
+            } else if (incierta(codigo)) {
+                registro.altaIncierta(nombre);
+            }
+            return codigo;
+        });
+    }
+
+    private CompletableFuture<Integer> actualizar(long id) {
+        // Solo cambia la edad: el nombre sigue identificando el alta
+        return enviar(peticion("/personas/" + id).PUT(cuerpo(registro.nombreDe(id)))).thenApply(respuesta -> {
+            int codigo = codigo(respuesta);
+            if (codigo == 404) {
+                registro.noEncontrada(id);
+            }
+            return codigo;
+        });
+    }
+
+    private CompletableFuture<Integer> eliminar(long id) {
+        return enviar(peticion("/personas/" + id).DELETE()).thenApply(respuesta -> {
+            int codigo = codigo(respuesta);
+            if (codigo == 200) {
+                registro.bajaConfirmada(id);
+            } else if (codigo == 404) {
+                registro.bajaNoEncontrada(id);
+            } else if (incierta(codigo)) {
+                registro.bajaIncierta(id);
+            } else {
+                registro.devolver(id);
+            }
+            return codigo;
+        });
+    }
+
+    private void registrar(Operacion operacion, long previsto, int codigo) {
+        long latencia = System.nanoTime() - previsto;
+        latenciaIntervalo.get().registrar(latencia);
+        if (codigo == SIN_RESPUESTA || codigo >= 500) {
+            erroresIntervalo.increment();
+        }
+        if (previsto >= inicioMedicion) {
+            latencias.get(operacion).registrar(latencia);
+            latenciaTotal.registrar(latencia);
+            estados.get(operacion).computeIfAbsent(codigo, c -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Crea personas por lotes para que lecturas y modificaciones tengan sobre qué operar
+     */
+    void precargar(int cantidad) throws IOException, InterruptedException {
+        for (int creadas = 0; creadas < cantidad; creadas += LOTE_PRECARGA) {
+            StringBuilder lote = new StringBuilder("[");
+            int tamanio = Math.min(LOTE_PRECARGA, cantidad - creadas);
+            for (int i = 0; i < tamanio; i++) {
+                lote.append(i == 0 ? "" : ",").append(json(registro.nuevoNombre()));
+            }
+            HttpResponse<String> respuesta = cliente.send(peticion("/personas/batch")
+                    .POST(HttpRequest.BodyPublishers.ofString(lote.append(']').toString())).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("La precarga respondió " + respuesta.statusCode() + ": " + respuesta.body());
+            }
+            for (JsonNode resultado : leer(respuesta).path("data")) {
+                if (resultado.path("success").asBoolean()) {
+                    JsonNode persona = resultado.path("data");
+                    registro.altaConfirmada(persona.path("id").asLong(), persona.path("nombre").asText());
+                }
+            }
+        }
+    }
+
+    void comprobarServidor() throws InterruptedException {
+        try {
+            HttpResponse<String> respuesta = cliente.send(peticion("/personas/health").GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("El health check respondió " + respuesta.statusCode());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo conectar con " + base
+                    + " (iniciar el servidor con mvn jetty:run o el jar embebido)", e);
+        }
+    }
+
+    /**
+     * Compara lo confirmado con la exportación completa del servidor
+     *
+     * @return true si no hay inconsistencias
+     */
+    boolean verificar() throws IOException, InterruptedException {
+        HttpResponse<Stream<String>> respuesta = cliente.send(peticion("/personas/export").GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("La exportación respondió " + respuesta.statusCode());
+        }
+        List<Map.Entry<Long, String>> servidor = new ArrayList<>();
+        try (Stream<String> lineas = respuesta.body()) {
+            lineas.filter(linea -> !linea.isBlank()).forEach(linea -> {
+                JsonNode persona = leer(linea);
+                servidor.add(new AbstractMap.SimpleImmutableEntry<>(
+                        persona.path("id").asLong(), persona.path("nombre").asText()));
+            });
+        }
+
+        RegistroPersonas.Verificacion resultado = registro.verificar(servidor);
+        System.out.println();
+        System.out.println("Verificación de " + servidor.size() + " personas exportadas (prefijo "
+                + registro.getPrefijo() + "):");
+        System.out.println("  altas confirmadas " + resultado.confirmadas + ", bajas confirmadas " + resultado.eliminadas
+                + ", altas inciertas " + resultado.altasInciertas + " (" + resultado.altasInciertasPresentes
+                + " presentes), bajas inciertas " + resultado.bajasInciertas);
+        System.out.println("  perdidas " + resultado.perdidas.size() + muestra(resultado.perdidas)
+                + ", reaparecidas " + resultado.reaparecidas.size() + muestra(resultado.reaparecidas)
+                + ", alteradas " + resultado.alteradas.size() + muestra(resultado.alteradas));
+        System.out.println("  duplicadas " + resultado.duplicadas.size() + muestra(resultado.duplicadas)
+                + ", sin alta confirmada " + resultado.desconocidas.size() + muestra(resultado.desconocidas)
+                + ", IDs repetidos " + resultado.idsRepetidos.size() + muestra(resultado.idsRepetidos));
+        System.out.println("  404 inesperados durante la carga " + resultado.noEncontradasInesperadas
+                + ", lecturas de otro registro " + resultado.lecturasInconsistentes);
+        System.out.println(resultado.correcta() ? "Resultado: correcto" : "Resultado: INCONSISTENTE");
+        return resultado.correcta();
+    }
+
+    private void informarIntervalo(long inicio, int segundos) {
+        LatencyHistogram intervalo = latenciaIntervalo.getAndSet(new LatencyHistogram());
+        long transcurrido = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio);
+        System.out.printf(Locale.ROOT, "[%5d s]%s %9.1f ops/s   p50 %8.2f ms   p99 %8.2f ms   errores %d%n",
+                transcurrido, System.nanoTime() < inicioMedicion ? " (calentamiento)" : "",
+                (double) intervalo.getCantidad() / segundos,
+                intervalo.percentilSegundos(0.5) * 1000, intervalo.percentilSegundos(0.99) * 1000,
+                erroresIntervalo.sumThenReset());
+    }
+
+    private void informarTotal(int duracion) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-11s %10s %10s %10s %10s %10s  %s%n",
+                "operación", "cantidad", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "respuestas");
+        for (Operacion operacion : Operacion.values()) {
+            LatencyHistogram histograma = latencias.get(operacion);
+            if (histograma.getCantidad() > 0) {
+                imprimirFila(operacion.getNombre(), histograma, estados.get(operacion));
+            }
+        }
+        imprimirFila("total", latenciaTotal, null);
+        System.out.printf(Locale.ROOT, "Rendimiento: %.1f ops/s durante %d s%n",
+                (double) latenciaTotal.getCantidad() / duracion, duracion);
+        if (omitidas.sum() > 0) {
+            System.out.println("Omitidas por superar carga.maximo-en-curso: " + omitidas.sum()
+                    + " (el servidor no sostiene la tasa pedida)");
+        }
+    }
+
+    private static void imprimirFila(String nombre, LatencyHistogram histograma, Map<Integer, LongAdder> codigos) {
+        StringBuilder fila = new StringBuilder(String.format(Locale.ROOT, "%-11s %10d", nombre, histograma.getCantidad()));
+        for (double percentil : PERCENTILES) {
+            fila.append(String.format(Locale.ROOT, " %10.2f", histograma.percentilSegundos(percentil) * 1000));
+        }
+        if (codigos != null) {
+            fila.append(' ');
+            new TreeMap<>(codigos).forEach((codigo, cantidad) -> fila.append(' ')
+                    .append(codigo == SIN_RESPUESTA ? "sin respuesta" : codigo).append('=').append(cantidad.sum()));
+        }
+        System.out.println(fila);
+    }
+
+    private HttpRequest.Builder peticion(String ruta) {
+        return HttpRequest.newBuilder(URI.create(base + ruta))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json");
+    }
+
+    /**
+     * Envía sin propagar errores de red: sin respuesta el futuro completa con null
+     */
+    private CompletableFuture<HttpResponse<String>> enviar(HttpRequest.Builder peticion) {
+        return cliente.sendAsync(peticion.build(), HttpResponse.BodyHandlers.ofString())
+                .handle((respuesta, error) -> respuesta);
+    }
+
+    private static int codigo(HttpResponse<?> respuesta) {
+        return respuesta == null ? SIN_RESPUESTA : respuesta.statusCode();
+    }
+
+    /**
+     * Sin respuesta o con un error del servidor no se sabe si el cambio se
+     * aplicó; 429 y 503 son rechazos previos a la escritura
+     */
+    private static boolean incierta(int codigo) {
+        return codigo == SIN_RESPUESTA || (codigo >= 500 && codigo != 503);
+    }
+
+    private static HttpRequest.BodyPublisher cuerpo(String nombre) {
+        return HttpRequest.BodyPublishers.ofString(json(nombre));
+    }
+
+    private static String json(String nombre) {
+        // Los nombres generados no necesitan escape
+        return "{\"nombre\":\"" + nombre + "\",\"edad\":" + ThreadLocalRandom.current().nextInt(151) + "}";
+    }
+
+    private static JsonNode leer(HttpResponse<String> respuesta) {
+        return leer(respuesta.body());
+    }
+
+    private static JsonNode leer(String json) {
+        try {
+            return JSON.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Respuesta JSON inválida: " + json, e);
+        }
+    }
+
+    private static String muestra(List<?> valores) {
+        return valores.isEmpty() ? "" : " " + valores.subList(0, Math.min(5, valores.size()));
+    }
+}
@@ -0,0 +1,109 @@
+package com.abpro.proyecto.carga;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Operaciones que genera la carga sobre /personas
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+enum Operacion {
+
+    LISTAR("listar"),
+    OBTENER("obtener"),
+    CREAR("crear"),
+    ACTUALIZAR("actualizar"),
+    ELIMINAR("eliminar");
+
+    private final String nombre;
+
+    Operacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    static Operacion porNombre(String nombre) {
+        for (Operacion operacion : values()) {
+            if (operacion.nombre.equals(nombre)) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida en carga.mezcla: " + nombre);
+    }
+
+    /**
+     * Proporción de cada operación, por ejemplo "obtener=60,listar=10,crear=15,actualizar=10,eliminar=5"
+     * (los pesos no necesitan sumar 100)
+     */
+    static final class Mezcla {
+
+        private final Operacion[] operaciones;
+        private final int[] acumulados;
+        private final int total;
+
+        private Mezcla(Map<Operacion, Integer> pesos) {
+            this.operaciones = new Operacion[pesos.size()];
+            this.acumulados = new int[pesos.size()];
+            int suma = 0;
+            int i = 0;
+            for (Map.Entry<Operacion, Integer> peso : pesos.entrySet()) {
+                suma += peso.getValue();
+                operaciones[i] = peso.getKey();
+                acumulados[i] = suma;
+                i++;
+            }
+            if (suma <= 0) {
+                throw new IllegalArgumentException("carga.mezcla no tiene ninguna operación con peso positivo");
+            }
+            this.total = suma;
+        }
+
+        static Mezcla parsear(String texto) {
+            Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+            for (String parte : texto.split(",")) {
+                String[] claveValor = parte.trim().split("=");
+                if (claveValor.length != 2) {
+                    throw new IllegalArgumentException("Elemento inválido en carga.mezcla: " + parte);
+                }
+                int peso = Integer.parseInt(claveValor[1].trim());
+                if (peso < 0) {
+                    throw new IllegalArgumentException("Peso negativo en carga.mezcla: " + parte);
+                }
+                pesos.put(porNombre(claveValor[0].trim()), peso);
+            }
+            return new Mezcla(pesos);
+        }
+
+        Operacion elegir() {
+            int valor = ThreadLocalRandom.current().nextInt(total);
+            for (int i = 0; i < acumulados.length; i++) {
+                if (valor < acumulados[i]) {
+                    return operaciones[i];
+                }
+            }
+            return operaciones[operaciones.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder();
+            int anterior = 0;
+            for (int i = 0; i < operaciones.length; i++) {
+                if (acumulados[i] > anterior) {
+                    if (texto.length() > 0) {
+                        texto.append(", ");
+                    }
+                    texto.append(operaciones[i].nombre).append(' ')
+                            .append(Math.round(100.0 * (acumulados[i] - anterior) / total)).append('%');
+                }
+                anterior = acumulados[i];
+            }
+            return texto.toString();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.abpro.proyecto.carga;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lo que el generador sabe que hizo, para verificar lo que quedó en el servidor
+ *
+ * Cada alta usa un nombre único (prefijo de la corrida + secuencia), así
+ * que un nombre repetido en el servidor es un registro duplicado. Se
+ * separan las respuestas confirmadas de las inciertas (sin respuesta o con
+ * 5xx): de estas no se sabe si el cambio se aplicó, y no cuentan como error.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+final class RegistroPersonas {
+
+    private final String prefijo;
+    private final AtomicLong secuencia = new AtomicLong();
+
+    // IDs que se pueden leer, actualizar o eliminar, con acceso por posición para elegir al azar
+    private long[] vivas = new long[1024];
+    private int cantidadVivas;
+    private final Map<Long, Integer> posiciones = new HashMap<>();
+
+    // Altas confirmadas (201): ID -> nombre
+    private final Map<Long, String> confirmadas = new ConcurrentHashMap<>();
+    // Nombres de altas sin respuesta o con 5xx
+    private final Set<String> altasInciertas = ConcurrentHashMap.newKeySet();
+    // IDs retirados para eliminar: desde ahí un 404 al leerlos es esperable
+    private final Set<Long> retiradas = ConcurrentHashMap.newKeySet();
+    private final Set<Long> eliminadas = ConcurrentHashMap.newKeySet();
+    private final Set<Long> bajasInciertas = ConcurrentHashMap.newKeySet();
+
+    // Anomalías vistas durante la carga
+    private final LongAdder noEncontradasInesperadas = new LongAdder();
+    private final LongAdder lecturasInconsistentes = new LongAdder();
+
+    RegistroPersonas() {
+        this.prefijo = "carga-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+    }
+
+    String getPrefijo() {
+        return prefijo;
+    }
+
+    String nuevoNombre() {
+        return prefijo + secuencia.incrementAndGet();
+    }
+
+    String nombreDe(long id) {
+        return confirmadas.get(id);
+    }
+
+    void altaConfirmada(long id, String nombre) {
+        confirmadas.put(id, nombre);
+        agregarViva(id);
+    }
+
+    void altaIncierta(String nombre) {
+        altasInciertas.add(nombre);
+    }
+
+    /**
+     * Un ID vivo al azar para leer o actualizar
+     *
+     * @return el ID, o -1 si no hay ninguno
+     */
+    synchronized long elegir() {
+        return cantidadVivas == 0 ? -1 : vivas[ThreadLocalRandom.current().nextInt(cantidadVivas)];
+    }
+
+    /**
+     * Quita un ID vivo al azar para eliminarlo: cada ID se elimina una sola vez
+     *
+     * @return el ID, o -1 si no hay ninguno
+     */
+    long retirar() {
+        long id;
+        synchronized (this) {
+            if (cantidadVivas == 0) {
+                return -1;
+            }
+            id = vivas[ThreadLocalRandom.current().nextInt(cantidadVivas)];
+            quitarViva(id);
+        }
+        retiradas.add(id);
+        return id;
+    }
+
+    /**
+     * La baja fue rechazada sin aplicarse (429, 503): el ID vuelve a estar disponible
+     */
+    void devolver(long id) {
+        retiradas.remove(id);
+        agregarViva(id);
+    }
+
+    void bajaConfirmada(long id) {
+        eliminadas.add(id);
+    }
+
+    void bajaIncierta(long id) {
+        bajasInciertas.add(id);
+    }
+
+    /**
+     * Un 404 sobre un ID que el generador no eliminó indica un registro perdido
+     */
+    void noEncontrada(long id) {
+        if (!retiradas.contains(id)) {
+            noEncontradasInesperadas.increment();
+        }
+    }
+
+    /**
+     * Cada ID se elimina una sola vez, así que un 404 al eliminar también
+     * indica que el registro ya no estaba
+     */
+    void bajaNoEncontrada(long id) {
+        noEncontradasInesperadas.increment();
+        eliminadas.add(id);
+    }
+
+    void lecturaInconsistente() {
+        lecturasInconsistentes.increment();
+    }
+
+    private synchronized void agregarViva(long id) {
+        if (cantidadVivas == vivas.length) {
+            long[] mayor = new long[vivas.length * 2];
+            System.arraycopy(vivas, 0, mayor, 0, cantidadVivas);
+            vivas = mayor;
+        }
+        posiciones.put(id, cantidadVivas);
+        vivas[cantidadVivas++] = id;
+    }
+
+    private void quitarViva(long id) {
+        int posicion = posiciones.remove(id);
+        long ultima = vivas[--cantidadVivas];
+        if (ultima != id) {
+            vivas[posicion] = ultima;
+            posiciones.put(ultima, posicion);
+        }
+    }
+
+    /**
+     * Compara lo registrado con el contenido del servidor
+     *
+     * @param servidor pares ID -> nombre de todas las personas exportadas,
+     *                 en el orden en que llegaron (puede repetir IDs)
+     */
+    Verificacion verificar(List<Map.Entry<Long, String>> servidor) {
+        Verificacion resultado = new Verificacion();
+        Map<Long, String> porId = new HashMap<>();
+        Map<String, Integer> porNombre = new HashMap<>();
+        for (Map.Entry<Long, String> persona : servidor) {
+            if (porId.put(persona.getKey(), persona.getValue()) != null) {
+                resultado.idsRepetidos.add(persona.getKey());
+            }
+            if (persona.getValue().startsWith(prefijo)) {
+                porNombre.merge(persona.getValue(), 1, Integer::sum);
+            }
+        }
+
+        for (Map.Entry<String, Integer> nombre : porNombre.entrySet()) {
+            if (nombre.getValue() > 1) {
+                resultado.duplicadas.add(nombre.getKey());
+            }
+        }
+        Set<String> nombresConfirmados = new HashSet<>(confirmadas.values());
+        for (Map.Entry<Long, String> persona : porId.entrySet()) {
+            String nombre = persona.getValue();
+            if (!nombre.startsWith(prefijo)) {
+                continue;
+            }
+            if (altasInciertas.contains(nombre)) {
+                resultado.altasInciertasPresentes++;
+            } else if (!nombresConfirmados.contains(nombre)) {
+                // Ninguna respuesta dijo que se creó
+                resultado.desconocidas.add(persona.getKey());
+            }
+        }
+
+        for (Map.Entry<Long, String> alta : confirmadas.entrySet()) {
+            long id = alta.getKey();
+            String enServidor = porId.get(id);
+            if (eliminadas.contains(id)) {
+                if (enServidor != null) {
+                    resultado.reaparecidas.add(id);
+                }
+            } else if (!bajasInciertas.contains(id)) {
+                if (enServidor == null) {
+                    resultado.perdidas.add(id);
+                } else if (!enServidor.equals(alta.getValue())) {
+                    resultado.alteradas.add(id);
+                }
+            }
+        }
+
+        resultado.confirmadas = confirmadas.size();
+        resultado.eliminadas = eliminadas.size();
+        resultado.altasInciertas = altasInciertas.size();
+        resultado.bajasInciertas = bajasInciertas.size();
+        resultado.noEncontradasInesperadas = noEncontradasInesperadas.sum();
+        resultado.lecturasInconsistentes = lecturasInconsistentes.sum();
+        return resultado;
+    }
+
+    /**
+     * Resultado de la verificación final
+     */
+    static final class Verificacion {
+
+        final List<Long> perdidas = new ArrayList<>();
+        final List<Long> reaparecidas = new ArrayList<>();
+        final List<Long> alteradas = new ArrayList<>();
+        final List<Long> desconocidas = new ArrayList<>();
+        final List<Long> idsRepetidos = new ArrayList<>();
+        final List<String> duplicadas = new ArrayList<>();
+        int confirmadas;
+        int eliminadas;
+        int altasInciertas;
+        int altasInciertasPresentes;
+        int bajasInciertas;
+        long noEncontradasInesperadas;
+        long lecturasInconsistentes;
+
+        boolean correcta() {
+            return perdidas.isEmpty() && reaparecidas.isEmpty() && alteradas.isEmpty()
+                    && desconocidas.isEmpty() && idsRepetidos.isEmpty() && duplicadas.isEmpty()
+                    && noEncontradasInesperadas == 0 && lecturasInconsistentes == 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.abpro.proyecto.server;
+
+import com.abpro.proyecto.config.WebAppInitializer;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Lanzador de la aplicación con Jetty embebido (jar ejecutable)
+ *
+ * A diferencia del despliegue como WAR, no hay descubrimiento de la
+ * aplicación: Jetty no analiza el classpath buscando anotaciones ni
+ * ServletContainerInitializer, y el contexto recibe directamente el
+ * WebAppInitializer, que registra los mismos servlets y filtros que en un
+ * contenedor. El DispatcherServlet se inicia antes de abrir el puerto,
+ * así que la primera petición no paga la creación del contexto de Spring.
+ *
+ * Propiedades del sistema:
+ * - personas.puerto: puerto HTTP (por defecto 8080)
+ * - personas.contexto: ruta base (por defecto /api, igual que jetty:run)
+ * - personas.hilos-servidor: máximo de hilos de Jetty (por defecto 200)
+ *
+ * Construir con "mvn -Pembebido package" y ejecutar con
+ * "java -jar target/spring-mvc-rest-api-embebido.jar".
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class EmbeddedServer {
+
+    private final Server server;
+    private final ServerConnector connector;
+
+    public EmbeddedServer(int puerto, String contexto, int maximoHilos) {
+        QueuedThreadPool hilos = new QueuedThreadPool(maximoHilos);
+        hilos.setName("jetty");
+        this.server = new Server(hilos);
+        this.connector = new ServerConnector(server);
+        connector.setPort(puerto);
+        server.addConnector(connector);
+
+        // Sin sesiones ni seguridad: la API es sin estado
+        ServletContextHandler handler = new ServletContextHandler(ServletContextHandler.NO_SESSIONS);
+        handler.setContextPath(contexto);
+        handler.addServletContainerInitializer((clases, servletContext) ->
+                new WebAppInitializer().onStartup(servletContext));
+        server.setHandler(handler);
+        server.setStopAtShutdown(true);
+    }
+
+    public void iniciar() throws Exception {
+        server.start();
+    }
+
+    public void detener() throws Exception {
+        server.stop();
+    }
+
+    /**
+     * Puerto efectivo (útil si se pidió el 0 para uno libre)
+     */
+    public int getPuerto() {
+        return connector.getLocalPort();
+    }
+
+    public static void main(String[] args) throws Exception {
+        EmbeddedServer servidor = new EmbeddedServer(
+                Integer.getInteger("personas.puerto", 8080),
+                System.getProperty("personas.contexto", "/api"),
+                Integer.getInteger("personas.hilos-servidor", 200));
+        servidor.iniciar();
+
+        // Desde el inicio de la JVM, no solo desde main (Jetty ya cargó java.management)
+        long ms = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.out.println("Servidor embebido escuchando en el puerto " + servidor.getPuerto()
+                + " (listo en " + ms + " ms desde el inicio de la JVM)");
+        servidor.server.join();
+    }
+}
@@ -0,0 +1,122 @@
+package com.abpro.proyecto.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el tiempo hasta la primera petición atendida del servidor embebido
+ *
+ * Lanza EmbeddedServer varias veces en JVMs nuevas (arranque en frío) y
+ * mide desde que se crea el proceso hasta que GET /personas/health
+ * responde 200; es el tiempo que ve un balanceador al escalar. Informa
+ * mínimo, mediana y máximo.
+ *
+ * Propiedades del sistema:
+ * - arranque.repeticiones: cantidad de arranques (por defecto 5)
+ * - arranque.jvm-args: opciones para la JVM del servidor separadas por
+ *   espacios, por ejemplo "-XX:TieredStopAtLevel=1 -XX:SharedArchiveFile=app.jsa"
+ *
+ * Ejecutar con:
+ * java -cp target/spring-mvc-rest-api-embebido.jar com.abpro.proyecto.server.MedicionArranque
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class MedicionArranque {
+
+    private static final long ESPERA_MAXIMA_MS = 60_000;
+
+    private MedicionArranque() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int repeticiones = Integer.getInteger("arranque.repeticiones", 5);
+        String jvmArgs = System.getProperty("arranque.jvm-args", "").trim();
+
+        long[] tiempos = new long[repeticiones];
+        for (int i = 0; i < repeticiones; i++) {
+            tiempos[i] = medir(jvmArgs.isEmpty() ? List.of() : Arrays.asList(jvmArgs.split("\\s+")));
+            System.out.println("Arranque " + (i + 1) + ": " + tiempos[i] + " ms");
+        }
+        Arrays.sort(tiempos);
+        System.out.println("Tiempo hasta la primera respuesta: mínimo " + tiempos[0]
+                + " ms, mediana " + tiempos[repeticiones / 2]
+                + " ms, máximo " + tiempos[repeticiones - 1] + " ms");
+    }
+
+    /**
+     * Arranca un servidor en un puerto libre y espera su primera respuesta
+     *
+     * @return milisegundos desde la creación del proceso
+     */
+    static long medir(List<String> jvmArgs) throws IOException, InterruptedException {
+        int puerto = puertoLibre();
+        List<String> comando = new ArrayList<>();
+        comando.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        comando.addAll(jvmArgs);
+        comando.add("-Dpersonas.puerto=" + puerto);
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(EmbeddedServer.class.getName());
+
+        ProcessBuilder builder = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        long inicio = System.nanoTime();
+        Process proceso = builder.start();
+        try {
+            long limite = inicio + TimeUnit.MILLISECONDS.toNanos(ESPERA_MAXIMA_MS);
+            while (!responde(puerto)) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException("El servidor terminó con código " + proceso.exitValue());
+                }
+                if (System.nanoTime() > limite) {
+                    throw new IllegalStateException("El servidor no respondió en " + ESPERA_MAXIMA_MS + " ms");
+                }
+                Thread.sleep(5);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(10, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Una petición HTTP/1.0 mínima por socket: sin cliente HTTP que
+     * inicializar en el proceso que mide
+     */
+    private static boolean responde(int puerto) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", puerto), 100);
+            socket.setSoTimeout(5000);
+            OutputStream salida = socket.getOutputStream();
+            salida.write(("GET " + System.getProperty("personas.contexto", "/api")
+                    + "/personas/health HTTP/1.0\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            salida.flush();
+            InputStream entrada = socket.getInputStream();
+            // "HTTP/1.x 200"
+            String estado = new String(entrada.readNBytes(12), StandardCharsets.US_ASCII);
+            return estado.startsWith("HTTP/1.") && estado.endsWith(" 200");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.abpro.proyecto.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Lanzador de los benchmarks JMH
+ *
+ * Ejecuta los benchmarks seleccionados una vez por cada cantidad de hilos
+ * y guarda cada corrida en JSON (target/jmh/resultados-tN.json) para poder
+ * comparar resultados entre builds.
+ *
+ * Propiedades del sistema (el perfil "benchmark" del pom.xml las completa):
+ * - jmh.include: expresión regular de los benchmarks a ejecutar
+ * - jmh.threads: cantidades de hilos separadas por coma, por ejemplo "1,4,16"
+ * - jmh.args: opciones adicionales de JMH, por ejemplo "-p tamanio=1000 -f 1"
+ * - jmh.resultados: directorio de salida
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String include = System.getProperty("jmh.include", ".*");
+        String[] hilos = System.getProperty("jmh.threads", "1").split(",");
+        String extra = System.getProperty("jmh.args", "").trim();
+        File resultados = new File(System.getProperty("jmh.resultados", "target/jmh"));
+        resultados.mkdirs();
+
+        CommandLineOptions base = new CommandLineOptions(extra.isEmpty() ? new String[0] : extra.split("\\s+"));
+
+        for (String cantidad : hilos) {
+            int threads = Integer.parseInt(cantidad.trim());
+            Options opciones = new OptionsBuilder()
+                    .parent(base)
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultados, "resultados-t" + threads + ".json").getPath())
+                    .build();
+            new Runner(opciones).run();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.abpro.proyecto.benchmark;
+
+import com.abpro.proyecto.converter.ApiResponseHttpMessageConverter;
+import com.abpro.proyecto.converter.ApiResponseJsonWriter;
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.dto.Pagina;
+import com.abpro.proyecto.model.PersonaConId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara ApiResponseHttpMessageConverter con el MappingJackson2HttpMessageConverter
+ * por defecto de Spring MVC
+ *
+ * Cada operación crea la ApiResponse (con su timestamp) y la escribe con
+ * el conversor a un buffer reutilizado, como en una petición real.
+ * Usar -prof gc para comparar también la asignación por operación.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversorJsonBenchmark {
+
+    @Param({"jackson", "propio"})
+    public String conversor;
+
+    private HttpMessageConverter<Object> converter;
+    private final Salida salida = new Salida();
+    private PersonaConId persona;
+    private List<PersonaConId> pagina;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        converter = "propio".equals(conversor)
+                ? (HttpMessageConverter<Object>) (HttpMessageConverter<?>)
+                        new ApiResponseHttpMessageConverter(new ApiResponseJsonWriter())
+                : new MappingJackson2HttpMessageConverter();
+        persona = new PersonaConId(1L, "Juan Pérez", 30);
+        pagina = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            pagina.add(new PersonaConId((long) i, "Persona " + i, i));
+        }
+    }
+
+    @Benchmark
+    public int escribirPersona() throws IOException {
+        return escribir(ApiResponse.success("Persona encontrada", persona));
+    }
+
+    @Benchmark
+    public int escribirPagina() throws IOException {
+        return escribir(ApiResponse.success(
+                "Lista de personas obtenida exitosamente", new Pagina<>(pagina, "cursor")));
+    }
+
+    private int escribir(ApiResponse<?> respuesta) throws IOException {
+        salida.reiniciar();
+        converter.write(respuesta, MediaType.APPLICATION_JSON, salida);
+        return salida.cuerpo.size();
+    }
+
+    /**
+     * Mensaje de salida con buffer reutilizable, para medir solo la conversión
+     */
+    private static final class Salida implements HttpOutputMessage {
+        private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(16 * 1024);
+        private HttpHeaders headers = new HttpHeaders();
+
+        private void reiniciar() {
+            cuerpo.reset();
+            headers = new HttpHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return cuerpo;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
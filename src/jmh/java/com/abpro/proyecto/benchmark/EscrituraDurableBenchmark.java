@@ -0,0 +1,76 @@
+package com.abpro.proyecto.benchmark;
+
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import com.abpro.proyecto.repository.WalPersonaRepository;
+import com.abpro.proyecto.write.GroupCommitWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Altas durables (repositorio WAL) según el modo de escritura
+ *
+ * directa: cada hilo guarda y espera el fsync, que comparte con los que
+ * escriben al mismo tiempo. agrupada: cada hilo encola en GroupCommitWriter
+ * y espera la confirmación de su lote, como AsyncPersonaWriteController.
+ * La diferencia aparece con muchos hilos, por ejemplo -Djmh.threads=64.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class EscrituraDurableBenchmark {
+
+    @Param({"directa", "agrupada"})
+    public String modo;
+
+    private Path directorio;
+    private WalPersonaRepository repository;
+    private GroupCommitWriter escritor;
+    private final Persona persona = new Persona("Benchmark", 42);
+
+    @Setup(Level.Trial)
+    public void abrir() throws IOException {
+        directorio = Files.createTempDirectory("personas-benchmark");
+        repository = new WalPersonaRepository(directorio, 256L * 1024 * 1024);
+        if ("agrupada".equals(modo)) {
+            escritor = new GroupCommitWriter(repository, 4096, 256, new MetricsRegistry());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        if (escritor != null) {
+            escritor.close();
+        }
+        repository.close();
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> archivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Object guardar() {
+        if (escritor == null) {
+            return repository.save(persona);
+        }
+        // Con la cola llena se reintenta, como haría un cliente tras el 503
+        CompletableFuture<PersonaConId> guardada;
+        while ((guardada = escritor.enviar(repo -> repo.save(persona))) == null) {
+            Thread.onSpinWait();
+        }
+        return guardada.join();
+    }
+}
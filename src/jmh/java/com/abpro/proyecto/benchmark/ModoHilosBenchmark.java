@@ -0,0 +1,87 @@
+package com.abpro.proyecto.benchmark;
+
+import com.abpro.proyecto.config.HilosVirtuales;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga que compara el modo de hilos de plataforma con el de
+ * hilos virtuales
+ *
+ * Simula una ráfaga de peticiones concurrentes que bloquean en I/O (por
+ * ejemplo un fsync o un servicio externo) atendidas por un pool de 200
+ * hilos, el máximo por defecto de Jetty. En modo "plataforma" el pool
+ * atiende la petición completa; en modo "virtuales" el hilo del pool solo
+ * la entrega a un hilo virtual, como hace VirtualThreadFilter.
+ *
+ * El modo "virtuales" requiere ejecutar con Java 21 o superior.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModoHilosBenchmark {
+
+    private static final int HILOS_SERVIDOR = 200;
+
+    @Param({"plataforma", "virtuales"})
+    public String modo;
+
+    @Param({"10000"})
+    public int peticiones;
+
+    @Param({"10"})
+    public int bloqueoMs;
+
+    private ExecutorService servidor;
+    private ExecutorService virtuales;
+
+    @Setup
+    public void setup() {
+        servidor = Executors.newFixedThreadPool(HILOS_SERVIDOR);
+        if (HilosVirtuales.MODO_VIRTUAL.equals(modo)) {
+            virtuales = HilosVirtuales.nuevoExecutor();
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        servidor.shutdownNow();
+        if (virtuales != null) {
+            virtuales.shutdownNow();
+        }
+    }
+
+    /**
+     * Tiempo hasta completar todas las peticiones de la ráfaga
+     */
+    @Benchmark
+    public void rafaga() throws InterruptedException {
+        CountDownLatch completadas = new CountDownLatch(peticiones);
+        Runnable peticion = () -> {
+            try {
+                Thread.sleep(bloqueoMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completadas.countDown();
+        };
+
+        for (int i = 0; i < peticiones; i++) {
+            if (virtuales != null) {
+                servidor.execute(() -> virtuales.execute(peticion));
+            } else {
+                servidor.execute(peticion);
+            }
+        }
+        completadas.await();
+    }
+}
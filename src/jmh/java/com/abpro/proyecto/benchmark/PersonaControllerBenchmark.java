@@ -0,0 +1,131 @@
+package com.abpro.proyecto.benchmark;
+
+import com.abpro.proyecto.cache.IdempotencyCache;
+import com.abpro.proyecto.cache.SerializedResponseCache;
+import com.abpro.proyecto.controller.PersonaController;
+import com.abpro.proyecto.controller.PersonaWriteController;
+import com.abpro.proyecto.converter.ApiResponseJsonWriter;
+import com.abpro.proyecto.dto.CursorCodec;
+import com.abpro.proyecto.events.PersonaEventStream;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.repository.InMemoryPersonaRepository;
+import com.abpro.proyecto.repository.PersonaRepository;
+import com.abpro.proyecto.validation.PersonaValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de los métodos de PersonaController y PersonaWriteController
+ * sobre el repositorio en memoria
+ *
+ * Invoca el controlador directamente (sin la capa HTTP) con distintos
+ * tamaños de almacenamiento. La cantidad de hilos la define BenchmarkRunner.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class PersonaControllerBenchmark {
+
+    private static final int LOTE_CARGA = 10_000;
+    private static final int TAMANIO_PAGINA = 100;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanio;
+
+    // Capacidad de la caché de respuestas serializadas; 0 la desactiva
+    @Param({"0", "64"})
+    public int cacheMb;
+
+    private PersonaController controller;
+    private PersonaWriteController escrituras;
+    private final Persona persona = new Persona("Benchmark", 42);
+
+    // Para eliminar: el almacenamiento es una ventana deslizante [siguienteEliminar, contador]
+    private final AtomicLong siguienteEliminar = new AtomicLong(1);
+
+    @State(Scope.Thread)
+    public static class Aleatorio {
+        private final SplittableRandom random = new SplittableRandom();
+
+        // GET sin If-None-Match: siempre se genera la respuesta completa
+        final WebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/personas"));
+
+        long id(int maximo) {
+            return 1 + random.nextInt(maximo);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void cargar() {
+        PersonaRepository repository = new InMemoryPersonaRepository();
+        MetricsRegistry metrics = new MetricsRegistry();
+        PersonaValidator validator = new PersonaValidator();
+        SerializedResponseCache cache = new SerializedResponseCache(cacheMb * 1024L * 1024L, new ApiResponseJsonWriter(), metrics);
+        PersonaEventStream eventos = new PersonaEventStream(new StandardEnvironment(), metrics);
+        controller = new PersonaController(repository, validator, cache, eventos);
+        escrituras = new PersonaWriteController(repository, validator, cache,
+                new IdempotencyCache(new StandardEnvironment(), metrics), eventos);
+
+        List<Persona> lote = new ArrayList<>(LOTE_CARGA);
+        for (int i = 0; i < tamanio; i++) {
+            lote.add(new Persona("Persona " + i, i % 151));
+            if (lote.size() == LOTE_CARGA) {
+                repository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        repository.saveAll(lote);
+    }
+
+    /**
+     * El almacenamiento crece durante la medición
+     */
+    @Benchmark
+    public Object crear() {
+        return escrituras.crear(persona, null, null);
+    }
+
+    @Benchmark
+    public Object obtenerPorId(Aleatorio aleatorio) {
+        return controller.obtenerPorId(aleatorio.id(tamanio), null, aleatorio.request);
+    }
+
+    @Benchmark
+    public Object actualizar(Aleatorio aleatorio) {
+        return escrituras.actualizar(aleatorio.id(tamanio), persona, null, null);
+    }
+
+    /**
+     * Elimina la persona más antigua y crea una nueva para mantener el
+     * tamaño constante: restar el resultado de crear() para aislar eliminar()
+     */
+    @Benchmark
+    public Object eliminarYCrear() {
+        escrituras.eliminar(siguienteEliminar.getAndIncrement());
+        return escrituras.crear(persona, null, null);
+    }
+
+    /**
+     * Una página de 100 personas desde una posición aleatoria
+     */
+    @Benchmark
+    public Object listarTodas(Aleatorio aleatorio) {
+        long after = aleatorio.id(Math.max(1, tamanio - TAMANIO_PAGINA)) - 1;
+        return controller.listarTodas(TAMANIO_PAGINA, CursorCodec.encode(after), null, false, null, aleatorio.request);
+    }
+}
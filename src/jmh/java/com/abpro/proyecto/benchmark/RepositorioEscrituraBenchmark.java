@@ -0,0 +1,49 @@
+package com.abpro.proyecto.benchmark;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.repository.InMemoryPersonaRepository;
+import com.abpro.proyecto.repository.PersonaRepository;
+import com.abpro.proyecto.repository.ShardedPersonaRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalabilidad de las altas según el modo de almacenamiento
+ *
+ * Compara el repositorio en memoria (un contador de IDs y un mapa
+ * compartidos) con el particionado. Para ver la diferencia hay que
+ * ejecutarlo con varias cantidades de hilos, por ejemplo
+ * -Djmh.threads=1,4,16.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class RepositorioEscrituraBenchmark {
+
+    @Param({"memoria", "particionado"})
+    public String almacenamiento;
+
+    private PersonaRepository repository;
+    private final Persona persona = new Persona("Benchmark", 42);
+
+    /**
+     * Un repositorio nuevo por iteración para que el tamaño no crezca sin límite
+     */
+    @Setup(Level.Iteration)
+    public void crearRepositorio() {
+        repository = "particionado".equals(almacenamiento)
+                ? new ShardedPersonaRepository(Runtime.getRuntime().availableProcessors(), 64)
+                : new InMemoryPersonaRepository();
+    }
+
+    @Benchmark
+    public Object guardar() {
+        return repository.save(persona);
+    }
+}
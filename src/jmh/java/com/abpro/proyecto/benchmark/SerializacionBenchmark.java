@@ -0,0 +1,66 @@
+package com.abpro.proyecto.benchmark;
+
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.dto.CamposPersona;
+import com.abpro.proyecto.dto.Pagina;
+import com.abpro.proyecto.dto.PaginaProyectada;
+import com.abpro.proyecto.model.PersonaConId;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la serialización JSON de ApiResponse
+ *
+ * Usa un ObjectMapper construido igual que el de Spring MVC e incluye la
+ * creación de ApiResponse (y su timestamp), como en cada petición real.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+    private ObjectMapper mapper;
+    private PersonaConId persona;
+    private List<PersonaConId> pagina;
+    private final CamposPersona idNombre = CamposPersona.parsear("id,nombre");
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        persona = new PersonaConId(1L, "Juan Pérez", 30);
+        pagina = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            pagina.add(new PersonaConId((long) i, "Persona " + i, i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarPersona() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(ApiResponse.success("Persona encontrada", persona));
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(ApiResponse.success(
+                "Lista de personas obtenida exitosamente", new Pagina<>(pagina, "cursor")));
+    }
+
+    /**
+     * La misma página con GET /personas?fields=id,nombre&compact=true
+     */
+    @Benchmark
+    public byte[] serializarPaginaCompacta() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new PaginaProyectada(pagina, "cursor", idNombre));
+    }
+}
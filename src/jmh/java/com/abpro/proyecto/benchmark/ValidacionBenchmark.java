@@ -0,0 +1,70 @@
+package com.abpro.proyecto.benchmark;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.validation.PersonaValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la validación de Persona
+ *
+ * Compara Hibernate Validator, armando el mapa campo -> mensaje como lo
+ * hacía el manejador de errores, contra PersonaValidator, con restricciones
+ * y mapas de error precalculados.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidacionBenchmark {
+
+    @Param({"hibernate", "precalculado"})
+    private String validador;
+
+    private Validator hibernate;
+    private PersonaValidator precalculado;
+    private final Persona valida = new Persona("Juan Pérez", 30);
+    private final Persona invalida = new Persona("", 200);
+
+    @Setup
+    public void setup() {
+        hibernate = Validation.buildDefaultValidatorFactory().getValidator();
+        precalculado = new PersonaValidator();
+    }
+
+    @Benchmark
+    public Map<String, String> validarValida() {
+        return validar(valida);
+    }
+
+    @Benchmark
+    public Map<String, String> validarInvalida() {
+        return validar(invalida);
+    }
+
+    private Map<String, String> validar(Persona persona) {
+        if ("precalculado".equals(validador)) {
+            return precalculado.validar(persona);
+        }
+        Set<ConstraintViolation<Persona>> violaciones = hibernate.validate(persona);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        Map<String, String> errores = new HashMap<>();
+        for (ConstraintViolation<Persona> violacion : violaciones) {
+            errores.put(violacion.getPropertyPath().toString(), violacion.getMessage());
+        }
+        return errores;
+    }
+}
@@ -0,0 +1,215 @@
+package com.abpro.proyecto.cache;
+
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.model.Persona;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caché de respuestas de POST /personas por Idempotency-Key
+ *
+ * La primera petición con una clave ejecuta la creación y guarda su
+ * respuesta; los reintentos con la misma clave reciben esa respuesta sin
+ * validar ni insertar otra vez. Si el reintento llega mientras la
+ * original sigue en curso, espera su resultado en lugar de crear otra
+ * persona. Reusar una clave con otro cuerpo responde 422.
+ *
+ * Las entradas vencen tras el tiempo de vida configurado y su cantidad
+ * está acotada: al superarla se descartan las más antiguas, por lo que
+ * la memoria no crece con la carga. Una cola en orden de inserción
+ * permite descartar en O(1) sin recorrer el mapa.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    static final int LARGO_MAXIMO_CLAVE = 255;
+
+    // Tiempo máximo que un reintento espera a la petición original en curso
+    private static final long ESPERA_EN_CURSO_MS = 30_000;
+
+    private final ConcurrentMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<Entrada> porAntiguedad = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger cantidad = new AtomicInteger();
+    private final int capacidad;
+    private final long vidaNanos;
+    private final LongSupplier reloj;
+
+    private final LongAdder nuevas;
+    private final LongAdder repetidas;
+    private final LongAdder conflictos;
+
+    @Autowired
+    public IdempotencyCache(Environment env, MetricsRegistry metrics) {
+        this(env.getProperty("personas.idempotencia.capacidad", Integer.class, 100_000),
+                TimeUnit.SECONDS.toNanos(env.getProperty("personas.idempotencia.vida-segundos", Long.class, 86_400L)),
+                System::nanoTime, metrics);
+    }
+
+    IdempotencyCache(int capacidad, long vidaNanos, LongSupplier reloj, MetricsRegistry metrics) {
+        this.capacidad = capacidad;
+        this.vidaNanos = vidaNanos;
+        this.reloj = reloj;
+        String ayuda = "Peticiones con Idempotency-Key por resultado";
+        this.nuevas = metrics.contador("personas_idempotency_requests_total", ayuda, "resultado=\"nueva\"");
+        this.repetidas = metrics.contador("personas_idempotency_requests_total", ayuda, "resultado=\"repetida\"");
+        this.conflictos = metrics.contador("personas_idempotency_requests_total", ayuda, "resultado=\"conflicto\"");
+    }
+
+    /**
+     * Ejecuta la creación una sola vez por clave
+     *
+     * @param clave   valor del header Idempotency-Key
+     * @param persona cuerpo de la petición, para detectar claves reutilizadas
+     * @param accion  creación real; su respuesta se guarda tal cual
+     */
+    public ResponseEntity<ApiResponse<?>> ejecutar(String clave, Persona persona,
+                                                   Supplier<ResponseEntity<ApiResponse<?>>> accion) {
+        if (clave.isEmpty() || clave.length() > LARGO_MAXIMO_CLAVE) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                    "El header " + HEADER + " debe tener entre 1 y " + LARGO_MAXIMO_CLAVE + " caracteres"));
+        }
+
+        long ahora = reloj.getAsLong();
+        descartarAntiguas(ahora);
+
+        Entrada nueva = new Entrada(clave, persona, ahora);
+        while (true) {
+            Entrada existente = entradas.putIfAbsent(clave, nueva);
+            if (existente == null) {
+                return ejecutarNueva(nueva, accion);
+            }
+            if (ahora - existente.creada >= vidaNanos) {
+                // Vencida pero aún no descartada: se reemplaza
+                if (entradas.replace(clave, existente, nueva)) {
+                    return ejecutarNueva(nueva, accion);
+                }
+                continue;
+            }
+            ResponseEntity<ApiResponse<?>> repetida = repetir(existente, persona);
+            if (repetida != null) {
+                return repetida;
+            }
+            // La original falló y ya no está en el mapa: esta petición la reemplaza
+        }
+    }
+
+    int getCantidad() {
+        return entradas.size();
+    }
+
+    private ResponseEntity<ApiResponse<?>> ejecutarNueva(Entrada entrada, Supplier<ResponseEntity<ApiResponse<?>>> accion) {
+        porAntiguedad.add(entrada);
+        if (cantidad.incrementAndGet() > capacidad) {
+            descartarMasAntigua();
+        }
+        nuevas.increment();
+        try {
+            ResponseEntity<ApiResponse<?>> respuesta = accion.get();
+            entrada.respuesta.complete(respuesta);
+            return respuesta;
+        } catch (RuntimeException | Error e) {
+            // Sin respuesta que repetir: un reintento vuelve a ejecutar la creación
+            entradas.remove(entrada.clave, entrada);
+            entrada.respuesta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Respuesta de la petición original, 422 si el cuerpo difiere, 409 si
+     * sigue en curso, o null si falló sin respuesta
+     */
+    private ResponseEntity<ApiResponse<?>> repetir(Entrada existente, Persona persona) {
+        if (!Objects.equals(existente.nombre, persona.getNombre()) || !Objects.equals(existente.edad, persona.getEdad())) {
+            conflictos.increment();
+            return ResponseEntity.unprocessableEntity().body(ApiResponse.error(
+                    "La clave " + HEADER + " ya se usó con otro cuerpo"));
+        }
+
+        ResponseEntity<ApiResponse<?>> original;
+        try {
+            original = existente.respuesta.get(ESPERA_EN_CURSO_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return enCurso();
+        } catch (TimeoutException e) {
+            return enCurso();
+        } catch (ExecutionException e) {
+            return null;
+        }
+
+        repetidas.increment();
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(HEADER_REPETIDA, "true")
+                .body(original.getBody());
+    }
+
+    private static ResponseEntity<ApiResponse<?>> enCurso() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(
+                "Otra petición con el mismo " + HEADER + " está en curso"));
+    }
+
+    /**
+     * Descarta las entradas vencidas del principio de la cola
+     */
+    private void descartarAntiguas(long ahora) {
+        Entrada primera;
+        while ((primera = porAntiguedad.peek()) != null && ahora - primera.creada >= vidaNanos) {
+            if (porAntiguedad.remove(primera)) {
+                cantidad.decrementAndGet();
+                entradas.remove(primera.clave, primera);
+            }
+        }
+    }
+
+    private void descartarMasAntigua() {
+        Entrada primera = porAntiguedad.poll();
+        if (primera != null) {
+            cantidad.decrementAndGet();
+            entradas.remove(primera.clave, primera);
+        }
+    }
+
+    /**
+     * Respuesta de una clave (pendiente mientras la creación está en curso)
+     * y el cuerpo con que se creó
+     */
+    private static final class Entrada {
+        private final String clave;
+        private final String nombre;
+        private final Integer edad;
+        private final long creada;
+        private final CompletableFuture<ResponseEntity<ApiResponse<?>>> respuesta = new CompletableFuture<>();
+
+        private Entrada(String clave, Persona persona, long creada) {
+            this.clave = clave;
+            this.nombre = persona.getNombre();
+            this.edad = persona.getEdad();
+            this.creada = creada;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.abpro.proyecto.cache;
+
+import com.abpro.proyecto.converter.ApiResponseJsonWriter;
+import com.abpro.proyecto.converter.FormatoRespuesta;
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caché de respuestas ya serializadas a JSON
+ *
+ * Guarda el cuerpo completo de la respuesta como byte[] junto con la
+ * versión de los datos con que se generó (la del registro para una
+ * persona, la global del repositorio para una página). Una entrada solo
+ * se usa si su versión coincide con la vigente, por lo que una escritura
+ * la invalida aunque nadie la quite; el controlador además quita las
+ * entradas de los IDs que actualiza o elimina para liberar memoria antes.
+ *
+ * El tamaño total se acota en bytes. Al superarlo se desalojan entradas
+ * con el algoritmo del reloj (segunda oportunidad): las leídas desde la
+ * última pasada se conservan una vuelta más.
+ *
+ * Cada formato de respuesta (JSON, CBOR, Smile) tiene su propio mapa de
+ * entradas; la capacidad y el desalojo son comunes a todos.
+ *
+ * El timestamp del cuerpo cacheado es el del momento en que se serializó.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class SerializedResponseCache {
+
+    static final long CAPACIDAD_POR_DEFECTO_MB = 64;
+
+    // Estimación de lo que ocupa cada entrada además del cuerpo
+    private static final int SOBRECARGA_ENTRADA = 96;
+
+    // Un solo cuerpo no puede ocupar más que esta fracción de la capacidad
+    private static final int FRACCION_MAXIMA_ENTRADA = 16;
+
+    // Produce el mismo JSON que el conversor de ApiResponse de Spring MVC
+    private final ApiResponseJsonWriter writer;
+
+    // Construidos igual que los conversores CBOR y Smile de Spring MVC
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+
+    // Un mapa por formato, indexado por FormatoRespuesta.ordinal()
+    private final List<ConcurrentMap<Object, Entrada>> porFormato = new ArrayList<>();
+    private final AtomicLong bytesUsados = new AtomicLong();
+    private final long capacidadBytes;
+
+    private final ReentrantLock desalojo = new ReentrantLock();
+    private int mapaManecilla;
+    private Iterator<Map.Entry<Object, Entrada>> manecilla;
+
+    private final LongAdder aciertos;
+    private final LongAdder fallos;
+    private final LongAdder desalojos;
+
+    @Autowired
+    public SerializedResponseCache(Environment env, ApiResponseJsonWriter writer, MetricsRegistry metrics) {
+        this(env.getProperty("personas.cache.capacidad-mb", Long.class, CAPACIDAD_POR_DEFECTO_MB) * 1024 * 1024,
+                writer, metrics);
+    }
+
+    /**
+     * @param capacidadBytes tamaño máximo de la caché; 0 la desactiva
+     */
+    public SerializedResponseCache(long capacidadBytes, ApiResponseJsonWriter writer, MetricsRegistry metrics) {
+        this.capacidadBytes = capacidadBytes;
+        this.writer = writer;
+        for (int i = 0; i < FormatoRespuesta.values().length; i++) {
+            porFormato.add(new ConcurrentHashMap<>());
+        }
+        String ayuda = "Consultas a la caché de respuestas serializadas";
+        this.aciertos = metrics.contador("personas_cache_requests_total", ayuda, "resultado=\"acierto\"");
+        this.fallos = metrics.contador("personas_cache_requests_total", ayuda, "resultado=\"fallo\"");
+        this.desalojos = metrics.contador("personas_cache_evictions_total",
+                "Entradas desalojadas de la caché por tamaño", "");
+    }
+
+    /**
+     * Devuelve el cuerpo cacheado para la clave si fue generado con la
+     * versión indicada; si no, serializa el que entrega el proveedor, lo
+     * guarda y lo devuelve
+     */
+    public byte[] obtener(Object clave, long version, FormatoRespuesta formato,
+                          Supplier<?> respuesta) {
+        ConcurrentMap<Object, Entrada> entradas = porFormato.get(formato.ordinal());
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && entrada.version == version) {
+            // Solo se escribe si cambia, para no invalidar la línea de caché en cada lectura
+            if (!entrada.usada) {
+                entrada.usada = true;
+            }
+            aciertos.increment();
+            return entrada.cuerpo;
+        }
+        fallos.increment();
+
+        byte[] cuerpo = serializar(respuesta.get(), formato);
+        if (cuerpo.length <= capacidadBytes / FRACCION_MAXIMA_ENTRADA) {
+            guardar(entradas, clave, new Entrada(version, cuerpo));
+        }
+        return cuerpo;
+    }
+
+    /**
+     * Quita las entradas de la clave en todos los formatos
+     */
+    public void invalidar(Object clave) {
+        for (ConcurrentMap<Object, Entrada> entradas : porFormato) {
+            Entrada entrada = entradas.remove(clave);
+            if (entrada != null) {
+                bytesUsados.addAndGet(-entrada.tamanio());
+            }
+        }
+    }
+
+    /**
+     * Serializa una respuesta igual que lo haría Spring MVC para el formato
+     * indicado, sin cachearla. Admite también cuerpos sin el sobre de
+     * ApiResponse, como las páginas compactas.
+     */
+    public byte[] serializar(Object respuesta, FormatoRespuesta formato) {
+        try {
+            switch (formato) {
+                case CBOR:
+                    return cbor.writeValueAsBytes(respuesta);
+                case SMILE:
+                    return smile.writeValueAsBytes(respuesta);
+                default:
+                    return respuesta instanceof ApiResponse
+                            ? writer.aBytes((ApiResponse<?>) respuesta)
+                            : writer.valorABytes(respuesta);
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    long getBytesUsados() {
+        return bytesUsados.get();
+    }
+
+    int getCantidad() {
+        int cantidad = 0;
+        for (ConcurrentMap<Object, Entrada> entradas : porFormato) {
+            cantidad += entradas.size();
+        }
+        return cantidad;
+    }
+
+    private void guardar(ConcurrentMap<Object, Entrada> entradas, Object clave, Entrada nueva) {
+        Entrada anterior = entradas.put(clave, nueva);
+        long delta = nueva.tamanio() - (anterior != null ? anterior.tamanio() : 0);
+        if (bytesUsados.addAndGet(delta) > capacidadBytes) {
+            desalojar();
+        }
+    }
+
+    /**
+     * Avanza la manecilla del reloj quitando entradas no leídas desde la
+     * pasada anterior hasta volver bajo la capacidad. Un solo hilo desaloja
+     * a la vez; los demás siguen sin esperar.
+     */
+    private void desalojar() {
+        if (!desalojo.tryLock()) {
+            return;
+        }
+        try {
+            // Dos vueltas bastan: la primera apaga todas las marcas de uso
+            long revisables = 2L * (getCantidad() + porFormato.size());
+            while (bytesUsados.get() > capacidadBytes && revisables-- > 0) {
+                if (manecilla == null || !manecilla.hasNext()) {
+                    // La manecilla recorre los mapas de los formatos uno tras otro
+                    mapaManecilla = (mapaManecilla + 1) % porFormato.size();
+                    manecilla = porFormato.get(mapaManecilla).entrySet().iterator();
+                    continue;
+                }
+                Map.Entry<Object, Entrada> candidata = manecilla.next();
+                Entrada entrada = candidata.getValue();
+                if (entrada.usada) {
+                    entrada.usada = false;
+                } else if (porFormato.get(mapaManecilla).remove(candidata.getKey(), entrada)) {
+                    bytesUsados.addAndGet(-entrada.tamanio());
+                    desalojos.increment();
+                }
+            }
+        } finally {
+            desalojo.unlock();
+        }
+    }
+
+    private static final class Entrada {
+        private final long version;
+        private final byte[] cuerpo;
+        private volatile boolean usada;
+
+        private Entrada(long version, byte[] cuerpo) {
+            this.version = version;
+            this.cuerpo = cuerpo;
+        }
+
+        private long tamanio() {
+            return cuerpo.length + SOBRECARGA_ENTRADA;
+        }
+    }
+}
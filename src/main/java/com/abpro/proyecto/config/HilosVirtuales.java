@@ -0,0 +1,73 @@
+package com.abpro.proyecto.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Acceso a los hilos virtuales de Java 21
+ *
+ * El proyecto compila con Java 17, por lo que el executor de hilos
+ * virtuales se obtiene por reflexión cuando la JVM lo ofrece. El modo se
+ * activa con la propiedad del sistema "personas.hilos=virtuales" (o la
+ * variable de entorno PERSONAS_HILOS); en JVMs anteriores a 21 se sigue
+ * usando el pool de hilos de plataforma del servidor.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class HilosVirtuales {
+
+    public static final String PROPIEDAD = "personas.hilos";
+    public static final String MODO_VIRTUAL = "virtuales";
+
+    private static final Method FABRICA = buscarFabrica();
+
+    private HilosVirtuales() {
+    }
+
+    /**
+     * true si la JVM actual soporta hilos virtuales
+     */
+    public static boolean disponibles() {
+        return FABRICA != null;
+    }
+
+    /**
+     * true si se pidió el modo virtual y la JVM lo soporta
+     */
+    public static boolean modoActivo() {
+        String modo = System.getProperty(PROPIEDAD, System.getenv("PERSONAS_HILOS"));
+        return MODO_VIRTUAL.equals(modo) && disponibles();
+    }
+
+    /**
+     * true si se pidió el modo virtual (aunque la JVM no lo soporte)
+     */
+    public static boolean modoSolicitado() {
+        return MODO_VIRTUAL.equals(System.getProperty(PROPIEDAD, System.getenv("PERSONAS_HILOS")));
+    }
+
+    /**
+     * Crea un executor que lanza un hilo virtual por tarea
+     *
+     * @throws UnsupportedOperationException si la JVM no soporta hilos virtuales
+     */
+    public static ExecutorService nuevoExecutor() {
+        if (FABRICA == null) {
+            throw new UnsupportedOperationException("Los hilos virtuales requieren Java 21 o superior");
+        }
+        try {
+            return (ExecutorService) FABRICA.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el executor de hilos virtuales", e);
+        }
+    }
+
+    private static Method buscarFabrica() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.abpro.proyecto.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Modo de las escrituras individuales de personas (POST, PUT y DELETE)
+ *
+ * Se elige con la propiedad del sistema (o variable de entorno)
+ * "personas.escritura":
+ * - directa (por defecto): cada petición escribe en el repositorio desde
+ *   su propio hilo (PersonaWriteController)
+ * - agrupada: las peticiones encolan la escritura y responden de forma
+ *   asíncrona cuando GroupCommitWriter confirmó el lote que la contiene
+ *   (AsyncPersonaWriteController)
+ *
+ * Las condiciones registran solo el controlador del modo elegido, así que
+ * las rutas no quedan duplicadas.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class ModoEscritura {
+
+    public static final String PROPIEDAD = "personas.escritura";
+    public static final String DIRECTA = "directa";
+    public static final String AGRUPADA = "agrupada";
+
+    private ModoEscritura() {
+    }
+
+    private static boolean agrupada(ConditionContext context) {
+        String modo = context.getEnvironment().getProperty(PROPIEDAD, DIRECTA);
+        if (!DIRECTA.equals(modo) && !AGRUPADA.equals(modo)) {
+            throw new IllegalStateException("Modo de escritura desconocido: " + modo);
+        }
+        return AGRUPADA.equals(modo);
+    }
+
+    /**
+     * Se cumple en el modo directo
+     */
+    public static final class Directa implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return !agrupada(context);
+        }
+    }
+
+    /**
+     * Se cumple en el modo agrupado
+     */
+    public static final class Agrupada implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return agrupada(context);
+        }
+    }
+}
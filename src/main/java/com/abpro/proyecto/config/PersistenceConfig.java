@@ -0,0 +1,62 @@
+package com.abpro.proyecto.config;
+
+import com.abpro.proyecto.repository.InMemoryPersonaRepository;
+import com.abpro.proyecto.repository.MappedPersonaRepository;
+import com.abpro.proyecto.repository.PersonaRepository;
+import com.abpro.proyecto.repository.ShardedPersonaRepository;
+import com.abpro.proyecto.repository.WalPersonaRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Configuración del almacenamiento de personas
+ *
+ * El modo se elige con la propiedad del sistema (o variable de entorno)
+ * "personas.almacenamiento":
+ * - memoria (por defecto): solo en memoria, se pierde al reiniciar
+ * - wal: en memoria + log de escritura anticipada en disco local
+ *   ("personas.wal.directorio", por defecto "data")
+ * - mmap: fuera del heap, en slots de tamaño fijo de un archivo mapeado
+ *   en memoria ("personas.mmap.archivo", por defecto "data/personas.dat")
+ * - particionado: solo en memoria, repartido en particiones con IDs
+ *   asignados por bloques, para muchas escrituras concurrentes
+ *   ("personas.particiones.cantidad", por defecto un valor por núcleo)
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * Repositorio usado por PersonaController; Spring llama a close()
+     * al detener el contexto cuando la implementación lo tiene
+     */
+    @Bean
+    public PersonaRepository personaRepository(Environment env) throws IOException {
+        String modo = env.getProperty("personas.almacenamiento", "memoria");
+        switch (modo) {
+            case "memoria":
+                return new InMemoryPersonaRepository();
+            case "wal":
+                long umbralMb = env.getProperty("personas.wal.umbral-compactacion-mb", Long.class, 64L);
+                return new WalPersonaRepository(
+                        Paths.get(env.getProperty("personas.wal.directorio", "data")),
+                        umbralMb * 1024 * 1024);
+            case "mmap":
+                return new MappedPersonaRepository(
+                        Paths.get(env.getProperty("personas.mmap.archivo", "data/personas.dat")),
+                        env.getProperty("personas.mmap.slots-por-region", Integer.class, 1 << 18));
+            case "particionado":
+                return new ShardedPersonaRepository(
+                        env.getProperty("personas.particiones.cantidad", Integer.class,
+                                Runtime.getRuntime().availableProcessors()),
+                        env.getProperty("personas.particiones.bloque-ids", Integer.class, 64));
+            default:
+                throw new IllegalStateException("Modo de almacenamiento desconocido: " + modo);
+        }
+    }
+}
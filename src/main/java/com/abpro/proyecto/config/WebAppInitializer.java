@@ -1,11 +1,17 @@
 package com.abpro.proyecto.config;
 
+import com.abpro.proyecto.filter.CompressionFilter;
+import com.abpro.proyecto.filter.VirtualThreadFilter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterRegistration;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletRegistration;
 import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
 import org.springframework.web.servlet.DispatcherServlet;
 
+import java.util.EnumSet;
+
 /**
  * Inicializador de la aplicación web - Reemplaza web.xml
  * Esta clase configura el DispatcherServlet de Spring MVC programáticamente
@@ -14,6 +20,13 @@ import org.springframework.web.servlet.DispatcherServlet;
  */
 public class WebAppInitializer implements WebApplicationInitializer {
 
+    // Tiempo máximo de una petición atendida en un hilo virtual
+    private static final long TIMEOUT_PETICION_MS = 30_000;
+
+    // Respuestas menores que este tamaño no se comprimen (0 desactiva la compresión)
+    private static final String PROPIEDAD_UMBRAL_COMPRESION = "personas.compresion.umbral-bytes";
+    private static final String PROPIEDAD_NIVEL_COMPRESION = "personas.compresion.nivel";
+
     @Override
     public void onStartup(ServletContext servletContext) {
         // Crear el contexto de Spring usando configuración basada en anotaciones
@@ -26,11 +39,37 @@ public class WebAppInitializer implements WebApplicationInitializer {
 
         registration.setLoadOnStartup(1);
         registration.addMapping("/");
+        // Necesario para respuestas en streaming (StreamingResponseBody) y el modo de hilos virtuales
+        registration.setAsyncSupported(true);
+
+        // Modo de hilos virtuales: cada petición se atiende en un hilo virtual (Java 21+)
+        String modoHilos = "plataforma";
+        if (HilosVirtuales.modoActivo()) {
+            FilterRegistration.Dynamic filtro = servletContext.addFilter("virtualThreadFilter",
+                    new VirtualThreadFilter(HilosVirtuales.nuevoExecutor(), TIMEOUT_PETICION_MS));
+            filtro.setAsyncSupported(true);
+            filtro.addMappingForServletNames(EnumSet.of(DispatcherType.REQUEST), false, "dispatcher");
+            modoHilos = "virtuales";
+        } else if (HilosVirtuales.modoSolicitado()) {
+            modoHilos = "plataforma (los hilos virtuales requieren Java 21)";
+        }
+
+        // Compresión gzip/deflate; va después del filtro de hilos para comprimir en el hilo que atiende
+        int umbralCompresion = Integer.getInteger(PROPIEDAD_UMBRAL_COMPRESION, 1024);
+        if (umbralCompresion > 0) {
+            FilterRegistration.Dynamic filtro = servletContext.addFilter("compressionFilter",
+                    new CompressionFilter(umbralCompresion, Integer.getInteger(PROPIEDAD_NIVEL_COMPRESION, 6)));
+            filtro.setAsyncSupported(true);
+            // ASYNC: cierra las respuestas comprimidas que siguieron en otro hilo
+            filtro.addMappingForServletNames(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC),
+                    false, "dispatcher");
+        }
 
         System.out.println("=================================================");
         System.out.println("Spring MVC REST API - Iniciado correctamente");
         System.out.println("Contexto: /api");
         System.out.println("Puerto: 8080");
+        System.out.println("Hilos: " + modoHilos);
         System.out.println("=================================================");
     }
 }
@@ -1,44 +1,229 @@
 package com.abpro.proyecto.config;
 
+import com.abpro.proyecto.cache.IdempotencyCache;
+import com.abpro.proyecto.cache.SerializedResponseCache;
+import com.abpro.proyecto.controller.AsyncPersonaWriteController;
+import com.abpro.proyecto.controller.MetricsController;
+import com.abpro.proyecto.controller.PersonaController;
+import com.abpro.proyecto.controller.PersonaEventController;
+import com.abpro.proyecto.controller.PersonaWriteController;
+import com.abpro.proyecto.converter.ApiResponseHttpMessageConverter;
+import com.abpro.proyecto.converter.ApiResponseJsonWriter;
+import com.abpro.proyecto.events.PersonaEventStream;
+import com.abpro.proyecto.exception.GlobalExceptionHandler;
+import com.abpro.proyecto.metrics.MetricsInterceptor;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.ratelimit.RateLimitInterceptor;
+import com.abpro.proyecto.validation.PersonaValidator;
+import com.abpro.proyecto.write.GroupCommitWriter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.validation.beanvalidation.MethodValidationPostProcessor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * Configuración principal de Spring MVC
  *
  * @EnableWebMvc: Activa la configuración de Spring MVC
- * @ComponentScan: Escanea el paquete base para encontrar componentes (@Controller, @Service, etc.)
+ * @Import: Registra explícitamente los componentes (@Controller, @Component, etc.)
  * @Configuration: Indica que esta clase contiene configuración de Spring
  *
+ * Los componentes se listan en lugar de usar @ComponentScan: escanear el
+ * paquete lee con ASM cada clase del classpath de la aplicación en cada
+ * arranque. WebConfigTest verifica que la lista coincida con lo que
+ * encontraría el escaneo. Los componentes con @Conditional (los del modo
+ * de escritura, ver ModoEscritura) se listan igual y Spring solo registra
+ * los que correspondan.
+ *
  * @author Equipo de Desarrollo ABPRO
  */
 @Configuration
 @EnableWebMvc
-@ComponentScan(basePackages = "com.abpro.proyecto")
+@Import({
+        PersistenceConfig.class,
+        MetricsRegistry.class,
+        MetricsInterceptor.class,
+        RateLimitInterceptor.class,
+        ApiResponseJsonWriter.class,
+        SerializedResponseCache.class,
+        IdempotencyCache.class,
+        PersonaEventStream.class,
+        GroupCommitWriter.class,
+        PersonaValidator.class,
+        GlobalExceptionHandler.class,
+        PersonaController.class,
+        PersonaWriteController.class,
+        AsyncPersonaWriteController.class,
+        PersonaEventController.class,
+        MetricsController.class
+})
 public class WebConfig implements WebMvcConfigurer {
 
+    private final MetricsInterceptor metricsInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ApiResponseJsonWriter apiResponseJsonWriter;
+
+    public WebConfig(MetricsInterceptor metricsInterceptor, RateLimitInterceptor rateLimitInterceptor,
+                     ApiResponseJsonWriter apiResponseJsonWriter) {
+        this.metricsInterceptor = metricsInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.apiResponseJsonWriter = apiResponseJsonWriter;
+    }
+
+    /**
+     * Registra los interceptores de las peticiones
+     * - MetricsInterceptor: cantidad, errores y latencia por ruta (excepto /metrics)
+     * - RateLimitInterceptor: límites de tasa y concurrencia; va después para
+     *   que los rechazos también queden medidos. No aplica a /metrics ni al
+     *   health check, que deben responder aunque el servicio esté saturado, ni
+     *   a /personas/eventos, cuyas conexiones largas ocuparían la concurrencia
+     *   de lectura (PersonaEventStream acota sus suscriptores)
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(metricsInterceptor).excludePathPatterns("/metrics");
+        registry.addInterceptor(rateLimitInterceptor)
+                .excludePathPatterns("/metrics", "/personas/health", "/personas/eventos");
+    }
+
+    /**
+     * Agrega el conversor propio de ApiResponse antes de los de Spring,
+     * que siguen registrados para el resto de los tipos y para leer los
+     * cuerpos de entrada
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ApiResponseHttpMessageConverter(apiResponseJsonWriter));
+    }
+
     /**
      * Configura el validador de beans usando Hibernate Validator
      * Esto permite usar anotaciones como @NotNull, @NotEmpty, @Min, @Max, etc.
+     *
+     * Es diferido: Hibernate Validator carga cientos de clases al iniciarse
+     * y las escrituras de personas usan PersonaValidator, así que solo se
+     * crea con el primer @Valid
      */
     @Bean
+    @Lazy
     public LocalValidatorFactoryBean validator() {
         return new LocalValidatorFactoryBean();
     }
 
+    /**
+     * Usa el mismo validador para @Valid en los controladores
+     */
+    @Override
+    public Validator getValidator() {
+        return new ValidadorDiferido(this::validator);
+    }
+
+    /**
+     * Executor para el procesamiento asíncrono de Spring MVC
+     * (por ejemplo, la exportación NDJSON con StreamingResponseBody):
+     * hilos virtuales si ese modo está activo, si no un pool acotado
+     */
+    @Bean
+    public AsyncTaskExecutor mvcTaskExecutor() {
+        if (HilosVirtuales.modoActivo()) {
+            return new TaskExecutorAdapter(HilosVirtuales.nuevoExecutor());
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    /**
+     * Configura el soporte asíncrono: usa el pool anterior y un timeout
+     * amplio para que las exportaciones grandes no se corten
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcTaskExecutor());
+        configurer.setDefaultTimeout(TimeUnit.MINUTES.toMillis(30));
+    }
+
     /**
      * Habilita la validación de métodos en Spring
      * Permite usar @Valid en parámetros de métodos
      */
     @Bean
-    public MethodValidationPostProcessor methodValidationPostProcessor() {
+    public static MethodValidationPostProcessor methodValidationPostProcessor(
+            ObjectProvider<jakarta.validation.Validator> validator) {
+        // Estático y con el validador diferido: no crea WebConfig ni Hibernate
+        // Validator antes que el resto de los beans
         MethodValidationPostProcessor processor = new MethodValidationPostProcessor();
-        processor.setValidator(validator());
+        processor.setValidatorProvider(validator);
         return processor;
     }
+
+    /**
+     * Validador que obtiene el real la primera vez que se usa
+     */
+    private static final class ValidadorDiferido implements SmartValidator {
+
+        private final Supplier<? extends SmartValidator> fabrica;
+        private volatile SmartValidator validador;
+
+        private ValidadorDiferido(Supplier<? extends SmartValidator> fabrica) {
+            this.fabrica = fabrica;
+        }
+
+        /**
+         * Spring lo consulta al crear cada WebDataBinder con un objeto, haya
+         * @Valid o no; el validador de Bean Validation acepta cualquier clase,
+         * así que se responde sin crearlo
+         */
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return true;
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            validador().validate(target, errors);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors, Object... validationHints) {
+            validador().validate(target, errors, validationHints);
+        }
+
+        @Override
+        public void validateValue(Class<?> targetType, String fieldName, Object value,
+                                  Errors errors, Object... validationHints) {
+            validador().validateValue(targetType, fieldName, value, errors, validationHints);
+        }
+
+        private SmartValidator validador() {
+            SmartValidator actual = validador;
+            if (actual == null) {
+                // Carrera benigna: el bean es singleton, ambos hilos obtienen el mismo
+                actual = fabrica.get();
+                validador = actual;
+            }
+            return actual;
+        }
+    }
 }
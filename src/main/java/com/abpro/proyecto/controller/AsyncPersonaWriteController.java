@@ -0,0 +1,163 @@
+package com.abpro.proyecto.controller;
+
+import com.abpro.proyecto.cache.IdempotencyCache;
+import com.abpro.proyecto.cache.SerializedResponseCache;
+import com.abpro.proyecto.config.ModoEscritura;
+import com.abpro.proyecto.converter.FormatoRespuesta;
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.events.PersonaEventStream;
+import com.abpro.proyecto.exception.PersonaNotFoundException;
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.repository.PersonaRepository;
+import com.abpro.proyecto.repository.VersionConflictException;
+import com.abpro.proyecto.validation.PersonaValidator;
+import com.abpro.proyecto.write.GroupCommitWriter;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Escrituras individuales de personas en el modo agrupado
+ *
+ * Atiende las mismas rutas que PersonaWriteController, con las mismas
+ * respuestas, cuando "personas.escritura=agrupada". La validación se hace
+ * en el hilo de la petición; la escritura se encola en GroupCommitWriter
+ * y el método devuelve un CompletableFuture, así que el hilo del servidor
+ * queda libre mientras el lote se confirma. La respuesta se envía cuando
+ * el lote que contiene la escritura es durable.
+ *
+ * Con la cola llena responde 503 con Retry-After sin encolar nada.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@RestController
+@RequestMapping("/personas")
+@Conditional(ModoEscritura.Agrupada.class)
+public class AsyncPersonaWriteController {
+
+    // Segundos sugeridos para reintentar con la cola llena: se vacía en pocos lotes
+    private static final String REINTENTO_COLA_LLENA = "1";
+
+    private final GroupCommitWriter escritor;
+    private final PersonaValidator validator;
+    private final SerializedResponseCache cache;
+    private final IdempotencyCache idempotencia;
+    private final PersonaEventStream eventos;
+
+    public AsyncPersonaWriteController(GroupCommitWriter escritor, PersonaValidator validator,
+                                       SerializedResponseCache cache, IdempotencyCache idempotencia,
+                                       PersonaEventStream eventos) {
+        this.escritor = escritor;
+        this.validator = validator;
+        this.cache = cache;
+        this.idempotencia = idempotencia;
+        this.eventos = eventos;
+    }
+
+    /**
+     * POST /personas
+     * Crea una nueva persona cuando se confirma su lote
+     *
+     * Con Idempotency-Key la petición espera su lote antes de retornar:
+     * IdempotencyCache guarda respuestas ya armadas para los reintentos.
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> crear(
+            @RequestBody Persona persona,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            return CompletableFuture.completedFuture(idempotencia.ejecutar(idempotencyKey, persona,
+                    () -> crearPersona(persona, accept).join()));
+        }
+        return crearPersona(persona, accept);
+    }
+
+    private CompletableFuture<ResponseEntity<ApiResponse<?>>> crearPersona(Persona persona, String accept) {
+        Map<String, String> errores = validator.validar(persona);
+        if (errores != null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(validator.respuestaError(errores)));
+        }
+
+        FormatoRespuesta formato = FormatoRespuesta.negociar(accept);
+        return encolar(repository -> repository.save(persona))
+                .thenApply(nuevaPersona -> {
+                    eventos.publicar(PersonaEventStream.Tipo.CREADA, nuevaPersona);
+                    return PersonaWriteController.creada(nuevaPersona, formato);
+                });
+    }
+
+    /**
+     * PUT /personas/{id}
+     * Actualiza una persona existente cuando se confirma su lote
+     *
+     * If-Match se evalúa en el hilo escritor, contra la versión vigente al
+     * aplicar el lote; si no coincide responde 412 con el ETag actual.
+     */
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> actualizar(
+            @PathVariable Long id,
+            @RequestBody Persona persona,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        Map<String, String> errores = validator.validar(persona);
+        if (errores != null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(validator.respuestaError(errores)));
+        }
+
+        FormatoRespuesta formato = FormatoRespuesta.negociar(accept);
+        return encolar(repository -> PersonaWriteController.actualizar(repository, id, persona, ifMatch))
+                .thenApply(actualizada -> {
+                    cache.invalidar(id);
+                    eventos.publicar(PersonaEventStream.Tipo.ACTUALIZADA, actualizada);
+                    return PersonaWriteController.actualizada(actualizada, formato);
+                })
+                .exceptionally(error -> {
+                    if (error.getCause() instanceof VersionConflictException) {
+                        return PersonaWriteController.conflicto(id, (VersionConflictException) error.getCause(), formato);
+                    }
+                    // Spring desenvuelve la causa y la pasa a GlobalExceptionHandler (404, 500)
+                    throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                });
+    }
+
+    /**
+     * DELETE /personas/{id}
+     * Elimina una persona cuando se confirma su lote
+     */
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<ApiResponse<String>>> eliminar(@PathVariable Long id) {
+        return encolar(repository -> repository.deleteById(id))
+                .thenApply(eliminada -> {
+                    if (!eliminada) {
+                        throw new PersonaNotFoundException(id);
+                    }
+                    cache.invalidar(id);
+                    eventos.publicarEliminada(id);
+                    return PersonaWriteController.eliminada(id);
+                });
+    }
+
+    /**
+     * Encola la escritura o rechaza la petición si la cola está llena
+     */
+    private <T> CompletableFuture<T> encolar(Function<PersonaRepository, T> escritura) {
+        CompletableFuture<T> futuro = escritor.enviar(escritura);
+        if (futuro == null) {
+            ErrorResponseException llena = new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE);
+            llena.getHeaders().set(HttpHeaders.RETRY_AFTER, REINTENTO_COLA_LLENA);
+            throw llena;
+        }
+        return futuro;
+    }
+}
@@ -0,0 +1,38 @@
+package com.abpro.proyecto.controller;
+
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST que expone las métricas de la aplicación
+ *
+ * Endpoints disponibles:
+ * - GET /metrics : Métricas en formato de texto de Prometheus
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@RestController
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    private final MetricsRegistry registry;
+
+    public MetricsController(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * GET /metrics
+     * Peticiones por ruta y estado, errores y percentiles de latencia
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> metricas() {
+        StringBuilder salida = new StringBuilder(4096);
+        registry.escribirPrometheus(salida);
+        return ResponseEntity.ok().contentType(PROMETHEUS).body(salida.toString());
+    }
+}
@@ -1,26 +1,67 @@
 package com.abpro.proyecto.controller;
 
+import com.abpro.proyecto.cache.SerializedResponseCache;
+import com.abpro.proyecto.converter.FormatoRespuesta;
 import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.dto.CamposPersona;
+import com.abpro.proyecto.dto.CursorCodec;
+import com.abpro.proyecto.dto.Lote;
+import com.abpro.proyecto.dto.Pagina;
+import com.abpro.proyecto.dto.PaginaProyectada;
+import com.abpro.proyecto.dto.ResultadoItem;
+import com.abpro.proyecto.events.PersonaEventStream;
+import com.abpro.proyecto.exception.PersonaNotFoundException;
 import com.abpro.proyecto.model.Persona;
-import jakarta.validation.Valid;
+import com.abpro.proyecto.model.PersonaConId;
+import com.abpro.proyecto.repository.PersonaRepository;
+import com.abpro.proyecto.validation.PersonaValidator;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controlador REST para gestionar Personas
  *
  * Endpoints disponibles:
- * - GET    /personas          : Listar todas las personas
+ * - GET    /personas          : Listar personas (paginado con limit/after)
  * - GET    /personas/{id}     : Obtener una persona por ID
- * - POST   /personas          : Crear una nueva persona
- * - PUT    /personas/{id}     : Actualizar una persona existente
- * - DELETE /personas/{id}     : Eliminar una persona
+ * - POST/PUT/DELETE /personas[/{id}] : Altas, modificaciones y bajas
+ *   individuales (PersonaWriteController o AsyncPersonaWriteController,
+ *   según ModoEscritura)
+ * - GET    /personas/edad     : Buscar por rango de edad (min/max)
+ * - GET    /personas/nombre   : Buscar por prefijo de nombre
+ * - GET    /personas/export   : Exportar todas las personas en NDJSON
+ * - POST/PUT/DELETE /personas/batch : Crear, actualizar o eliminar por lotes
+ * - GET    /personas/eventos  : Cambios en vivo (Server-Sent Events, PersonaEventController)
+ *
+ * GET /personas y GET /personas/{id} emiten ETag (versión global y versión
+ * del registro) y responden 304 a If-None-Match sin serializar nada;
+ * PUT /personas/{id} respeta If-Match como control de concurrencia optimista.
+ * Ambos GET sirven el cuerpo ya serializado desde SerializedResponseCache.
+ *
+ * Los IDs inexistentes lanzan PersonaNotFoundException, que
+ * GlobalExceptionHandler convierte en un 404 (problem detail).
+ *
+ * Las respuestas y los cuerpos de crear/actualizar pueden ser JSON, CBOR
+ * (application/cbor) o Smile (application/x-jackson-smile), según los
+ * headers Accept y Content-Type. La exportación es siempre NDJSON.
  *
  * @RestController: Combina @Controller + @ResponseBody
  * @RequestMapping: Define la ruta base para todos los endpoints
@@ -31,38 +72,228 @@ import java.util.concurrent.atomic.AtomicLong;
 @RequestMapping("/personas")
 public class PersonaController {
 
-    // Almacenamiento en memoria (simula una base de datos)
-    private final List<PersonaConId> personas = new ArrayList<>();
-    private final AtomicLong contador = new AtomicLong();
+    // Límites de paginación para acotar el costo de cada respuesta
+    static final int LIMITE_POR_DEFECTO = 100;
+    static final int LIMITE_MAXIMO = 1000;
+
+    // Bit de la clave de caché de una página que indica respuesta sin sobre
+    private static final int PROYECCION_COMPACTA = 1 << 16;
+
+    // Exportación NDJSON en streaming
+    private static final MediaType MEDIA_TYPE_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+    private static final int LOTE_EXPORT = 1000;
+    private static final int TAMANIO_BUFFER_EXPORT = 8192;
+
+    private static final Map<String, String> ELEMENTO_NULO = Map.of("persona", "El elemento no puede ser nulo");
+
+    // Prefijo de los ETag: cambia en cada arranque para que una versión
+    // repetida tras reiniciar (el log no guarda versiones) no valide una
+    // representación anterior
+    private static final String EPOCA_ETAG = Long.toString(System.currentTimeMillis(), 36);
+
+    // Almacenamiento concurrente indexado por ID
+    private final PersonaRepository repository;
+
+    // Validador de Persona con restricciones precalculadas (sin Hibernate Validator)
+    private final PersonaValidator validator;
+
+    // Cuerpos JSON ya serializados de GET /personas/{id} y de las páginas
+    private final SerializedResponseCache cache;
+
+    // Eventos de altas, modificaciones y bajas para GET /personas/eventos
+    private final PersonaEventStream eventos;
+
+    public PersonaController(PersonaRepository repository, PersonaValidator validator,
+                             SerializedResponseCache cache, PersonaEventStream eventos) {
+        this.repository = repository;
+        this.validator = validator;
+        this.cache = cache;
+        this.eventos = eventos;
+    }
 
     /**
-     * Clase interna para agregar ID a las personas
+     * GET /personas?limit=&after=&fields=&compact=
+     * Lista las personas registradas, paginadas por cursor
+     *
+     * limit: tamaño de página (por defecto 100, máximo 1000)
+     * after: cursor opaco devuelto como nextCursor por la página anterior
+     * fields: propiedades de cada persona a incluir, por ejemplo "id,nombre"
+     * compact: si es true responde solo {"items":[...],"nextCursor":...}, sin el sobre de ApiResponse
      */
-    private static class PersonaConId extends Persona {
-        private Long id;
+    @GetMapping
+    public ResponseEntity<byte[]> listarTodas(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean compact,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) {
+
+        FormatoRespuesta formato = FormatoRespuesta.negociar(accept);
+        int tamanio = limit != null ? limit : LIMITE_POR_DEFECTO;
+        if (tamanio < 1 || tamanio > LIMITE_MAXIMO) {
+            return serializada(HttpStatus.BAD_REQUEST, formato,
+                    ApiResponse.error("El parámetro limit debe estar entre 1 y " + LIMITE_MAXIMO));
+        }
 
-        public PersonaConId(Long id, String nombre, Integer edad) {
-            super(nombre, edad);
-            this.id = id;
+        long afterId = 0;
+        if (after != null) {
+            try {
+                afterId = CursorCodec.decode(after);
+            } catch (IllegalArgumentException e) {
+                return serializada(HttpStatus.BAD_REQUEST, formato,
+                        ApiResponse.error("El parámetro after no es un cursor válido"));
+            }
         }
 
-        public Long getId() {
-            return id;
+        CamposPersona campos = null;
+        if (fields != null) {
+            try {
+                campos = CamposPersona.parsear(fields);
+            } catch (IllegalArgumentException e) {
+                return serializada(HttpStatus.BAD_REQUEST, formato,
+                        ApiResponse.error("El parámetro fields solo admite: " + CamposPersona.disponibles()));
+            }
         }
+        // La representación completa con sobre conserva el camino de siempre
+        boolean proyectada = compact || (campos != null && campos != CamposPersona.TODOS);
+        CamposPersona seleccion = campos != null ? campos : CamposPersona.TODOS;
+        int proyeccion = proyectada ? seleccion.getMascara() | (compact ? PROYECCION_COMPACTA : 0) : -1;
 
-        public void setId(Long id) {
-            this.id = id;
+        // La versión se lee antes de consultar: la página incluye al menos
+        // todos los cambios hasta esa versión
+        long version = repository.version();
+        String etag = etagColeccion(version, formato);
+        if (request.checkNotModified(etag)) {
+            return null;
         }
+
+        long desde = afterId;
+        byte[] cuerpo = cache.obtener(new ClavePagina(afterId, tamanio, proyeccion), version, formato, () -> {
+            List<PersonaConId> items = repository.findAfter(desde, tamanio);
+            String nextCursor = items.size() == tamanio
+                    ? CursorCodec.encode(items.get(items.size() - 1).getId())
+                    : null;
+            if (!proyectada) {
+                return ApiResponse.success("Lista de personas obtenida exitosamente", new Pagina<>(items, nextCursor));
+            }
+            PaginaProyectada pagina = new PaginaProyectada(items, nextCursor, seleccion);
+            return compact ? pagina : ApiResponse.success("Lista de personas obtenida exitosamente", pagina);
+        });
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(cuerpo);
     }
 
     /**
-     * GET /personas
-     * Lista todas las personas registradas
+     * GET /personas/export
+     * Exporta todas las personas en formato NDJSON (un objeto JSON por línea)
+     *
+     * Escribe directamente al stream de salida recorriendo el repositorio por
+     * lotes, por lo que la memoria usada no depende del tamaño del dataset.
+     * Si el cliente envía "Accept-Encoding: gzip" la salida se comprime.
      */
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<PersonaConId>>> listarTodas() {
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = salida -> {
+            if (!gzip) {
+                escribirNdjson(salida);
+                return;
+            }
+            // El stream de la respuesta lo cierra el contenedor, no el GZIPOutputStream
+            try (GzipExportacion comprimido = new GzipExportacion(StreamUtils.nonClosing(salida))) {
+                escribirNdjson(comprimido);
+            }
+        };
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MEDIA_TYPE_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(body);
+    }
+
+    private void escribirNdjson(OutputStream destino) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(destino)) {
+            // Sin separador por defecto: cada registro termina con su propio salto de línea
+            generator.setRootValueSeparator(null);
+            long afterId = 0;
+            List<PersonaConId> lote;
+            do {
+                lote = repository.findAfter(afterId, LOTE_EXPORT);
+                for (PersonaConId persona : lote) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", persona.getId());
+                    generator.writeStringField("nombre", persona.getNombre());
+                    generator.writeNumberField("edad", persona.getEdad());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    afterId = persona.getId();
+                }
+            } while (lote.size() == LOTE_EXPORT);
+        }
+    }
+
+    /**
+     * GET /personas/edad?min=&max=&limit=
+     * Busca personas por rango de edad usando el índice secundario
+     */
+    @GetMapping("/edad")
+    public ResponseEntity<ApiResponse<List<PersonaConId>>> buscarPorEdad(
+            @RequestParam int min,
+            @RequestParam int max,
+            @RequestParam(required = false) Integer limit) {
+
+        int tamanio = limit != null ? limit : LIMITE_POR_DEFECTO;
+        if (tamanio < 1 || tamanio > LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("El parámetro limit debe estar entre 1 y " + LIMITE_MAXIMO));
+        }
+        if (min > max) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("El parámetro min no puede ser mayor que max"));
+        }
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Búsqueda por edad realizada exitosamente",
+                        repository.findByEdadBetween(min, max, tamanio))
+        );
+    }
+
+    /**
+     * GET /personas/nombre?prefijo=&limit=
+     * Busca personas cuyo nombre empieza con el prefijo (sin distinguir mayúsculas)
+     */
+    @GetMapping("/nombre")
+    public ResponseEntity<ApiResponse<List<PersonaConId>>> buscarPorNombre(
+            @RequestParam String prefijo,
+            @RequestParam(required = false) Integer limit) {
+
+        int tamanio = limit != null ? limit : LIMITE_POR_DEFECTO;
+        if (tamanio < 1 || tamanio > LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("El parámetro limit debe estar entre 1 y " + LIMITE_MAXIMO));
+        }
+        if (prefijo.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("El parámetro prefijo no puede estar vacío"));
+        }
+
         return ResponseEntity.ok(
-                ApiResponse.success("Lista de personas obtenida exitosamente", personas)
+                ApiResponse.success("Búsqueda por nombre realizada exitosamente",
+                        repository.findByNombreStartingWith(prefijo, tamanio))
         );
     }
 
@@ -71,89 +302,132 @@ public class PersonaController {
      * Obtiene una persona específica por su ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<PersonaConId>> obtenerPorId(@PathVariable Long id) {
-        Optional<PersonaConId> persona = personas.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst();
+    public ResponseEntity<byte[]> obtenerPorId(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) {
+
+        FormatoRespuesta formato = FormatoRespuesta.negociar(accept);
+        PersonaConId encontrada = repository.findById(id)
+                .orElseThrow(() -> new PersonaNotFoundException(id));
 
-        if (persona.isPresent()) {
-            return ResponseEntity.ok(
-                    ApiResponse.success("Persona encontrada", persona.get())
-            );
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponse.error("Persona con ID " + id + " no encontrada"));
+        String etag = etagPersona(encontrada.getVersion(), formato);
+        if (request.checkNotModified(etag)) {
+            return null;
         }
+        byte[] cuerpo = cache.obtener(id, encontrada.getVersion(), formato,
+                () -> ApiResponse.success("Persona encontrada", encontrada));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(cuerpo);
     }
 
     /**
-     * POST /personas
-     * Crea una nueva persona
+     * POST /personas/batch
+     * Crea varias personas en una sola petición
      *
-     * @Valid: Activa la validación automática del objeto Persona
-     * Las validaciones están definidas en la clase Persona con anotaciones
+     * Valida todos los elementos en una sola pasada con PersonaValidator
+     * y guarda los válidos reservando un bloque contiguo de IDs.
+     * Devuelve un resultado por elemento, en el mismo orden recibido.
      */
-    @PostMapping
-    public ResponseEntity<ApiResponse<PersonaConId>> crear(@Valid @RequestBody Persona persona) {
-        Long nuevoId = contador.incrementAndGet();
-        PersonaConId nuevaPersona = new PersonaConId(
-                nuevoId,
-                persona.getNombre(),
-                persona.getEdad()
-        );
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ResultadoItem<PersonaConId>>>> crearLote(
+            @RequestBody Lote<Persona> lote) {
 
-        personas.add(nuevaPersona);
+        @SuppressWarnings("unchecked")
+        ResultadoItem<PersonaConId>[] resultados = (ResultadoItem<PersonaConId>[]) new ResultadoItem<?>[lote.size()];
+        List<Persona> validas = new ArrayList<>(lote.size());
+        int[] indicesValidos = new int[lote.size()];
 
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success(
-                        "Persona creada exitosamente con ID: " + nuevoId,
-                        nuevaPersona
-                ));
+        for (int i = 0; i < lote.size(); i++) {
+            Map<String, String> errores = validar(lote.get(i));
+            if (errores == null) {
+                indicesValidos[validas.size()] = i;
+                validas.add(lote.get(i));
+            } else {
+                resultados[i] = ResultadoItem.invalido(i, errores);
+            }
+        }
+
+        List<PersonaConId> guardadas = repository.saveAll(validas);
+        for (int j = 0; j < guardadas.size(); j++) {
+            resultados[indicesValidos[j]] = ResultadoItem.ok(indicesValidos[j], guardadas.get(j));
+            eventos.publicar(PersonaEventStream.Tipo.CREADA, guardadas.get(j));
+        }
+
+        return respuestaLote(Arrays.asList(resultados));
     }
 
     /**
-     * PUT /personas/{id}
-     * Actualiza una persona existente
+     * PUT /personas/batch
+     * Actualiza varias personas; cada elemento debe incluir su ID
+     *
+     * Todas las actualizaciones forman un solo writeBatch, así que con el
+     * WAL se sincronizan a disco una vez por lote. Los eventos se publican
+     * cuando el lote ya es durable.
      */
-    @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<PersonaConId>> actualizar(
-            @PathVariable Long id,
-            @Valid @RequestBody Persona persona) {
+    @PutMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ResultadoItem<PersonaConId>>>> actualizarLote(
+            @RequestBody Lote<PersonaConId> lote) {
 
-        Optional<PersonaConId> personaExistente = personas.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst();
+        List<ResultadoItem<PersonaConId>> resultados = new ArrayList<>(lote.size());
+        List<PersonaConId> actualizadas = new ArrayList<>(lote.size());
+        repository.writeBatch(repo -> {
+            for (int i = 0; i < lote.size(); i++) {
+                PersonaConId persona = lote.get(i);
+                Map<String, String> errores = validar(persona);
+                if (errores != null) {
+                    resultados.add(ResultadoItem.invalido(i, errores));
+                } else if (persona.getId() == null) {
+                    resultados.add(ResultadoItem.error(i, "El ID es obligatorio"));
+                } else {
+                    Optional<PersonaConId> actualizada = repo.update(persona.getId(), persona);
+                    actualizada.ifPresent(actualizadas::add);
+                    resultados.add(actualizada.isPresent()
+                            ? ResultadoItem.ok(i, actualizada.get())
+                            : ResultadoItem.error(i, "Persona con ID " + persona.getId() + " no encontrada"));
+                }
+            }
+        });
 
-        if (personaExistente.isPresent()) {
-            PersonaConId personaActualizada = personaExistente.get();
-            personaActualizada.setNombre(persona.getNombre());
-            personaActualizada.setEdad(persona.getEdad());
-
-            return ResponseEntity.ok(
-                    ApiResponse.success("Persona actualizada exitosamente", personaActualizada)
-            );
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponse.error("Persona con ID " + id + " no encontrada"));
+        for (PersonaConId actualizada : actualizadas) {
+            cache.invalidar(actualizada.getId());
+            eventos.publicar(PersonaEventStream.Tipo.ACTUALIZADA, actualizada);
         }
+        return respuestaLote(resultados);
     }
 
     /**
-     * DELETE /personas/{id}
-     * Elimina una persona
+     * DELETE /personas/batch
+     * Elimina varias personas a partir de un arreglo de IDs
+     *
+     * Igual que PUT /personas/batch, las eliminaciones forman un solo writeBatch
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<String>> eliminar(@PathVariable Long id) {
-        boolean eliminada = personas.removeIf(p -> p.getId().equals(id));
+    @DeleteMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ResultadoItem<Long>>>> eliminarLote(@RequestBody Lote<Long> ids) {
+        List<ResultadoItem<Long>> resultados = new ArrayList<>(ids.size());
+        List<Long> eliminadas = new ArrayList<>(ids.size());
+        repository.writeBatch(repo -> {
+            for (int i = 0; i < ids.size(); i++) {
+                Long id = ids.get(i);
+                if (id == null) {
+                    resultados.add(ResultadoItem.error(i, "El ID es obligatorio"));
+                } else if (repo.deleteById(id)) {
+                    eliminadas.add(id);
+                    resultados.add(ResultadoItem.ok(i, id));
+                } else {
+                    resultados.add(ResultadoItem.error(i, "Persona con ID " + id + " no encontrada"));
+                }
+            }
+        });
 
-        if (eliminada) {
-            return ResponseEntity.ok(
-                    ApiResponse.success("Persona eliminada exitosamente", "ID: " + id)
-            );
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponse.error("Persona con ID " + id + " no encontrada"));
+        for (Long id : eliminadas) {
+            cache.invalidar(id);
+            eventos.publicarEliminada(id);
         }
+        return respuestaLote(resultados);
     }
 
     /**
@@ -165,8 +439,127 @@ public class PersonaController {
         return ResponseEntity.ok(
                 ApiResponse.success(
                         "API REST funcionando correctamente",
-                        "Total de personas registradas: " + personas.size()
+                        "Total de personas registradas: " + repository.count()
                 )
         );
     }
+
+    /**
+     * Extrae las versiones de los ETag de un header If-Match. If-Match usa
+     * comparación fuerte, por lo que se ignoran las etiquetas débiles (W/)
+     * y las que no tienen el prefijo de este arranque. El sufijo de formato
+     * no importa: todas las representaciones comparten la versión.
+     */
+    static List<Long> versionesIfMatch(String ifMatch) {
+        List<Long> versiones = new ArrayList<>(1);
+        String prefijo = "\"" + EPOCA_ETAG + "-";
+        for (String etiqueta : ifMatch.split(",")) {
+            String valor = etiqueta.trim();
+            if (valor.startsWith(prefijo) && valor.endsWith("\"") && valor.length() > prefijo.length()) {
+                int fin = valor.indexOf('.', prefijo.length());
+                try {
+                    versiones.add(Long.parseLong(valor.substring(prefijo.length(), fin > 0 ? fin : valor.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // ETag con formato ajeno: no coincide con ninguna versión
+                }
+            }
+        }
+        return versiones;
+    }
+
+    static String etagPersona(long version, FormatoRespuesta formato) {
+        return "\"" + EPOCA_ETAG + "-" + version + formato.getSufijoEtag() + "\"";
+    }
+
+    static String etagColeccion(long version, FormatoRespuesta formato) {
+        return "\"" + EPOCA_ETAG + "-g" + version + formato.getSufijoEtag() + "\"";
+    }
+
+    /**
+     * Valida un elemento de un lote
+     *
+     * @return mapa campo -> mensaje, o null si la persona es válida
+     */
+    private Map<String, String> validar(Persona persona) {
+        if (persona == null) {
+            return ELEMENTO_NULO;
+        }
+        return validator.validar(persona);
+    }
+
+    private static <T> ResponseEntity<ApiResponse<List<ResultadoItem<T>>>> respuestaLote(
+            List<ResultadoItem<T>> resultados) {
+        int exitosos = 0;
+        for (ResultadoItem<T> resultado : resultados) {
+            if (resultado.isSuccess()) {
+                exitosos++;
+            }
+        }
+        String mensaje = "Lote procesado: " + exitosos + " exitosos, "
+                + (resultados.size() - exitosos) + " con errores";
+        return ResponseEntity.ok(ApiResponse.success(mensaje, resultados));
+    }
+
+    /**
+     * Respuesta serializada sin pasar por la caché (errores)
+     */
+    private ResponseEntity<byte[]> serializada(HttpStatus status, FormatoRespuesta formato, ApiResponse<?> respuesta) {
+        return ResponseEntity.status(status)
+                .contentType(formato.getMediaType())
+                .body(cache.serializar(respuesta, formato));
+    }
+
+    /**
+     * GZIPOutputStream que libera su Deflater al cerrarse aunque la
+     * exportación se corte: close() escribe el final del formato, y si eso
+     * falla (cliente desconectado) el Deflater nativo quedaría esperando al GC
+     */
+    private static final class GzipExportacion extends GZIPOutputStream {
+
+        private GzipExportacion(OutputStream salida) throws IOException {
+            super(salida, TAMANIO_BUFFER_EXPORT);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    /**
+     * Clave de caché de una página de GET /personas
+     */
+    private static final class ClavePagina {
+        private final long afterId;
+        private final int limit;
+        // Máscara de CamposPersona más PROYECCION_COMPACTA, o -1 para la respuesta completa
+        private final int proyeccion;
+
+        private ClavePagina(long afterId, int limit, int proyeccion) {
+            this.afterId = afterId;
+            this.limit = limit;
+            this.proyeccion = proyeccion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ClavePagina)) {
+                return false;
+            }
+            ClavePagina otra = (ClavePagina) o;
+            return afterId == otra.afterId && limit == otra.limit && proyeccion == otra.proyeccion;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Long.hashCode(afterId) + limit) + proyeccion;
+        }
+    }
 }
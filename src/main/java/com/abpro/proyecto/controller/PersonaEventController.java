@@ -0,0 +1,57 @@
+package com.abpro.proyecto.controller;
+
+import com.abpro.proyecto.events.PersonaEventStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controlador REST con el flujo de cambios de personas
+ *
+ * Endpoints disponibles:
+ * - GET /personas/eventos : Server-Sent Events con las altas, modificaciones
+ *   y bajas hechas por PersonaController ("creada", "actualizada", "eliminada")
+ *
+ * Con el header Last-Event-ID el cliente reanuda desde el evento siguiente
+ * (EventSource lo envía solo al reconectarse). Si esos eventos ya no están
+ * retenidos, recibe primero un evento "desincronizado" y debe releer el
+ * estado con GET /personas.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@RestController
+public class PersonaEventController {
+
+    private final PersonaEventStream eventos;
+
+    public PersonaEventController(PersonaEventStream eventos) {
+        this.eventos = eventos;
+    }
+
+    /**
+     * GET /personas/eventos
+     * Suscribe al cliente a los cambios; 503 si se alcanzó el máximo de suscriptores
+     */
+    @GetMapping(value = "/personas/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> suscribir(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        SseEmitter emitter = eventos.suscribir(lastEventId);
+        if (emitter == null) {
+            // Una excepción y no un ResponseEntity<?>: el tipo declarado debe ser
+            // SseEmitter para que Spring trate la respuesta como un flujo
+            ErrorResponseException lleno = new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE);
+            lleno.getHeaders().set(HttpHeaders.RETRY_AFTER, "5");
+            throw lleno;
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
+    }
+}
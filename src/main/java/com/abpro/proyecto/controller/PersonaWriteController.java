@@ -0,0 +1,201 @@
+package com.abpro.proyecto.controller;
+
+import com.abpro.proyecto.cache.IdempotencyCache;
+import com.abpro.proyecto.cache.SerializedResponseCache;
+import com.abpro.proyecto.config.ModoEscritura;
+import com.abpro.proyecto.converter.FormatoRespuesta;
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.events.PersonaEventStream;
+import com.abpro.proyecto.exception.PersonaNotFoundException;
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import com.abpro.proyecto.repository.PersonaRepository;
+import com.abpro.proyecto.repository.VersionConflictException;
+import com.abpro.proyecto.validation.PersonaValidator;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Escrituras individuales de personas en el modo directo
+ *
+ * Endpoints disponibles:
+ * - POST   /personas          : Crear una nueva persona
+ * - PUT    /personas/{id}     : Actualizar una persona existente
+ * - DELETE /personas/{id}     : Eliminar una persona
+ *
+ * Cada petición escribe en el repositorio desde su propio hilo. Es el
+ * modo por defecto; con "personas.escritura=agrupada" estas rutas las
+ * atiende AsyncPersonaWriteController. Ambos responden lo mismo, con los
+ * métodos estáticos de esta clase.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@RestController
+@RequestMapping("/personas")
+@Conditional(ModoEscritura.Directa.class)
+public class PersonaWriteController {
+
+    private final PersonaRepository repository;
+    private final PersonaValidator validator;
+    private final SerializedResponseCache cache;
+    private final IdempotencyCache idempotencia;
+    private final PersonaEventStream eventos;
+
+    public PersonaWriteController(PersonaRepository repository, PersonaValidator validator,
+                                  SerializedResponseCache cache, IdempotencyCache idempotencia,
+                                  PersonaEventStream eventos) {
+        this.repository = repository;
+        this.validator = validator;
+        this.cache = cache;
+        this.idempotencia = idempotencia;
+        this.eventos = eventos;
+    }
+
+    /**
+     * POST /personas
+     * Crea una nueva persona
+     *
+     * Las validaciones están definidas en la clase Persona con anotaciones;
+     * PersonaValidator las aplica sin pasar por Hibernate Validator y
+     * responde 400 con el mismo cuerpo que un error de @Valid
+     *
+     * Con el header Idempotency-Key los reintentos reciben la respuesta de
+     * la primera petición con esa clave en lugar de crear otra persona.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<?>> crear(
+            @RequestBody Persona persona,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            return idempotencia.ejecutar(idempotencyKey, persona, () -> crearPersona(persona, accept));
+        }
+        return crearPersona(persona, accept);
+    }
+
+    private ResponseEntity<ApiResponse<?>> crearPersona(Persona persona, String accept) {
+        Map<String, String> errores = validator.validar(persona);
+        if (errores != null) {
+            return ResponseEntity.badRequest().body(validator.respuestaError(errores));
+        }
+
+        PersonaConId nuevaPersona = repository.save(persona);
+        eventos.publicar(PersonaEventStream.Tipo.CREADA, nuevaPersona);
+        return creada(nuevaPersona, FormatoRespuesta.negociar(accept));
+    }
+
+    /**
+     * PUT /personas/{id}
+     * Actualiza una persona existente
+     *
+     * Con el header If-Match solo actualiza si el ETag enviado corresponde a
+     * la versión vigente; si otra petición la modificó antes responde 412
+     * con el ETag actual, en lugar de sobrescribir sus cambios.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<?>> actualizar(
+            @PathVariable Long id,
+            @RequestBody Persona persona,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        Map<String, String> errores = validator.validar(persona);
+        if (errores != null) {
+            return ResponseEntity.badRequest().body(validator.respuestaError(errores));
+        }
+
+        FormatoRespuesta formato = FormatoRespuesta.negociar(accept);
+        PersonaConId actualizada;
+        try {
+            actualizada = actualizar(repository, id, persona, ifMatch);
+        } catch (VersionConflictException e) {
+            return conflicto(id, e, formato);
+        }
+
+        cache.invalidar(id);
+        eventos.publicar(PersonaEventStream.Tipo.ACTUALIZADA, actualizada);
+        return actualizada(actualizada, formato);
+    }
+
+    /**
+     * DELETE /personas/{id}
+     * Elimina una persona
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<String>> eliminar(@PathVariable Long id) {
+        if (!repository.deleteById(id)) {
+            throw new PersonaNotFoundException(id);
+        }
+
+        cache.invalidar(id);
+        eventos.publicarEliminada(id);
+        return eliminada(id);
+    }
+
+    /**
+     * Actualiza sin condición, o con If-Match solo si alguno de sus ETag
+     * es la versión vigente
+     *
+     * @throws PersonaNotFoundException si el ID no existe
+     * @throws VersionConflictException si ningún ETag coincide
+     */
+    static PersonaConId actualizar(PersonaRepository repository, long id, Persona persona, String ifMatch) {
+        Optional<PersonaConId> actualizada = ifMatch == null || ifMatch.trim().equals("*")
+                ? repository.update(id, persona)
+                : actualizarCondicional(repository, id, persona, ifMatch);
+        return actualizada.orElseThrow(() -> new PersonaNotFoundException(id));
+    }
+
+    private static Optional<PersonaConId> actualizarCondicional(PersonaRepository repository, long id,
+                                                                Persona persona, String ifMatch) {
+        List<Long> versiones = PersonaController.versionesIfMatch(ifMatch);
+        if (versiones.isEmpty()) {
+            // Ningún ETag es de este arranque: ninguna versión puede coincidir
+            versiones = List.of(-1L);
+        }
+        VersionConflictException conflicto = null;
+        for (long version : versiones) {
+            try {
+                return repository.update(id, persona, version);
+            } catch (VersionConflictException e) {
+                conflicto = e;
+            }
+        }
+        throw conflicto;
+    }
+
+    static ResponseEntity<ApiResponse<?>> creada(PersonaConId persona, FormatoRespuesta formato) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(PersonaController.etagPersona(persona.getVersion(), formato))
+                .body(ApiResponse.success(
+                        "Persona creada exitosamente con ID: " + persona.getId(),
+                        persona
+                ));
+    }
+
+    static ResponseEntity<ApiResponse<?>> actualizada(PersonaConId persona, FormatoRespuesta formato) {
+        return ResponseEntity.ok()
+                .eTag(PersonaController.etagPersona(persona.getVersion(), formato))
+                .body(ApiResponse.success("Persona actualizada exitosamente", persona));
+    }
+
+    static ResponseEntity<ApiResponse<?>> conflicto(long id, VersionConflictException e, FormatoRespuesta formato) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(PersonaController.etagPersona(e.getVersionActual(), formato))
+                .body(ApiResponse.error("La persona con ID " + id + " fue modificada por otra petición"));
+    }
+
+    static ResponseEntity<ApiResponse<String>> eliminada(long id) {
+        return ResponseEntity.ok(
+                ApiResponse.success("Persona eliminada exitosamente", "ID: " + id)
+        );
+    }
+}
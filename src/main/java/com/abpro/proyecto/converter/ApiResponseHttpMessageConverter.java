@@ -0,0 +1,49 @@
+package com.abpro.proyecto.converter;
+
+import com.abpro.proyecto.dto.ApiResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Conversor de salida para ApiResponse que usa ApiResponseJsonWriter en
+ * lugar de la serialización por reflexión de MappingJackson2HttpMessageConverter
+ *
+ * Solo escribe: los cuerpos de entrada (Persona, listas) siguen leyéndose
+ * con el conversor de Jackson.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class ApiResponseHttpMessageConverter extends AbstractHttpMessageConverter<ApiResponse<?>> {
+
+    private final ApiResponseJsonWriter writer;
+
+    public ApiResponseHttpMessageConverter(ApiResponseJsonWriter writer) {
+        super(MediaType.APPLICATION_JSON);
+        this.writer = writer;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ApiResponse no se lee con este conversor", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> respuesta, HttpOutputMessage outputMessage) throws IOException {
+        writer.escribir(respuesta, outputMessage.getBody());
+    }
+}
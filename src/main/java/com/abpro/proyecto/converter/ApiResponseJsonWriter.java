@@ -0,0 +1,207 @@
+package com.abpro.proyecto.converter;
+
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.dto.Pagina;
+import com.abpro.proyecto.dto.PaginaProyectada;
+import com.abpro.proyecto.dto.ResultadoItem;
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializador JSON escrito a mano para ApiResponse y sus datos
+ *
+ * Produce exactamente el mismo JSON que el ObjectMapper por defecto de
+ * Spring MVC, pero sin introspección: los nombres de campo están
+ * pre-codificados (SerializedString), el timestamp reutiliza su prefijo
+ * por segundo (TimestampCache) y el generador usa los buffers reciclados
+ * de Jackson. Los tipos de datos que no conoce se delegan al ObjectMapper
+ * sobre el mismo generador.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class ApiResponseJsonWriter {
+
+    private static final int TAMANIO_INICIAL = 256;
+
+    private static final SerializedString SUCCESS = new SerializedString("success");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString NOMBRE = new SerializedString("nombre");
+    private static final SerializedString EDAD = new SerializedString("edad");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializedString INDICE = new SerializedString("indice");
+    private static final SerializedString ERRORS = new SerializedString("errors");
+
+    // Mismo mapper que usa Spring MVC por defecto, para los tipos no conocidos
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final TimestampCache timestamps = new TimestampCache();
+
+    /**
+     * Escribe la respuesta en el stream sin cerrarlo
+     */
+    public void escribir(ApiResponse<?> respuesta, OutputStream salida) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory()
+                .createGenerator(StreamUtils.nonClosing(salida), JsonEncoding.UTF8)) {
+            escribirRespuesta(generator, respuesta);
+        }
+    }
+
+    /**
+     * Serializa la respuesta a un arreglo de bytes
+     */
+    public byte[] aBytes(ApiResponse<?> respuesta) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(TAMANIO_INICIAL)) {
+            escribir(respuesta, buffer);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    /**
+     * Serializa un valor suelto, sin el sobre de ApiResponse (respuestas compactas)
+     */
+    public byte[] valorABytes(Object valor) {
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(TAMANIO_INICIAL);
+             JsonGenerator generator = mapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+            escribirValor(generator, valor);
+            generator.flush();
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private void escribirRespuesta(JsonGenerator generator, ApiResponse<?> respuesta) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(SUCCESS);
+        generator.writeBoolean(respuesta.isSuccess());
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(respuesta.getMessage());
+        generator.writeFieldName(DATA);
+        escribirValor(generator, respuesta.getData());
+        generator.writeFieldName(TIMESTAMP);
+        if (respuesta.getTimestamp() == null) {
+            generator.writeNull();
+        } else {
+            timestamps.escribir(generator, respuesta.getTimestamp());
+        }
+        generator.writeEndObject();
+    }
+
+    private void escribirValor(JsonGenerator generator, Object valor) throws IOException {
+        if (valor == null) {
+            generator.writeNull();
+        } else if (valor instanceof PersonaConId) {
+            escribirPersona(generator, (PersonaConId) valor);
+        } else if (valor instanceof String) {
+            generator.writeString((String) valor);
+        } else if (valor instanceof Pagina) {
+            Pagina<?> pagina = (Pagina<?>) valor;
+            generator.writeStartObject();
+            generator.writeFieldName(ITEMS);
+            escribirValor(generator, pagina.getItems());
+            generator.writeFieldName(NEXT_CURSOR);
+            generator.writeString(pagina.getNextCursor());
+            generator.writeEndObject();
+        } else if (valor instanceof PaginaProyectada) {
+            ((PaginaProyectada) valor).escribir(generator);
+        } else if (valor instanceof List) {
+            List<?> lista = (List<?>) valor;
+            generator.writeStartArray();
+            for (int i = 0; i < lista.size(); i++) {
+                escribirValor(generator, lista.get(i));
+            }
+            generator.writeEndArray();
+        } else if (valor instanceof ResultadoItem) {
+            escribirResultado(generator, (ResultadoItem<?>) valor);
+        } else if (valor instanceof Long || valor instanceof Integer) {
+            generator.writeNumber(((Number) valor).longValue());
+        } else if (valor instanceof Boolean) {
+            generator.writeBoolean((Boolean) valor);
+        } else if (valor instanceof Map && soloClavesTexto((Map<?, ?>) valor)) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entrada : ((Map<?, ?>) valor).entrySet()) {
+                generator.writeFieldName((String) entrada.getKey());
+                escribirValor(generator, entrada.getValue());
+            }
+            generator.writeEndObject();
+        } else if (valor.getClass() == Persona.class) {
+            Persona persona = (Persona) valor;
+            generator.writeStartObject();
+            escribirCamposPersona(generator, persona);
+            generator.writeEndObject();
+        } else {
+            mapper.writeValue(generator, valor);
+        }
+    }
+
+    private void escribirPersona(JsonGenerator generator, PersonaConId persona) throws IOException {
+        // Mismo orden que Jackson: primero los campos heredados de Persona
+        generator.writeStartObject();
+        escribirCamposPersona(generator, persona);
+        generator.writeFieldName(ID);
+        if (persona.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(persona.getId());
+        }
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(persona.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void escribirCamposPersona(JsonGenerator generator, Persona persona) throws IOException {
+        generator.writeFieldName(NOMBRE);
+        generator.writeString(persona.getNombre());
+        generator.writeFieldName(EDAD);
+        if (persona.getEdad() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(persona.getEdad());
+        }
+    }
+
+    private void escribirResultado(JsonGenerator generator, ResultadoItem<?> resultado) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(INDICE);
+        generator.writeNumber(resultado.getIndice());
+        generator.writeFieldName(SUCCESS);
+        generator.writeBoolean(resultado.isSuccess());
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(resultado.getMessage());
+        generator.writeFieldName(DATA);
+        escribirValor(generator, resultado.getData());
+        generator.writeFieldName(ERRORS);
+        escribirValor(generator, resultado.getErrors());
+        generator.writeEndObject();
+    }
+
+    private static boolean soloClavesTexto(Map<?, ?> mapa) {
+        for (Object clave : mapa.keySet()) {
+            if (!(clave instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
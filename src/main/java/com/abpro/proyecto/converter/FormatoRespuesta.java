@@ -0,0 +1,79 @@
+package com.abpro.proyecto.converter;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Formatos de respuesta soportados por la API
+ *
+ * JSON es el formato por defecto (navegadores y clientes externos); CBOR y
+ * Smile son representaciones binarias de Jackson para el tráfico entre
+ * servicios. Spring MVC registra sus conversores automáticamente al
+ * encontrar las dependencias de Jackson; esta enumeración se usa donde el
+ * controlador serializa por su cuenta (la caché de respuestas).
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public enum FormatoRespuesta {
+
+    JSON(MediaType.APPLICATION_JSON, ""),
+    CBOR(MediaType.parseMediaType("application/cbor"), ".cbor"),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile"), ".smile");
+
+    private static final FormatoRespuesta[] VALORES = values();
+
+    private final MediaType mediaType;
+    private final String sufijoEtag;
+
+    FormatoRespuesta(MediaType mediaType, String sufijoEtag) {
+        this.mediaType = mediaType;
+        this.sufijoEtag = sufijoEtag;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Sufijo para distinguir el ETag de cada representación del mismo recurso
+     */
+    public String getSufijoEtag() {
+        return sufijoEtag;
+    }
+
+    /**
+     * Elige el formato según el header Accept: el de mayor calidad entre
+     * los soportados, con JSON ante empates o comodines. Sin Accept, o si
+     * no es válido, responde JSON.
+     */
+    public static FormatoRespuesta negociar(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return JSON;
+        }
+        List<MediaType> aceptados;
+        try {
+            aceptados = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+
+        FormatoRespuesta elegido = JSON;
+        double mejorCalidad = -1;
+        for (MediaType aceptado : aceptados) {
+            double calidad = aceptado.getQualityValue();
+            if (calidad <= mejorCalidad || calidad == 0) {
+                continue;
+            }
+            for (FormatoRespuesta formato : VALORES) {
+                if (aceptado.includes(formato.mediaType)) {
+                    elegido = formato;
+                    mejorCalidad = calidad;
+                    break;
+                }
+            }
+        }
+        return elegido;
+    }
+}
@@ -0,0 +1,73 @@
+package com.abpro.proyecto.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Escribe un LocalDateTime con el mismo formato que Jackson por defecto
+ * (arreglo [año,mes,día,hora,minuto,segundo,nanos]) reutilizando el
+ * prefijo ya codificado mientras no cambie el segundo
+ *
+ * Todas las respuestas de un mismo segundo comparten el prefijo, así que
+ * por petición solo se escriben los nanosegundos.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+final class TimestampCache {
+
+    private volatile Prefijo actual = new Prefijo(Long.MIN_VALUE, null);
+
+    void escribir(JsonGenerator generator, LocalDateTime timestamp) throws IOException {
+        int segundo = timestamp.getSecond();
+        int nanos = timestamp.getNano();
+        if (segundo == 0 && nanos == 0) {
+            // Jackson omite segundo y nanos en cero: caso poco frecuente, sin caché
+            generator.writeStartArray();
+            generator.writeNumber(timestamp.getYear());
+            generator.writeNumber(timestamp.getMonthValue());
+            generator.writeNumber(timestamp.getDayOfMonth());
+            generator.writeNumber(timestamp.getHour());
+            generator.writeNumber(timestamp.getMinute());
+            generator.writeEndArray();
+            return;
+        }
+
+        long epoca = timestamp.toEpochSecond(ZoneOffset.UTC);
+        Prefijo prefijo = actual;
+        if (prefijo.epoca != epoca) {
+            prefijo = new Prefijo(epoca, new SerializedString("[" + timestamp.getYear()
+                    + "," + timestamp.getMonthValue()
+                    + "," + timestamp.getDayOfMonth()
+                    + "," + timestamp.getHour()
+                    + "," + timestamp.getMinute()
+                    + "," + segundo));
+            actual = prefijo;
+        }
+
+        generator.writeRawValue(prefijo.valor);
+        if (nanos > 0) {
+            char[] digitos = new char[11];
+            int inicio = digitos.length;
+            for (int resto = nanos; resto > 0; resto /= 10) {
+                digitos[--inicio] = (char) ('0' + resto % 10);
+            }
+            digitos[--inicio] = ',';
+            generator.writeRaw(digitos, inicio, digitos.length - inicio);
+        }
+        generator.writeRaw(']');
+    }
+
+    private static final class Prefijo {
+        private final long epoca;
+        private final SerializedString valor;
+
+        private Prefijo(long epoca, SerializedString valor) {
+            this.epoca = epoca;
+            this.valor = valor;
+        }
+    }
+}
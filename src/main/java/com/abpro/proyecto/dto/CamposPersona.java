@@ -0,0 +1,106 @@
+package com.abpro.proyecto.dto;
+
+import com.abpro.proyecto.model.PersonaConId;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * Conjunto de propiedades de PersonaConId a incluir en una respuesta
+ * (parámetro "fields", por ejemplo "id,nombre")
+ *
+ * Se guarda como máscara de bits, así que sirve como parte de la clave de
+ * caché. Las propiedades se escriben siempre en el mismo orden que la
+ * representación completa (nombre, edad, id, version), sea cual sea el
+ * orden pedido.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class CamposPersona {
+
+    private static final int NOMBRE = 1;
+    private static final int EDAD = 1 << 1;
+    private static final int ID = 1 << 2;
+    private static final int VERSION = 1 << 3;
+
+    private static final String[] NOMBRES = {"nombre", "edad", "id", "version"};
+    private static final SerializedString[] CLAVES = {
+            new SerializedString("nombre"), new SerializedString("edad"),
+            new SerializedString("id"), new SerializedString("version")};
+
+    public static final CamposPersona TODOS = new CamposPersona(NOMBRE | EDAD | ID | VERSION);
+
+    private final int mascara;
+
+    private CamposPersona(int mascara) {
+        this.mascara = mascara;
+    }
+
+    /**
+     * Interpreta una lista de propiedades separadas por coma
+     *
+     * @throws IllegalArgumentException si alguna no existe o la lista está vacía
+     */
+    public static CamposPersona parsear(String fields) {
+        int mascara = 0;
+        for (String campo : fields.split(",")) {
+            String nombre = campo.trim();
+            int bit = -1;
+            for (int i = 0; i < NOMBRES.length; i++) {
+                if (NOMBRES[i].equals(nombre)) {
+                    bit = 1 << i;
+                    break;
+                }
+            }
+            if (bit < 0) {
+                throw new IllegalArgumentException("Propiedad desconocida: " + nombre);
+            }
+            mascara |= bit;
+        }
+        return mascara == TODOS.mascara ? TODOS : new CamposPersona(mascara);
+    }
+
+    public int getMascara() {
+        return mascara;
+    }
+
+    /**
+     * Escribe un objeto con las propiedades seleccionadas de la persona
+     */
+    public void escribir(JsonGenerator generator, PersonaConId persona) throws IOException {
+        generator.writeStartObject();
+        if ((mascara & NOMBRE) != 0) {
+            generator.writeFieldName(CLAVES[0]);
+            generator.writeString(persona.getNombre());
+        }
+        if ((mascara & EDAD) != 0) {
+            generator.writeFieldName(CLAVES[1]);
+            if (persona.getEdad() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(persona.getEdad());
+            }
+        }
+        if ((mascara & ID) != 0) {
+            generator.writeFieldName(CLAVES[2]);
+            if (persona.getId() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(persona.getId());
+            }
+        }
+        if ((mascara & VERSION) != 0) {
+            generator.writeFieldName(CLAVES[3]);
+            generator.writeNumber(persona.getVersion());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Nombres válidos para el parámetro fields, para los mensajes de error
+     */
+    public static String disponibles() {
+        return String.join(", ", NOMBRES);
+    }
+}
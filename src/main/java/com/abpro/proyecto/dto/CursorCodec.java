@@ -0,0 +1,49 @@
+package com.abpro.proyecto.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica y decodifica los cursores opacos de paginación
+ *
+ * El cursor contiene el último ID entregado (keyset), en Base64 URL-safe
+ * para que el cliente no dependa de su formato interno.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class CursorCodec {
+
+    private static final String PREFIJO = "id:";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(long ultimoId) {
+        byte[] bytes = (PREFIJO + ultimoId).getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no fue generado por encode
+     */
+    public static long decode(String cursor) {
+        String texto;
+        try {
+            texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (!texto.startsWith(PREFIJO)) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        try {
+            long id = Long.parseLong(texto.substring(PREFIJO.length()));
+            if (id < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
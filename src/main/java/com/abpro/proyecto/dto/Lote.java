@@ -0,0 +1,86 @@
+package com.abpro.proyecto.dto;
+
+import com.abpro.proyecto.exception.LoteDemasiadoGrandeException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Cuerpo de las operaciones por lotes: un arreglo de hasta MAXIMO elementos
+ *
+ * El límite se controla mientras se lee el arreglo: al empezar el
+ * elemento MAXIMO + 1 se corta la lectura con LoteDemasiadoGrandeException,
+ * sin deserializar ni retener el resto del cuerpo. Sirve igual para JSON,
+ * CBOR y Smile.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@JsonDeserialize(using = Lote.Deserializador.class)
+public class Lote<T> extends ArrayList<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAXIMO = 10_000;
+
+    public Lote() {
+    }
+
+    /**
+     * Lee el arreglo elemento por elemento con el deserializador del tipo
+     * de elemento declarado en el parámetro (Lote<Persona>, Lote<Long>...)
+     */
+    public static final class Deserializador extends StdDeserializer<Lote<Object>> implements ContextualDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        private final JsonDeserializer<Object> elementos;
+
+        public Deserializador() {
+            this(null);
+        }
+
+        private Deserializador(JsonDeserializer<Object> elementos) {
+            super(Lote.class);
+            this.elementos = elementos;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+                throws JsonMappingException {
+            JavaType tipo = ctxt.getContextualType();
+            JavaType contenido = tipo != null && tipo.getContentType() != null
+                    ? tipo.getContentType()
+                    : ctxt.constructType(Object.class);
+            return new Deserializador(ctxt.findContextualValueDeserializer(contenido, property));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Lote<Object> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (Lote<Object>) ctxt.handleUnexpectedToken(Lote.class, p);
+            }
+            Lote<Object> lote = new Lote<>();
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (lote.size() == MAXIMO) {
+                    throw new LoteDemasiadoGrandeException(p, MAXIMO);
+                }
+                lote.add(token == JsonToken.VALUE_NULL
+                        ? elementos.getNullValue(ctxt)
+                        : elementos.deserialize(p, ctxt));
+            }
+            return lote;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.abpro.proyecto.dto;
+
+import java.util.List;
+
+/**
+ * DTO para una página de resultados con paginación por cursor
+ *
+ * nextCursor es opaco para el cliente: debe enviarse tal cual en el
+ * parámetro "after" para obtener la página siguiente. Es null cuando
+ * no quedan más resultados.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class Pagina<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    public Pagina() {
+    }
+
+    public Pagina(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters y Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
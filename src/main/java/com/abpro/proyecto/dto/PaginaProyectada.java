@@ -0,0 +1,75 @@
+package com.abpro.proyecto.dto;
+
+import com.abpro.proyecto.model.PersonaConId;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Página de personas que se serializa solo con las propiedades pedidas
+ *
+ * Se escribe directamente desde las PersonaConId sobre el generador, sin
+ * construir mapas ni copias por elemento. Al implementar JsonSerializable
+ * sirve igual para los mappers JSON, CBOR y Smile.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class PaginaProyectada extends JsonSerializable.Base {
+
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+
+    private final List<PersonaConId> items;
+    private final String nextCursor;
+    private final CamposPersona campos;
+
+    public PaginaProyectada(List<PersonaConId> items, String nextCursor, CamposPersona campos) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.campos = campos;
+    }
+
+    public List<PersonaConId> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public CamposPersona getCampos() {
+        return campos;
+    }
+
+    /**
+     * Escribe {"items":[...],"nextCursor":...}
+     */
+    public void escribir(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ITEMS);
+        generator.writeStartArray();
+        for (int i = 0; i < items.size(); i++) {
+            campos.escribir(generator, items.get(i));
+        }
+        generator.writeEndArray();
+        generator.writeFieldName(NEXT_CURSOR);
+        generator.writeString(nextCursor);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        escribir(generator);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        escribir(generator);
+    }
+}
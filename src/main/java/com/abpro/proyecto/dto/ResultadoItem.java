@@ -0,0 +1,86 @@
+package com.abpro.proyecto.dto;
+
+import java.util.Map;
+
+/**
+ * DTO con el resultado de un elemento dentro de una operación por lotes
+ *
+ * indice es la posición del elemento en el arreglo enviado por el cliente.
+ * Si success es false, errors contiene los mensajes por campo (igual que
+ * en los errores de validación individuales) o message explica el motivo.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class ResultadoItem<T> {
+
+    private int indice;
+    private boolean success;
+    private String message;
+    private T data;
+    private Map<String, String> errors;
+
+    public ResultadoItem() {
+    }
+
+    public ResultadoItem(int indice, boolean success, String message, T data, Map<String, String> errors) {
+        this.indice = indice;
+        this.success = success;
+        this.message = message;
+        this.data = data;
+        this.errors = errors;
+    }
+
+    // Métodos estáticos para crear resultados comunes
+    public static <T> ResultadoItem<T> ok(int indice, T data) {
+        return new ResultadoItem<>(indice, true, null, data, null);
+    }
+
+    public static <T> ResultadoItem<T> error(int indice, String message) {
+        return new ResultadoItem<>(indice, false, message, null, null);
+    }
+
+    public static <T> ResultadoItem<T> invalido(int indice, Map<String, String> errors) {
+        return new ResultadoItem<>(indice, false, "Error de validación en los datos enviados", null, errors);
+    }
+
+    // Getters y Setters
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public void setData(T data) {
+        this.data = data;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,358 @@
+package com.abpro.proyecto.events;
+
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.model.PersonaConId;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flujo de eventos de cambios de personas para Server-Sent Events
+ *
+ * Los eventos se guardan en un anillo de tamaño fijo indexado por número
+ * de secuencia; publicar es reservar una secuencia y escribir una
+ * posición, sin bloqueos. Cada suscriptor solo guarda su cursor (la
+ * siguiente secuencia que debe recibir), así que la memoria no depende de
+ * la cantidad de suscriptores ni de su velocidad. Un suscriptor que se
+ * atrasa más que el tamaño del anillo pierde eventos: se lo desconecta y
+ * al reconectarse con Last-Event-ID recibe un evento "desincronizado".
+ *
+ * Los envíos se hacen fuera del hilo de la petición que publica: cada
+ * suscriptor tiene a lo sumo una tarea de envío programada a la vez.
+ * Los datos de cada evento se serializan una sola vez, al primer envío.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class PersonaEventStream implements Closeable {
+
+    public static final String EVENTO_DESINCRONIZADO = "desincronizado";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long LATIDO_SEGUNDOS = 15;
+
+    // Prefijo de los IDs de evento: un Last-Event-ID de otro arranque no es reanudable
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicReferenceArray<Evento> anillo;
+    private final int mascara;
+    // La secuencia 0 queda libre: "epoca-0" indica que no se vio ningún evento
+    private final AtomicLong siguiente = new AtomicLong(1);
+
+    private final List<Suscriptor> suscriptores = new CopyOnWriteArrayList<>();
+    private final AtomicInteger cantidadSuscriptores = new AtomicInteger();
+    private final int maximoSuscriptores;
+    private final ExecutorService envios;
+    private final ScheduledExecutorService latidos;
+
+    private final LongAdder publicados;
+    private final LongAdder descartadosLentos;
+
+    @Autowired
+    public PersonaEventStream(Environment env, MetricsRegistry metrics) {
+        this(env.getProperty("personas.eventos.capacidad", Integer.class, 4096),
+                env.getProperty("personas.eventos.maximo-suscriptores", Integer.class, 256),
+                metrics);
+    }
+
+    /**
+     * @param capacidad eventos retenidos para reanudar; se redondea a potencia de dos
+     */
+    public PersonaEventStream(int capacidad, int maximoSuscriptores, MetricsRegistry metrics) {
+        int tamanio = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.anillo = new AtomicReferenceArray<>(tamanio);
+        this.mascara = tamanio - 1;
+        this.maximoSuscriptores = maximoSuscriptores;
+        // Cada suscriptor ocupa a lo sumo un hilo, y su cantidad está acotada
+        this.envios = Executors.newCachedThreadPool(hilos("personas-eventos-"));
+        this.latidos = Executors.newSingleThreadScheduledExecutor(hilos("personas-eventos-latido-"));
+        latidos.scheduleAtFixedRate(this::latir, LATIDO_SEGUNDOS, LATIDO_SEGUNDOS, TimeUnit.SECONDS);
+
+        this.publicados = metrics.contador("personas_events_published_total", "Eventos de cambios publicados", "");
+        this.descartadosLentos = metrics.contador("personas_events_slow_subscribers_total",
+                "Suscriptores desconectados por no leer a tiempo", "");
+    }
+
+    public enum Tipo {
+        CREADA("creada"),
+        ACTUALIZADA("actualizada"),
+        ELIMINADA("eliminada");
+
+        private final String nombre;
+
+        Tipo(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    /**
+     * Publica el alta o la modificación de una persona
+     */
+    public void publicar(Tipo tipo, PersonaConId persona) {
+        publicar(new Evento(tipo, persona.getId(), persona.getNombre(), persona.getEdad(), persona.getVersion()));
+    }
+
+    /**
+     * Publica la baja de una persona
+     */
+    public void publicarEliminada(long id) {
+        publicar(new Evento(Tipo.ELIMINADA, id, null, null, 0));
+    }
+
+    /**
+     * Crea un suscriptor que recibe los eventos posteriores a Last-Event-ID,
+     * o los nuevos si no se indica
+     *
+     * @return el emisor, o null si ya se alcanzó el máximo de suscriptores
+     */
+    public SseEmitter suscribir(String lastEventId) {
+        if (cantidadSuscriptores.incrementAndGet() > maximoSuscriptores) {
+            cantidadSuscriptores.decrementAndGet();
+            return null;
+        }
+
+        long actual = siguiente.get();
+        long desde = actual;
+        boolean desincronizado = false;
+        if (lastEventId != null) {
+            long ultimo = secuenciaDe(lastEventId.trim());
+            if (ultimo < 0 || ultimo + 1 < actual - anillo.length()) {
+                // Otro arranque o eventos ya sobrescritos: el cliente debe releer el estado
+                desincronizado = true;
+            } else {
+                desde = Math.min(ultimo + 1, actual);
+            }
+        }
+
+        SseEmitter emitter = new SseEmitter();
+        Suscriptor suscriptor = new Suscriptor(emitter, desde);
+        emitter.onCompletion(suscriptor::cerrar);
+        emitter.onTimeout(suscriptor::cerrar);
+        emitter.onError(error -> suscriptor.cerrar());
+
+        if (desincronizado) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(idEvento(actual - 1))
+                        .name(EVENTO_DESINCRONIZADO)
+                        .data(idEvento(actual - 1)));
+            } catch (IOException e) {
+                suscriptor.cerrar();
+                return emitter;
+            }
+        }
+        suscriptores.add(suscriptor);
+        suscriptor.despertar();
+        return emitter;
+    }
+
+    @Override
+    public void close() {
+        latidos.shutdownNow();
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.emitter.complete();
+        }
+        envios.shutdown();
+    }
+
+    private void publicar(Evento evento) {
+        long secuencia = siguiente.getAndIncrement();
+        evento.secuencia = secuencia;
+        anillo.set((int) secuencia & mascara, evento);
+        publicados.increment();
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.despertar();
+        }
+    }
+
+    private void latir() {
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.latido = true;
+            suscriptor.despertar();
+        }
+    }
+
+    private String idEvento(long secuencia) {
+        return epoca + "-" + secuencia;
+    }
+
+    private long secuenciaDe(String id) {
+        int guion = id.lastIndexOf('-');
+        if (guion <= 0 || !id.regionMatches(0, epoca, 0, guion) || guion != epoca.length()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(guion + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static ThreadFactory hilos(String prefijo) {
+        AtomicInteger numero = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, prefijo + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    /**
+     * Un cambio en el anillo; los datos JSON se generan al primer envío
+     */
+    private static final class Evento {
+        private final Tipo tipo;
+        private final long id;
+        private final String nombre;
+        private final Integer edad;
+        private final long version;
+        private volatile long secuencia = -1;
+        private volatile String datos;
+
+        private Evento(Tipo tipo, long id, String nombre, Integer edad, long version) {
+            this.tipo = tipo;
+            this.id = id;
+            this.nombre = nombre;
+            this.edad = edad;
+            this.version = version;
+        }
+
+        private String datos() {
+            String json = datos;
+            if (json == null) {
+                // Carrera benigna: dos suscriptores pueden generar el mismo texto
+                json = serializar();
+                datos = json;
+            }
+            return json;
+        }
+
+        private String serializar() {
+            StringWriter salida = new StringWriter(96);
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(salida)) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", id);
+                if (tipo != Tipo.ELIMINADA) {
+                    generator.writeStringField("nombre", nombre);
+                    if (edad != null) {
+                        generator.writeNumberField("edad", edad);
+                    }
+                    generator.writeNumberField("version", version);
+                }
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return salida.toString();
+        }
+    }
+
+    /**
+     * Un cliente conectado y la siguiente secuencia que debe recibir
+     */
+    private final class Suscriptor {
+        private final SseEmitter emitter;
+        private final AtomicBoolean programado = new AtomicBoolean();
+        private final AtomicBoolean cerrado = new AtomicBoolean();
+        // Solo lo usa la tarea de envío en curso (a lo sumo una)
+        private long cursor;
+        private volatile boolean latido;
+
+        private Suscriptor(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        /**
+         * Programa una tarea de envío si no hay una en curso
+         */
+        private void despertar() {
+            if (!cerrado.get() && programado.compareAndSet(false, true)) {
+                try {
+                    envios.execute(this::enviar);
+                } catch (RuntimeException e) {
+                    // Executor cerrado: la aplicación se está deteniendo
+                    programado.set(false);
+                }
+            }
+        }
+
+        private void enviar() {
+            do {
+                try {
+                    enviarPendientes();
+                } catch (IOException | RuntimeException e) {
+                    // Cliente desconectado
+                    cerrar();
+                    emitter.completeWithError(e);
+                }
+                programado.set(false);
+                // Un evento publicado entre el último envío y el set anterior no se pierde
+            } while (!cerrado.get() && hayPendientes() && programado.compareAndSet(false, true));
+        }
+
+        private void enviarPendientes() throws IOException {
+            boolean enviado = false;
+            while (!cerrado.get()) {
+                Evento evento = anillo.get((int) cursor & mascara);
+                long secuencia = evento != null ? evento.secuencia : -1;
+                if (secuencia < cursor) {
+                    // Todavía no publicado
+                    break;
+                }
+                if (secuencia > cursor) {
+                    // Sobrescrito antes de enviarse: el suscriptor es demasiado lento
+                    descartadosLentos.increment();
+                    cerrar();
+                    emitter.complete();
+                    return;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(idEvento(cursor))
+                        .name(evento.tipo.nombre)
+                        .data(evento.datos(), MediaType.APPLICATION_JSON));
+                cursor++;
+                enviado = true;
+            }
+            if (latido) {
+                latido = false;
+                if (!enviado) {
+                    emitter.send(SseEmitter.event().comment("latido"));
+                }
+            }
+        }
+
+        private boolean hayPendientes() {
+            Evento evento = anillo.get((int) cursor & mascara);
+            return evento != null && evento.secuencia >= cursor;
+        }
+
+        private void cerrar() {
+            if (cerrado.compareAndSet(false, true)) {
+                suscriptores.remove(this);
+                cantidadSuscriptores.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,27 +1,67 @@
 package com.abpro.proyecto.exception;
 
 import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.validation.PersonaValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Manejador global de excepciones
  *
  * Intercepta las excepciones de validación y las transforma
- * en respuestas JSON amigables para el cliente
+ * en respuestas JSON amigables para el cliente. Los demás errores
+ * responden con un problem detail (RFC 7807) ya serializado y se
+ * cuentan por clase de excepción en personas_errors_total.
  *
  * @author Equipo de Desarrollo ABPRO
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final LongAdder noEncontradas;
+
+    // Contador por clase de excepción, resuelto una vez por clase
+    private final ClassValue<LongAdder> porClase;
+
+    public GlobalExceptionHandler(MetricsRegistry metrics) {
+        this.porClase = new ClassValue<>() {
+            @Override
+            protected LongAdder computeValue(Class<?> clase) {
+                return metrics.contador("personas_errors_total",
+                        "Errores atendidos por el manejador global, por clase de excepción",
+                        "clase=\"" + clase.getSimpleName() + "\"");
+            }
+        };
+        this.noEncontradas = porClase.get(PersonaNotFoundException.class);
+    }
+
+    /**
+     * Maneja las personas inexistentes: 404 armado sobre una plantilla
+     */
+    @ExceptionHandler(PersonaNotFoundException.class)
+    public ResponseEntity<byte[]> handlePersonaNotFound(PersonaNotFoundException ex) {
+        noEncontradas.increment();
+        return problema(HttpStatus.NOT_FOUND, ProblemDetails.noEncontrada(ex.getId()));
+    }
+
     /**
      * Maneja errores de validación de Bean Validation
      */
@@ -29,6 +69,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
 
+        porClase.get(ex.getClass()).increment();
         Map<String, String> errors = new HashMap<>();
 
         // Extraer todos los errores de validación
@@ -40,21 +81,65 @@ public class GlobalExceptionHandler {
 
         ApiResponse<Map<String, String>> response = new ApiResponse<>(
                 false,
-                "Error de validación en los datos enviados",
+                PersonaValidator.MENSAJE_ERROR,
                 errors
         );
 
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Cuerpo ilegible o parámetro con tipo incorrecto: errores del cliente
+     * que Spring no modela como ErrorResponse
+     */
+    @ExceptionHandler(TypeMismatchException.class)
+    public ResponseEntity<byte[]> handleBadRequest(Exception ex) {
+        porClase.get(ex.getClass()).increment();
+        return problema(HttpStatus.BAD_REQUEST, ProblemDetails.porStatus(HttpStatus.BAD_REQUEST));
+    }
+
+    /**
+     * Lote con más elementos que el máximo, detectado durante la lectura
+     * del cuerpo: responde como el resto de los errores de /personas/batch
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<?> handleNotReadable(HttpMessageNotReadableException ex) {
+        if (!(ex.getCause() instanceof LoteDemasiadoGrandeException)) {
+            return handleBadRequest(ex);
+        }
+        porClase.get(LoteDemasiadoGrandeException.class).increment();
+        LoteDemasiadoGrandeException causa = (LoteDemasiadoGrandeException) ex.getCause();
+        return ResponseEntity.badRequest().body(ApiResponse.error(causa.getOriginalMessage()));
+    }
+
     /**
      * Maneja excepciones generales
+     *
+     * Las excepciones de Spring MVC (JSON mal formado, método no soportado,
+     * ruta inexistente...) conservan su código de estado y sus headers; el
+     * resto responde 500 sin exponer el mensaje de la excepción, que solo
+     * se registra en el log.
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ApiResponse<String>> handleGeneralException(Exception ex) {
-        ApiResponse<String> response = ApiResponse.error(
-                "Error interno del servidor: " + ex.getMessage()
-        );
-        return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<byte[]> handleGeneralException(Exception ex) {
+        porClase.get(ex.getClass()).increment();
+
+        if (ex instanceof ErrorResponse) {
+            ErrorResponse errorResponse = (ErrorResponse) ex;
+            HttpStatusCode status = errorResponse.getStatusCode();
+            return ResponseEntity.status(status)
+                    .headers(errorResponse.getHeaders())
+                    .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                    .body(ProblemDetails.porStatus(status));
+        }
+
+        log.error("Error no controlado", ex);
+        return problema(HttpStatus.INTERNAL_SERVER_ERROR, ProblemDetails.porStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    private static ResponseEntity<byte[]> problema(HttpStatus status, byte[] cuerpo) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(cuerpo);
     }
 }
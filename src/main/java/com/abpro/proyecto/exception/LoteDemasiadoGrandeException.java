@@ -0,0 +1,23 @@
+package com.abpro.proyecto.exception;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+/**
+ * Se lanza al leer un cuerpo de /personas/batch con más elementos que el
+ * máximo permitido
+ *
+ * Extiende JsonMappingException para que Spring MVC la entregue como
+ * causa de HttpMessageNotReadableException; GlobalExceptionHandler la
+ * reconoce y responde 400 con el mensaje del límite.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class LoteDemasiadoGrandeException extends JsonMappingException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoteDemasiadoGrandeException(JsonParser parser, int maximo) {
+        super(parser, "El lote no puede tener más de " + maximo + " elementos");
+    }
+}
@@ -0,0 +1,32 @@
+package com.abpro.proyecto.exception;
+
+/**
+ * Se lanza cuando se pide una persona por un ID que no existe
+ *
+ * No captura la traza de la pila ni arma el mensaje al crearse: bajo
+ * tráfico de IDs inexistentes (scanners, clientes con caché vieja) es
+ * un resultado frecuente y esperado, no un error de programación.
+ * GlobalExceptionHandler responde 404 a partir del ID.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class PersonaNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long id;
+
+    public PersonaNotFoundException(long id) {
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return ProblemDetails.mensajeNoEncontrada(id);
+    }
+}
@@ -0,0 +1,130 @@
+package com.abpro.proyecto.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cuerpos de error en formato RFC 7807 (application/problem+json), ya serializados
+ *
+ * Los problemas sin datos variables se serializan una vez por código de
+ * estado. El de persona no encontrada es una plantilla en la que solo se
+ * escriben los dígitos del ID, sin armar el mensaje como String.
+ *
+ * Además de los miembros del RFC (type, title, status, detail) cada cuerpo
+ * incluye success y message, como ApiResponse, para los clientes que ya
+ * leían esos campos.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public final class ProblemDetails {
+
+    private static final String PREFIJO_NO_ENCONTRADA = "Persona con ID ";
+    private static final String SUFIJO_NO_ENCONTRADA = " no encontrada";
+
+    static final String MENSAJE_ERROR_INTERNO = "Error interno del servidor";
+
+    // Plantilla de 404: inicio + id + medio + id + fin
+    private static final byte[] NO_ENCONTRADA_INICIO = ascii(
+            "{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404,\"detail\":\"" + PREFIJO_NO_ENCONTRADA);
+    private static final byte[] NO_ENCONTRADA_MEDIO = utf8(
+            SUFIJO_NO_ENCONTRADA + "\",\"success\":false,\"message\":\"" + PREFIJO_NO_ENCONTRADA);
+    private static final byte[] NO_ENCONTRADA_FIN = utf8(SUFIJO_NO_ENCONTRADA + "\"}");
+
+    // Cuerpos fijos por código de estado (100 a 599), creados al primer uso
+    private static final byte[][] POR_STATUS = new byte[600][];
+
+    private ProblemDetails() {
+    }
+
+    static String mensajeNoEncontrada(long id) {
+        return PREFIJO_NO_ENCONTRADA + id + SUFIJO_NO_ENCONTRADA;
+    }
+
+    /**
+     * Cuerpo del 404 de una persona inexistente
+     */
+    static byte[] noEncontrada(long id) {
+        int digitos = digitos(id);
+        byte[] cuerpo = new byte[NO_ENCONTRADA_INICIO.length + NO_ENCONTRADA_MEDIO.length
+                + NO_ENCONTRADA_FIN.length + 2 * digitos];
+        int pos = copiar(NO_ENCONTRADA_INICIO, cuerpo, 0);
+        pos = escribirId(id, digitos, cuerpo, pos);
+        pos = copiar(NO_ENCONTRADA_MEDIO, cuerpo, pos);
+        pos = escribirId(id, digitos, cuerpo, pos);
+        copiar(NO_ENCONTRADA_FIN, cuerpo, pos);
+        return cuerpo;
+    }
+
+    /**
+     * Cuerpo fijo para un código de estado: el 500 no expone el mensaje de
+     * la excepción y el resto usa la frase estándar del código
+     */
+    public static byte[] porStatus(HttpStatusCode status) {
+        int codigo = status.value();
+        if (codigo < 100 || codigo >= POR_STATUS.length) {
+            return serializar(codigo);
+        }
+        byte[] cuerpo = POR_STATUS[codigo];
+        if (cuerpo == null) {
+            // Carrera benigna: dos hilos pueden generar el mismo arreglo
+            cuerpo = serializar(codigo);
+            POR_STATUS[codigo] = cuerpo;
+        }
+        return cuerpo;
+    }
+
+    private static byte[] serializar(int codigo) {
+        HttpStatus conocido = HttpStatus.resolve(codigo);
+        String titulo = conocido != null ? conocido.getReasonPhrase() : "Error";
+        String mensaje = codigo == 500 ? MENSAJE_ERROR_INTERNO : titulo;
+        return utf8("{\"type\":\"about:blank\",\"title\":\"" + json(titulo) + "\",\"status\":" + codigo
+                + ",\"success\":false,\"message\":\"" + json(mensaje) + "\"}");
+    }
+
+    private static int digitos(long id) {
+        if (id == Long.MIN_VALUE) {
+            return 20;
+        }
+        int digitos = id < 0 ? 2 : 1;
+        for (long resto = Math.abs(id); resto >= 10; resto /= 10) {
+            digitos++;
+        }
+        return digitos;
+    }
+
+    private static int escribirId(long id, int digitos, byte[] destino, int pos) {
+        if (id == Long.MIN_VALUE) {
+            return copiar(ascii(Long.toString(id)), destino, pos);
+        }
+        int fin = pos + digitos;
+        long resto = Math.abs(id);
+        for (int i = fin - 1; i >= pos; i--) {
+            destino[i] = (byte) ('0' + resto % 10);
+            resto /= 10;
+        }
+        if (id < 0) {
+            destino[pos] = '-';
+        }
+        return fin;
+    }
+
+    private static int copiar(byte[] origen, byte[] destino, int pos) {
+        System.arraycopy(origen, 0, destino, pos, origen.length);
+        return pos + origen.length;
+    }
+
+    private static String json(String texto) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(texto));
+    }
+
+    private static byte[] ascii(String texto) {
+        return texto.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
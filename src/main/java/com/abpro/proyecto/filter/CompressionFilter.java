@@ -0,0 +1,750 @@
+package com.abpro.proyecto.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Filtro que comprime las respuestas con gzip o deflate
+ *
+ * Solo comprime si el cliente lo acepta (Accept-Encoding) y el cuerpo
+ * supera el umbral: los primeros bytes se acumulan en un buffer del tamaño
+ * del umbral y la decisión se toma al llenarlo o al terminar la respuesta.
+ * Las respuestas chicas (por ejemplo /personas/health) salen tal cual, sin
+ * la latencia ni la cabecera extra de la compresión. Si la aplicación
+ * declara un Content-Length menor que el umbral, ni siquiera se acumulan.
+ *
+ * No comprime respuestas que ya traen Content-Encoding (la exportación
+ * NDJSON con gzip), eventos SSE ni tipos ya comprimidos. Los Deflater se
+ * toman de un pool. El ETag de una respuesta comprimida lleva el sufijo
+ * "--gzip" o "--deflate", que se quita de If-None-Match e If-Match antes
+ * de llegar al controlador.
+ *
+ * Si la aplicación sigue la respuesta en otro hilo (StreamingResponseBody,
+ * DeferredResult) sin haber decidido todavía, el resto sale sin comprimir
+ * y sin Content-Length. Si ya se estaba comprimiendo, el stream se cierra
+ * al terminar el re-despacho asíncrono con que Spring MVC completa la
+ * respuesta (por eso el filtro se registra también para ASYNC); un
+ * AsyncListener devuelve el compresor al pool si la respuesta se completa
+ * sin ese re-despacho. La respuesta sincroniza su estado porque la
+ * escriben hilos distintos.
+ *
+ * Con escritura no bloqueante (WriteListener) una respuesta sin decidir
+ * sale sin comprimir y el listener pasa directo al stream real. Si ya se
+ * comprimía, lo comprimido se encola y se entrega en onWritePossible
+ * cuando el stream real está listo; el cierre del stream escribe el final
+ * del formato, y la aplicación debe esperar isReady() antes de completar.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class CompressionFilter implements Filter {
+
+    private static final int CAPACIDAD_POOL = 64;
+
+    // Respuesta comprimida que debe cerrarse al terminar el re-despacho asíncrono
+    private static final String RESPUESTA_PENDIENTE = CompressionFilter.class.getName() + ".pendiente";
+
+    // Cabecera gzip mínima: magia, método deflate, sin flags ni fecha, SO desconocido
+    private static final byte[] CABECERA_GZIP = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final int umbralBytes;
+    private final DeflaterPool poolGzip;
+    private final DeflaterPool poolDeflate;
+
+    public CompressionFilter(int umbralBytes, int nivel) {
+        this.umbralBytes = umbralBytes;
+        this.poolGzip = new DeflaterPool(CAPACIDAD_POOL, nivel, true);
+        this.poolDeflate = new DeflaterPool(CAPACIDAD_POOL, nivel, false);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest peticion = (HttpServletRequest) request;
+        if (peticion.getDispatcherType() == DispatcherType.ASYNC) {
+            terminarRedespacho(peticion, response, chain);
+            return;
+        }
+        Codificacion codificacion = Codificacion.negociar(peticion.getHeader("Accept-Encoding"));
+        if (codificacion == null || "HEAD".equals(peticion.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RespuestaComprimible respuesta = new RespuestaComprimible((HttpServletResponse) response, codificacion,
+                peticion.getHeader("If-None-Match"));
+        try {
+            chain.doFilter(new PeticionSinSufijo(peticion), respuesta);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                respuesta.terminar();
+            } else if (respuesta.continuarEnOtroHilo()) {
+                pendienteDeCierre(peticion, respuesta);
+            }
+        }
+    }
+
+    /**
+     * La respuesta ya se comprime y la aplicación sigue en otro hilo: se
+     * cierra al terminar el re-despacho asíncrono, y el compresor vuelve al
+     * pool al completarse aunque ese re-despacho no ocurra
+     */
+    private static void pendienteDeCierre(HttpServletRequest peticion, RespuestaComprimible respuesta) {
+        peticion.setAttribute(RESPUESTA_PENDIENTE, respuesta);
+        try {
+            peticion.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent evento) {
+                    respuesta.liberar();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent evento) {
+                }
+
+                @Override
+                public void onError(AsyncEvent evento) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent evento) {
+                }
+            });
+        } catch (IllegalStateException e) {
+            // El contenedor ya no acepta listeners (despacho inicial terminado en otro hilo)
+        }
+    }
+
+    /**
+     * Re-despacho asíncrono: cierra la respuesta comprimida que quedó
+     * pendiente, después de que la aplicación escribió lo que faltaba
+     */
+    private static void terminarRedespacho(HttpServletRequest peticion, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        Object pendiente = peticion.getAttribute(RESPUESTA_PENDIENTE);
+        try {
+            chain.doFilter(peticion, response);
+        } finally {
+            if (pendiente instanceof RespuestaComprimible && !peticion.isAsyncStarted()) {
+                peticion.removeAttribute(RESPUESTA_PENDIENTE);
+                ((RespuestaComprimible) pendiente).terminar();
+            }
+        }
+    }
+
+    /**
+     * Codificaciones soportadas, con el sufijo de ETag de cada una
+     */
+    enum Codificacion {
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String nombre;
+        private final String sufijoEtag;
+
+        Codificacion(String nombre) {
+            this.nombre = nombre;
+            this.sufijoEtag = "--" + nombre;
+        }
+
+        /**
+         * Elige gzip o deflate según Accept-Encoding (gzip ante empates),
+         * o null si el cliente no acepta ninguna
+         */
+        static Codificacion negociar(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return null;
+            }
+            Codificacion elegida = null;
+            double mejorCalidad = 0;
+            for (String parte : acceptEncoding.split(",")) {
+                String[] tokens = parte.split(";");
+                String nombre = tokens[0].trim().toLowerCase(Locale.ROOT);
+                double calidad = calidad(tokens);
+                Codificacion codificacion = "gzip".equals(nombre) || "x-gzip".equals(nombre) || "*".equals(nombre)
+                        ? GZIP
+                        : "deflate".equals(nombre) ? DEFLATE : null;
+                if (codificacion != null && (calidad > mejorCalidad
+                        || (calidad == mejorCalidad && codificacion == GZIP))) {
+                    elegida = codificacion;
+                    mejorCalidad = calidad;
+                }
+            }
+            return elegida;
+        }
+
+        private static double calidad(String[] tokens) {
+            for (int i = 1; i < tokens.length; i++) {
+                String parametro = tokens[i].trim();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parametro.substring(2));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * Quita el sufijo de compresión de los ETag condicionales, para que el
+     * controlador compare contra sus propios ETag
+     */
+    private static final class PeticionSinSufijo extends HttpServletRequestWrapper {
+
+        private PeticionSinSufijo(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String nombre) {
+            String valor = super.getHeader(nombre);
+            return esCondicional(nombre) ? sinSufijo(valor) : valor;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String nombre) {
+            if (!esCondicional(nombre)) {
+                return super.getHeaders(nombre);
+            }
+            List<String> valores = Collections.list(super.getHeaders(nombre));
+            valores.replaceAll(PeticionSinSufijo::sinSufijo);
+            return Collections.enumeration(valores);
+        }
+
+        private static boolean esCondicional(String nombre) {
+            return "If-None-Match".equalsIgnoreCase(nombre) || "If-Match".equalsIgnoreCase(nombre);
+        }
+
+        private static String sinSufijo(String valor) {
+            if (valor == null || !valor.contains("--")) {
+                return valor;
+            }
+            for (Codificacion codificacion : Codificacion.values()) {
+                valor = valor.replace(codificacion.sufijoEtag + "\"", "\"");
+            }
+            return valor;
+        }
+    }
+
+    /**
+     * Respuesta que acumula hasta el umbral y luego decide si comprimir
+     */
+    private final class RespuestaComprimible extends HttpServletResponseWrapper {
+
+        private final Codificacion codificacion;
+        // El cliente revalida una representación comprimida: el 304 debe repetir su ETag
+        private final boolean validadorComprimido;
+        private final byte[] pendiente = new byte[umbralBytes];
+        private int usados;
+        private long largoDeclarado = -1;
+
+        // null mientras no se decidió; luego el stream real o el compresor
+        private Boolean comprimir;
+        private OutputStream destino;
+        // Salida comprimida encolada cuando la aplicación escribe sin bloquear
+        private ColaNoBloqueante cola;
+        private DeflaterPool.Compresor compresor;
+        private long largoOriginal;
+
+        private SalidaComprimible salida;
+        private PrintWriter writer;
+        private boolean terminando;
+        // Terminada o con el compresor ya devuelto: no admite más escrituras comprimidas
+        private boolean terminada;
+
+        private RespuestaComprimible(HttpServletResponse response, Codificacion codificacion, String ifNoneMatch) {
+            super(response);
+            this.codificacion = codificacion;
+            this.validadorComprimido = ifNoneMatch != null && ifNoneMatch.contains(codificacion.sufijoEtag);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() ya fue llamado");
+            }
+            if (salida == null) {
+                salida = new SalidaComprimible(this);
+            }
+            return salida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (salida != null) {
+                    throw new IllegalStateException("getOutputStream() ya fue llamado");
+                }
+                salida = new SalidaComprimible(this);
+                writer = new PrintWriter(new OutputStreamWriter(salida, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int largo) {
+            setContentLengthLong(largo);
+        }
+
+        @Override
+        public synchronized void setContentLengthLong(long largo) {
+            if (comprimir == null && largo >= umbralBytes) {
+                // Se envía al decidir: solo vale si al final no se comprime
+                largoDeclarado = largo;
+            } else if (comprimir == null || !comprimir) {
+                super.setContentLengthLong(largo);
+                if (comprimir == null) {
+                    // Cuerpo declarado menor que el umbral: no hace falta acumular
+                    decidir(false);
+                }
+            }
+        }
+
+        @Override
+        public void setHeader(String nombre, String valor) {
+            if ("Content-Length".equalsIgnoreCase(nombre)) {
+                setContentLengthLong(Long.parseLong(valor));
+            } else {
+                super.setHeader(nombre, valor);
+            }
+        }
+
+        @Override
+        public void addHeader(String nombre, String valor) {
+            if ("Content-Length".equalsIgnoreCase(nombre)) {
+                setContentLengthLong(Long.parseLong(valor));
+            } else {
+                super.addHeader(nombre, valor);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (salida != null) {
+                salida.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public synchronized void resetBuffer() {
+            super.resetBuffer();
+            usados = 0;
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            usados = 0;
+            largoDeclarado = -1;
+        }
+
+        private synchronized void escribir(byte[] datos, int desde, int largo) throws IOException {
+            if (terminada && comprimir != Boolean.FALSE) {
+                throw new IOException("La respuesta comprimida ya terminó");
+            }
+            if (comprimir == null) {
+                if (usados + largo <= pendiente.length) {
+                    System.arraycopy(datos, desde, pendiente, usados, largo);
+                    usados += largo;
+                    return;
+                }
+                decidir(true);
+            }
+            if (comprimir) {
+                comprimir(datos, desde, largo);
+            } else {
+                destino.write(datos, desde, largo);
+            }
+        }
+
+        /**
+         * Fija el modo de salida y vuelca lo acumulado
+         *
+         * @param superaUmbral true si el cuerpo ya no cabe en el buffer
+         */
+        private void decidir(boolean superaUmbral) {
+            comprimir = superaUmbral && compresible();
+            try {
+                destino = super.getOutputStream();
+                if (comprimir) {
+                    iniciarCompresion();
+                    comprimir(pendiente, 0, usados);
+                } else {
+                    if (largoDeclarado >= 0) {
+                        super.setContentLengthLong(largoDeclarado);
+                    }
+                    destino.write(pendiente, 0, usados);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            usados = 0;
+        }
+
+        private boolean compresible() {
+            if (getHeader("Content-Encoding") != null) {
+                return false;
+            }
+            int status = getStatus();
+            if (status == HttpServletResponse.SC_NO_CONTENT || status == HttpServletResponse.SC_PARTIAL_CONTENT) {
+                return false;
+            }
+            String tipo = getContentType();
+            if (tipo == null) {
+                return true;
+            }
+            tipo = tipo.toLowerCase(Locale.ROOT);
+            return !tipo.startsWith("text/event-stream")
+                    && !tipo.startsWith("image/")
+                    && !tipo.startsWith("video/")
+                    && !tipo.startsWith("audio/")
+                    && !tipo.contains("zip");
+        }
+
+        private void iniciarCompresion() throws IOException {
+            super.setHeader("Content-Encoding", codificacion.nombre);
+            String vary = getHeader("Vary");
+            if (vary == null) {
+                super.setHeader("Vary", "Accept-Encoding");
+            } else if (!vary.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+                super.setHeader("Vary", vary + ", Accept-Encoding");
+            }
+            etiquetarEtag();
+
+            compresor = codificacion == Codificacion.GZIP ? poolGzip.tomar() : poolDeflate.tomar();
+            if (codificacion == Codificacion.GZIP) {
+                destino.write(CABECERA_GZIP);
+            }
+        }
+
+        private void etiquetarEtag() {
+            String etag = getHeader("ETag");
+            if (etag != null && etag.startsWith("\"") && etag.endsWith("\"")) {
+                super.setHeader("ETag", etag.substring(0, etag.length() - 1) + codificacion.sufijoEtag + "\"");
+            }
+        }
+
+        private void comprimir(byte[] datos, int desde, int largo) throws IOException {
+            if (largo == 0) {
+                return;
+            }
+            if (codificacion == Codificacion.GZIP) {
+                compresor.crc.update(datos, desde, largo);
+            }
+            largoOriginal += largo;
+            Deflater deflater = compresor.deflater;
+            deflater.setInput(datos, desde, largo);
+            while (!deflater.needsInput()) {
+                volcar(Deflater.NO_FLUSH);
+            }
+        }
+
+        private void volcar(int modo) throws IOException {
+            int escritos = compresor.deflater.deflate(compresor.buffer, 0, compresor.buffer.length, modo);
+            if (escritos > 0) {
+                destino.write(compresor.buffer, 0, escritos);
+            }
+        }
+
+        private synchronized void vaciar() throws IOException {
+            if (terminando || terminada) {
+                // El flush del writer al terminar no debe decidir ni cortar el bloque
+                // deflate, y después de liberar el compresor ya no hay nada que entregar
+                return;
+            }
+            if (comprimir == null) {
+                // Un flush antes de llegar al umbral: el cuerpo es chico
+                decidir(false);
+            } else if (comprimir) {
+                // Entrega lo comprimido hasta ahora (respuestas en streaming)
+                int escritos;
+                do {
+                    escritos = compresor.deflater.deflate(
+                            compresor.buffer, 0, compresor.buffer.length, Deflater.SYNC_FLUSH);
+                    destino.write(compresor.buffer, 0, escritos);
+                } while (escritos == compresor.buffer.length);
+            }
+            destino.flush();
+        }
+
+        /**
+         * El despacho inicial terminó pero la aplicación sigue escribiendo en
+         * otro hilo. Si aún no se decidió, vuelca lo acumulado y el resto sale
+         * sin comprimir: el cuerpo no está completo, así que no se fija
+         * Content-Length.
+         *
+         * @return true si ya se comprime y el stream debe cerrarse después
+         */
+        private boolean continuarEnOtroHilo() throws IOException {
+            // Fuera del bloqueo: el writer tiene su propio lock y escribe a través de este objeto
+            if (writer != null) {
+                writer.flush();
+            }
+            synchronized (this) {
+                if (comprimir == null) {
+                    decidir(false);
+                }
+                return comprimir;
+            }
+        }
+
+        /**
+         * Termina la respuesta: vuelca lo acumulado o cierra el stream
+         * comprimido y devuelve el compresor al pool
+         */
+        private void terminar() throws IOException {
+            synchronized (this) {
+                terminando = true;
+                if (validadorComprimido && comprimir == null && getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+                    etiquetarEtag();
+                }
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            synchronized (this) {
+                if (terminada) {
+                    return;
+                }
+                terminada = true;
+                if (comprimir == null) {
+                    if (largoDeclarado < 0 && usados > 0) {
+                        super.setContentLength(usados);
+                    }
+                    decidir(false);
+                    return;
+                }
+                if (!comprimir) {
+                    return;
+                }
+
+                Deflater deflater = compresor.deflater;
+                deflater.finish();
+                while (!deflater.finished()) {
+                    volcar(Deflater.NO_FLUSH);
+                }
+                if (codificacion == Codificacion.GZIP) {
+                    escribirEnteroLE((int) compresor.crc.getValue());
+                    escribirEnteroLE((int) largoOriginal);
+                }
+                liberar();
+            }
+        }
+
+        /**
+         * Devuelve el compresor al pool; desde aquí no se aceptan más
+         * escrituras comprimidas
+         */
+        private synchronized void liberar() {
+            terminada = true;
+            if (compresor != null) {
+                (codificacion == Codificacion.GZIP ? poolGzip : poolDeflate).devolver(compresor);
+                compresor = null;
+            }
+        }
+
+        /**
+         * La aplicación pasa a escritura no bloqueante. Lo acumulado se
+         * vuelca todavía en modo bloqueante; si no se comprimía, el listener
+         * va directo al stream real y si no, la salida comprimida se encola.
+         */
+        private void registrarListener(WriteListener listener) {
+            if (writer != null) {
+                writer.flush();
+            }
+            synchronized (this) {
+                if (comprimir == null) {
+                    decidir(false);
+                }
+                ServletOutputStream real;
+                try {
+                    real = super.getOutputStream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (!comprimir) {
+                    real.setWriteListener(listener);
+                    return;
+                }
+                cola = new ColaNoBloqueante(real);
+                destino = cola;
+                real.setWriteListener(new WriteListener() {
+                    @Override
+                    public void onWritePossible() throws IOException {
+                        synchronized (RespuestaComprimible.this) {
+                            if (!cola.entregar()) {
+                                return;
+                            }
+                        }
+                        listener.onWritePossible();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        listener.onError(error);
+                    }
+                });
+            }
+        }
+
+        private synchronized boolean lista() throws IOException {
+            if (cola != null) {
+                return cola.entregar();
+            }
+            if (comprimir == Boolean.FALSE) {
+                return super.getOutputStream().isReady();
+            }
+            // Modo bloqueante: el buffer o el compresor siempre aceptan
+            return true;
+        }
+
+        /**
+         * Cierre del stream en modo no bloqueante: escribe el final del
+         * formato comprimido en la cola. En modo bloqueante el cierre lo
+         * hace terminar(), como siempre.
+         */
+        private void cerrar() throws IOException {
+            synchronized (this) {
+                if (cola == null) {
+                    return;
+                }
+            }
+            terminar();
+            synchronized (this) {
+                cola.entregar();
+            }
+        }
+
+        private void escribirEnteroLE(int valor) throws IOException {
+            destino.write(valor & 0xff);
+            destino.write((valor >>> 8) & 0xff);
+            destino.write((valor >>> 16) & 0xff);
+            destino.write((valor >>> 24) & 0xff);
+        }
+    }
+
+    /**
+     * Stream que entrega los bytes de la aplicación a RespuestaComprimible
+     */
+    private static final class SalidaComprimible extends ServletOutputStream {
+
+        private final RespuestaComprimible respuesta;
+
+        private SalidaComprimible(RespuestaComprimible respuesta) {
+            this.respuesta = respuesta;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            // Un arreglo por llamada: varios hilos pueden escribir a la vez
+            respuesta.escribir(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] datos, int desde, int largo) throws IOException {
+            respuesta.escribir(datos, desde, largo);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            respuesta.vaciar();
+        }
+
+        @Override
+        public void close() throws IOException {
+            respuesta.cerrar();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return respuesta.lista();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            respuesta.registrarListener(listener);
+        }
+    }
+
+    /**
+     * Salida comprimida en modo no bloqueante: encola lo que produce el
+     * Deflater y lo entrega al stream real solo cuando está listo, una
+     * escritura por cada isReady() verdadero
+     */
+    private static final class ColaNoBloqueante extends OutputStream {
+
+        private final ServletOutputStream real;
+        private byte[] datos = new byte[8192];
+        private int largo;
+
+        private ColaNoBloqueante(ServletOutputStream real) {
+            this.real = real;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] origen, int desde, int cantidad) throws IOException {
+            if (largo + cantidad > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, largo + cantidad));
+            }
+            System.arraycopy(origen, desde, datos, largo, cantidad);
+            largo += cantidad;
+            entregar();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            entregar();
+        }
+
+        /**
+         * @return true si no queda nada encolado y el stream real acepta más
+         */
+        private boolean entregar() throws IOException {
+            if (largo > 0 && real.isReady()) {
+                real.write(datos, 0, largo);
+                largo = 0;
+            }
+            return largo == 0 && real.isReady();
+        }
+    }
+}
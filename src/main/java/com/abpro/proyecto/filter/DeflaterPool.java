@@ -0,0 +1,60 @@
+package com.abpro.proyecto.filter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Pool acotado de compresores reutilizables
+ *
+ * Cada Deflater reserva memoria nativa (zlib) que solo se libera con end()
+ * o cuando el GC lo finaliza; crear uno por respuesta genera esa reserva
+ * y su liberación en cada petición. El pool los reinicia y los reutiliza;
+ * si se vacía crea uno nuevo y si está lleno libera el sobrante.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+final class DeflaterPool {
+
+    private static final int TAMANIO_BUFFER = 8192;
+
+    private final BlockingQueue<Compresor> libres;
+    private final int nivel;
+    private final boolean nowrap;
+
+    /**
+     * @param nowrap true para deflate sin envoltorio zlib (gzip escribe el suyo)
+     */
+    DeflaterPool(int capacidad, int nivel, boolean nowrap) {
+        this.libres = new ArrayBlockingQueue<>(capacidad);
+        this.nivel = nivel;
+        this.nowrap = nowrap;
+    }
+
+    Compresor tomar() {
+        Compresor compresor = libres.poll();
+        return compresor != null ? compresor : new Compresor(new Deflater(nivel, nowrap));
+    }
+
+    void devolver(Compresor compresor) {
+        compresor.deflater.reset();
+        compresor.crc.reset();
+        if (!libres.offer(compresor)) {
+            compresor.deflater.end();
+        }
+    }
+
+    /**
+     * Deflater con su buffer de salida y su CRC, reutilizados en conjunto
+     */
+    static final class Compresor {
+        final Deflater deflater;
+        final byte[] buffer = new byte[TAMANIO_BUFFER];
+        final CRC32 crc = new CRC32();
+
+        private Compresor(Deflater deflater) {
+            this.deflater = deflater;
+        }
+    }
+}
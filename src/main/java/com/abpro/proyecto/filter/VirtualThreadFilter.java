@@ -0,0 +1,111 @@
+package com.abpro.proyecto.filter;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * Filtro que atiende cada petición en un hilo virtual
+ *
+ * Pone la petición en modo asíncrono, libera el hilo del servidor y ejecuta
+ * el resto de la cadena (DispatcherServlet y el controlador) en el executor
+ * recibido. Así miles de peticiones bloqueadas en I/O no ocupan miles de
+ * hilos del sistema operativo.
+ *
+ * Si el controlador inicia su propio procesamiento asíncrono (por ejemplo
+ * StreamingResponseBody), reutiliza el AsyncContext ya iniciado y es Spring
+ * quien completa la respuesta; los re-despachos asíncronos no se desvían.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class VirtualThreadFilter implements Filter {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadFilter.class);
+
+    private final Executor executor;
+    private final long timeoutMillis;
+
+    public VirtualThreadFilter(Executor executor, long timeoutMillis) {
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !request.isAsyncSupported()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(timeoutMillis);
+        PeticionAsincrona peticion = new PeticionAsincrona((HttpServletRequest) request, async);
+        HttpServletResponse respuesta = (HttpServletResponse) response;
+
+        executor.execute(() -> {
+            try {
+                chain.doFilter(peticion, respuesta);
+            } catch (IOException | ServletException | RuntimeException e) {
+                log.error("Error al procesar {} {}", peticion.getMethod(), peticion.getRequestURI(), e);
+                if (!respuesta.isCommitted()) {
+                    respuesta.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            } finally {
+                if (!peticion.asyncTomado) {
+                    async.complete();
+                }
+            }
+        });
+    }
+
+    /**
+     * Envoltorio que entrega el AsyncContext ya iniciado si la aplicación
+     * pide startAsync, en lugar de fallar por iniciarlo dos veces
+     */
+    private static final class PeticionAsincrona extends HttpServletRequestWrapper {
+
+        private final AsyncContext async;
+        private volatile boolean asyncTomado;
+
+        private PeticionAsincrona(HttpServletRequest request, AsyncContext async) {
+            super(request);
+            this.async = async;
+        }
+
+        @Override
+        public AsyncContext startAsync() {
+            asyncTomado = true;
+            return async;
+        }
+
+        @Override
+        public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+            asyncTomado = true;
+            return async;
+        }
+
+        @Override
+        public boolean isAsyncStarted() {
+            return asyncTomado;
+        }
+
+        @Override
+        public AsyncContext getAsyncContext() {
+            return async;
+        }
+    }
+}
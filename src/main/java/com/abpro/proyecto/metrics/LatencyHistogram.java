@@ -0,0 +1,91 @@
+package com.abpro.proyecto.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias log-lineal, al estilo de HdrHistogram
+ *
+ * Los valores (en microsegundos) se agrupan en cubetas: exactas hasta 16 y
+ * luego 16 sub-cubetas por cada potencia de 2, lo que da un error relativo
+ * menor a 1/16 (~6%) en todo el rango. Registrar un valor es un incremento
+ * atómico sin bloqueos, apto para el camino de cada petición.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class LatencyHistogram {
+
+    private static final int BITS_SUBCUBETA = 4;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    // Hasta 2^40 µs (~12 días): suficiente para cualquier petición
+    private static final int EXPONENTE_MAXIMO = 40;
+    private static final int CUBETAS = (EXPONENTE_MAXIMO - BITS_SUBCUBETA + 2) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder sumaNanos = new LongAdder();
+
+    public void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        cubetas.incrementAndGet(indice(micros));
+        cantidad.increment();
+        sumaNanos.add(nanos);
+    }
+
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    public double getSumaSegundos() {
+        return sumaNanos.sum() / 1e9;
+    }
+
+    /**
+     * Valor aproximado (en segundos) bajo el cual cae la fracción q de las muestras
+     */
+    public double percentilSegundos(double q) {
+        long[] conteos = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos[i] = cubetas.get(i);
+            total += conteos[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(q * total);
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += conteos[i];
+            if (acumulado >= objetivo) {
+                return limiteSuperior(i) / 1e6;
+            }
+        }
+        return limiteSuperior(CUBETAS - 1) / 1e6;
+    }
+
+    static int indice(long micros) {
+        if (micros < SUBCUBETAS) {
+            return (int) micros;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponente > EXPONENTE_MAXIMO) {
+            return CUBETAS - 1;
+        }
+        int sub = (int) (micros >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + sub;
+    }
+
+    /**
+     * Mayor valor en microsegundos que cae en la cubeta
+     */
+    static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        int sub = indice % SUBCUBETAS;
+        long inicio = (1L << exponente) | ((long) sub << (exponente - BITS_SUBCUBETA));
+        return inicio + (1L << (exponente - BITS_SUBCUBETA)) - 1;
+    }
+}
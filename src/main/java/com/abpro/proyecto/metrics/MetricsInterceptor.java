@@ -0,0 +1,53 @@
+package com.abpro.proyecto.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Interceptor que mide cada petición atendida por un controlador
+ *
+ * Usa el patrón de la ruta (por ejemplo "/personas/{id}") como etiqueta
+ * para que las métricas no crezcan con cada ID distinto. En peticiones
+ * asíncronas (exportación NDJSON) mide desde el primer despacho hasta
+ * que se completa la respuesta.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class MetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO_INICIO = MetricsInterceptor.class.getName() + ".inicio";
+
+    private final MetricsRegistry registry;
+
+    public MetricsInterceptor(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // En el re-despacho asíncrono se conserva el inicio original
+        if (request.getAttribute(ATRIBUTO_INICIO) == null) {
+            request.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Object inicio = request.getAttribute(ATRIBUTO_INICIO);
+        if (inicio == null) {
+            return;
+        }
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        registry.registrarPeticion(
+                request.getMethod(),
+                patron != null ? patron.toString() : "desconocida",
+                response.getStatus(),
+                System.nanoTime() - (Long) inicio);
+    }
+}
@@ -0,0 +1,154 @@
+package com.abpro.proyecto.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas de la aplicación
+ *
+ * Acumula por ruta (método + patrón de la URL) la cantidad de peticiones
+ * por código de estado y un histograma de latencias, además de contadores
+ * con nombre que otros componentes pueden incrementar. Todo se registra
+ * sin bloqueos; solo la exportación recorre los mapas.
+ *
+ * Exporta en el formato de texto de Prometheus.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class MetricsRegistry {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final ConcurrentMap<Ruta, MetricasRuta> rutas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Contador> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Registra una petición atendida
+     */
+    public void registrarPeticion(String metodo, String ruta, int status, long nanos) {
+        MetricasRuta metricas = rutas.computeIfAbsent(new Ruta(metodo, ruta), clave -> new MetricasRuta());
+        metricas.latencia.registrar(nanos);
+        metricas.porStatus.computeIfAbsent(status, clave -> new LongAdder()).increment();
+    }
+
+    /**
+     * Devuelve (creándolo si no existe) un contador con nombre y etiquetas fijas
+     *
+     * @param etiquetas etiquetas en formato Prometheus, por ejemplo {@code tipo="lectura"}, o vacío
+     */
+    public LongAdder contador(String nombre, String ayuda, String etiquetas) {
+        String clave = etiquetas.isEmpty() ? nombre : nombre + "{" + etiquetas + "}";
+        return contadores.computeIfAbsent(clave, k -> new Contador(nombre, ayuda)).valor;
+    }
+
+    /**
+     * Escribe todas las métricas en formato de texto de Prometheus
+     */
+    public void escribirPrometheus(StringBuilder salida) {
+        Map<Ruta, MetricasRuta> ordenadas = new TreeMap<>(rutas);
+
+        encabezado(salida, "http_requests_total", "Peticiones HTTP atendidas", "counter");
+        ordenadas.forEach((ruta, metricas) -> new TreeMap<>(metricas.porStatus).forEach((status, total) ->
+                salida.append("http_requests_total{").append(ruta.etiquetas())
+                        .append(",status=\"").append(status).append("\"} ").append(total.sum()).append('\n')));
+
+        encabezado(salida, "http_request_errors_total", "Peticiones HTTP con estado 4xx o 5xx", "counter");
+        ordenadas.forEach((ruta, metricas) -> new TreeMap<>(metricas.porStatus).forEach((status, total) -> {
+            if (status >= 400) {
+                salida.append("http_request_errors_total{").append(ruta.etiquetas())
+                        .append(",status=\"").append(status).append("\"} ").append(total.sum()).append('\n');
+            }
+        }));
+
+        encabezado(salida, "http_request_duration_seconds", "Latencia de las peticiones HTTP", "summary");
+        ordenadas.forEach((ruta, metricas) -> {
+            for (double q : PERCENTILES) {
+                salida.append("http_request_duration_seconds{").append(ruta.etiquetas())
+                        .append(",quantile=\"").append(q).append("\"} ")
+                        .append(metricas.latencia.percentilSegundos(q)).append('\n');
+            }
+            salida.append("http_request_duration_seconds_sum{").append(ruta.etiquetas()).append("} ")
+                    .append(metricas.latencia.getSumaSegundos()).append('\n');
+            salida.append("http_request_duration_seconds_count{").append(ruta.etiquetas()).append("} ")
+                    .append(metricas.latencia.getCantidad()).append('\n');
+        });
+
+        String ultimoNombre = null;
+        for (Map.Entry<String, Contador> entrada : new TreeMap<>(contadores).entrySet()) {
+            Contador contador = entrada.getValue();
+            if (!contador.nombre.equals(ultimoNombre)) {
+                encabezado(salida, contador.nombre, contador.ayuda, "counter");
+                ultimoNombre = contador.nombre;
+            }
+            salida.append(entrada.getKey()).append(' ').append(contador.valor.sum()).append('\n');
+        }
+    }
+
+    private static void encabezado(StringBuilder salida, String nombre, String ayuda, String tipo) {
+        salida.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        salida.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+    }
+
+    static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class MetricasRuta {
+        private final LatencyHistogram latencia = new LatencyHistogram();
+        private final ConcurrentMap<Integer, LongAdder> porStatus = new ConcurrentHashMap<>();
+    }
+
+    private static final class Contador {
+        private final String nombre;
+        private final String ayuda;
+        private final LongAdder valor = new LongAdder();
+
+        private Contador(String nombre, String ayuda) {
+            this.nombre = nombre;
+            this.ayuda = ayuda;
+        }
+    }
+
+    private static final class Ruta implements Comparable<Ruta> {
+        private final String metodo;
+        private final String patron;
+
+        private Ruta(String metodo, String patron) {
+            this.metodo = metodo;
+            this.patron = patron;
+        }
+
+        private String etiquetas() {
+            return "method=\"" + escapar(metodo) + "\",route=\"" + escapar(patron) + "\"";
+        }
+
+        @Override
+        public int compareTo(Ruta otra) {
+            int porPatron = patron.compareTo(otra.patron);
+            return porPatron != 0 ? porPatron : metodo.compareTo(otra.metodo);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Ruta)) {
+                return false;
+            }
+            Ruta otra = (Ruta) o;
+            return metodo.equals(otra.metodo) && patron.equals(otra.patron);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * metodo.hashCode() + patron.hashCode();
+        }
+    }
+}
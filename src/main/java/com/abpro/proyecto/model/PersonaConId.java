@@ -0,0 +1,60 @@
+package com.abpro.proyecto.model;
+
+/**
+ * Persona almacenada: agrega el ID generado por el repositorio
+ *
+ * Las instancias se tratan como inmutables una vez publicadas en el
+ * repositorio; una actualización reemplaza la instancia completa en
+ * lugar de modificar sus campos, de modo que los lectores concurrentes
+ * nunca observan un registro a medio actualizar.
+ *
+ * Cada instancia lleva la versión del registro, que empieza en 1 al crearlo
+ * y aumenta con cada actualización. El controlador la usa para generar los
+ * ETag y resolver las actualizaciones condicionales (If-Match).
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class PersonaConId extends Persona {
+
+    private Long id;
+    private long version;
+
+    public PersonaConId() {
+    }
+
+    public PersonaConId(Long id, String nombre, Integer edad) {
+        this(id, nombre, edad, 1);
+    }
+
+    public PersonaConId(Long id, String nombre, Integer edad, long version) {
+        super(nombre, edad);
+        this.id = id;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "PersonaConId{" +
+                "id=" + id +
+                ", nombre='" + getNombre() + '\'' +
+                ", edad=" + getEdad() +
+                ", version=" + version +
+                '}';
+    }
+}
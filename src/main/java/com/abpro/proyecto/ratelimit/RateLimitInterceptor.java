@@ -0,0 +1,237 @@
+package com.abpro.proyecto.ratelimit;
+
+import com.abpro.proyecto.exception.ProblemDetails;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Interceptor que limita la tasa y la concurrencia de las peticiones
+ *
+ * Lecturas (GET, HEAD) y escrituras (el resto) tienen presupuestos
+ * separados, para que un lote de escrituras descontrolado no deje sin
+ * servicio a los lectores. Cada presupuesto tiene:
+ * - un token bucket por cliente (dirección remota): 429 si se agota
+ * - un token bucket global repartido en franjas: 429 si se agota
+ * - un máximo de peticiones en curso: 503 si se supera
+ *
+ * Los rechazos ocurren antes de llegar al controlador, llevan Retry-After
+ * y se cuentan en personas_ratelimit_rejections_total. Un límite en 0
+ * desactiva esa comprobación.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO_PRESUPUESTO = RateLimitInterceptor.class.getName() + ".presupuesto";
+
+    // Clientes con balde propio; al superarlo se descartan los que tienen el balde lleno
+    static final int MAXIMO_CLIENTES = 10_000;
+
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+    // Un balde vacío tarda un segundo en llenarse: depurar más seguido casi no libera lugar
+    private static final long INTERVALO_DEPURACION = NANOS_POR_SEGUNDO;
+
+    private final Presupuesto lectura;
+    private final Presupuesto escritura;
+
+    @Autowired
+    public RateLimitInterceptor(Environment env, MetricsRegistry metrics) {
+        this(limites(env, "lectura", 20_000, 2_000, 256),
+                limites(env, "escritura", 5_000, 500, 64),
+                metrics);
+    }
+
+    RateLimitInterceptor(Limites lectura, Limites escritura, MetricsRegistry metrics) {
+        this.lectura = new Presupuesto("lectura", lectura, metrics);
+        this.escritura = new Presupuesto("escritura", escritura, metrics);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // El re-despacho asíncrono ya fue admitido y sigue ocupando su lugar
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String metodo = request.getMethod();
+        Presupuesto presupuesto = "GET".equals(metodo) || "HEAD".equals(metodo) ? lectura : escritura;
+        long ahora = System.nanoTime();
+
+        long espera = presupuesto.tomarCliente(request.getRemoteAddr(), ahora);
+        if (espera > 0) {
+            presupuesto.rechazosCliente.increment();
+            return rechazar(response, HttpStatus.TOO_MANY_REQUESTS, espera);
+        }
+        espera = presupuesto.tomarGlobal(ahora);
+        if (espera > 0) {
+            presupuesto.rechazosGlobal.increment();
+            return rechazar(response, HttpStatus.TOO_MANY_REQUESTS, espera);
+        }
+        if (!presupuesto.entrar()) {
+            presupuesto.rechazosConcurrencia.increment();
+            return rechazar(response, HttpStatus.SERVICE_UNAVAILABLE, NANOS_POR_SEGUNDO);
+        }
+
+        request.setAttribute(ATRIBUTO_PRESUPUESTO, presupuesto);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Object presupuesto = request.getAttribute(ATRIBUTO_PRESUPUESTO);
+        if (presupuesto != null) {
+            request.removeAttribute(ATRIBUTO_PRESUPUESTO);
+            ((Presupuesto) presupuesto).salir();
+        }
+    }
+
+    private static boolean rechazar(HttpServletResponse response, HttpStatus status, long esperaNanos)
+            throws IOException {
+        byte[] cuerpo = ProblemDetails.porStatus(status);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, (esperaNanos + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO)));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+        return false;
+    }
+
+    private static Limites limites(Environment env, String tipo, double global, double cliente, int concurrencia) {
+        String prefijo = "personas.limite." + tipo + ".";
+        return new Limites(
+                env.getProperty(prefijo + "global-por-segundo", Double.class, global),
+                env.getProperty(prefijo + "cliente-por-segundo", Double.class, cliente),
+                env.getProperty(prefijo + "concurrencia", Integer.class, concurrencia));
+    }
+
+    /**
+     * Límites de un presupuesto; la ráfaga admitida equivale a un segundo de tasa
+     */
+    static final class Limites {
+        final double globalPorSegundo;
+        final double clientePorSegundo;
+        final int concurrencia;
+
+        Limites(double globalPorSegundo, double clientePorSegundo, int concurrencia) {
+            this.globalPorSegundo = globalPorSegundo;
+            this.clientePorSegundo = clientePorSegundo;
+            this.concurrencia = concurrencia;
+        }
+    }
+
+    /**
+     * Baldes, peticiones en curso y contadores de rechazo de un tipo de ruta
+     */
+    private static final class Presupuesto {
+        private final Limites limites;
+        private final StripedTokenBucket global;
+        private final ConcurrentMap<String, TokenBucket> porCliente = new ConcurrentHashMap<>();
+        // Momento a partir del cual se permite el próximo recorrido del mapa
+        private final AtomicLong proximaDepuracion;
+        // Compartido por los clientes nuevos mientras el mapa está lleno
+        private final TokenBucket desborde;
+        private final AtomicInteger enCurso = new AtomicInteger();
+
+        private final LongAdder rechazosCliente;
+        private final LongAdder rechazosGlobal;
+        private final LongAdder rechazosConcurrencia;
+
+        private Presupuesto(String tipo, Limites limites, MetricsRegistry metrics) {
+            long ahora = System.nanoTime();
+            this.limites = limites;
+            this.proximaDepuracion = new AtomicLong(ahora);
+            this.global = limites.globalPorSegundo > 0
+                    ? new StripedTokenBucket(limites.globalPorSegundo, rafaga(limites.globalPorSegundo), ahora)
+                    : null;
+            this.desborde = limites.clientePorSegundo > 0 ? nuevoBaldeCliente(ahora) : null;
+
+            String ayuda = "Peticiones rechazadas por límite de tasa o de concurrencia";
+            this.rechazosCliente = metrics.contador("personas_ratelimit_rejections_total", ayuda,
+                    "tipo=\"" + tipo + "\",motivo=\"cliente\"");
+            this.rechazosGlobal = metrics.contador("personas_ratelimit_rejections_total", ayuda,
+                    "tipo=\"" + tipo + "\",motivo=\"global\"");
+            this.rechazosConcurrencia = metrics.contador("personas_ratelimit_rejections_total", ayuda,
+                    "tipo=\"" + tipo + "\",motivo=\"concurrencia\"");
+        }
+
+        private long tomarCliente(String cliente, long ahora) {
+            if (desborde == null) {
+                return 0;
+            }
+            TokenBucket balde = porCliente.get(cliente);
+            if (balde == null) {
+                if (porCliente.size() >= MAXIMO_CLIENTES) {
+                    depurar(ahora);
+                }
+                balde = porCliente.size() < MAXIMO_CLIENTES
+                        ? porCliente.computeIfAbsent(cliente, k -> nuevoBaldeCliente(ahora))
+                        : desborde;
+            }
+            return balde.intentar(ahora);
+        }
+
+        private long tomarGlobal(long ahora) {
+            return global != null ? global.intentar(ahora) : 0;
+        }
+
+        private boolean entrar() {
+            if (limites.concurrencia <= 0) {
+                enCurso.incrementAndGet();
+                return true;
+            }
+            if (enCurso.incrementAndGet() > limites.concurrencia) {
+                enCurso.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private void salir() {
+            enCurso.decrementAndGet();
+        }
+
+        /**
+         * Quita los clientes inactivos: un balde lleno equivale a uno nuevo.
+         * Recorre el mapa como mucho una vez por intervalo; mientras tanto,
+         * con el mapa lleno de clientes activos, los nuevos van al balde de
+         * desborde sin costo proporcional a MAXIMO_CLIENTES.
+         */
+        private void depurar(long ahora) {
+            long proxima = proximaDepuracion.get();
+            if (ahora - proxima < 0
+                    || !proximaDepuracion.compareAndSet(proxima, ahora + INTERVALO_DEPURACION)) {
+                return;
+            }
+            porCliente.values().removeIf(balde -> balde.lleno(ahora));
+        }
+
+        private TokenBucket nuevoBaldeCliente(long ahora) {
+            return new TokenBucket(limites.clientePorSegundo, rafaga(limites.clientePorSegundo), ahora);
+        }
+
+        private static long rafaga(double porSegundo) {
+            return Math.max(1, (long) Math.ceil(porSegundo));
+        }
+    }
+}
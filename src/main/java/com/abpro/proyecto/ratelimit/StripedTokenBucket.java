@@ -0,0 +1,47 @@
+package com.abpro.proyecto.ratelimit;
+
+/**
+ * Token bucket repartido en franjas para el límite global
+ *
+ * Con todos los hilos compitiendo por un único contador, el
+ * compareAndSet del balde se vuelve el punto caliente. Cada franja tiene
+ * una parte de la tasa y de la capacidad; un hilo empieza por la suya
+ * (según su ID) y solo si está vacía prueba las demás, por lo que la
+ * tasa total se respeta y la contención se reparte.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+final class StripedTokenBucket {
+
+    private final TokenBucket[] franjas;
+    private final int mascara;
+
+    StripedTokenBucket(double porSegundo, long capacidad, long ahora) {
+        // Potencia de dos, sin dejar franjas con menos de una ficha por segundo
+        int cantidad = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        while (cantidad > 1 && (porSegundo / cantidad < 1 || capacidad / cantidad < 1)) {
+            cantidad >>= 1;
+        }
+        this.franjas = new TokenBucket[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            franjas[i] = new TokenBucket(porSegundo / cantidad, capacidad / cantidad, ahora);
+        }
+        this.mascara = cantidad - 1;
+    }
+
+    /**
+     * @return 0 si tomó una ficha, o la menor espera entre las franjas
+     */
+    long intentar(long ahora) {
+        int inicio = (int) Thread.currentThread().getId() & mascara;
+        long menorEspera = Long.MAX_VALUE;
+        for (int i = 0; i < franjas.length; i++) {
+            long espera = franjas[(inicio + i) & mascara].intentar(ahora);
+            if (espera == 0) {
+                return 0;
+            }
+            menorEspera = Math.min(menorEspera, espera);
+        }
+        return menorEspera;
+    }
+}
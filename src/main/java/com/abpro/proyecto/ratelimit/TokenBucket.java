@@ -0,0 +1,61 @@
+package com.abpro.proyecto.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin bloqueos
+ *
+ * Implementado como GCRA (algoritmo de tasa de celdas genérico): en lugar
+ * de contar fichas guarda el instante teórico en que el balde vuelve a
+ * estar lleno, en nanosegundos de System.nanoTime(). Tomar una ficha es
+ * un solo compareAndSet, sin hilo de recarga ni bloqueos.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+final class TokenBucket {
+
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+    // Nanosegundos que tarda en reponerse una ficha
+    private final long intervalo;
+    // Adelanto máximo sobre el reloj: capacidad del balde en tiempo
+    private final long tolerancia;
+    private final AtomicLong llenoEn;
+
+    /**
+     * @param porSegundo fichas que se reponen por segundo
+     * @param capacidad  fichas disponibles en una ráfaga
+     */
+    TokenBucket(double porSegundo, long capacidad, long ahora) {
+        this.intervalo = Math.max(1, (long) (NANOS_POR_SEGUNDO / porSegundo));
+        this.tolerancia = intervalo * Math.max(1, capacidad);
+        this.llenoEn = new AtomicLong(ahora);
+    }
+
+    /**
+     * Intenta tomar una ficha
+     *
+     * @return 0 si la tomó, o los nanosegundos hasta que haya una disponible
+     */
+    long intentar(long ahora) {
+        while (true) {
+            long actual = llenoEn.get();
+            long base = actual - ahora > 0 ? actual : ahora;
+            long nuevo = base + intervalo;
+            long espera = nuevo - ahora - tolerancia;
+            if (espera > 0) {
+                return espera;
+            }
+            if (llenoEn.compareAndSet(actual, nuevo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * true si el balde se recargó por completo (nadie lo usó recientemente)
+     */
+    boolean lleno(long ahora) {
+        return llenoEn.get() - ahora <= 0;
+    }
+}
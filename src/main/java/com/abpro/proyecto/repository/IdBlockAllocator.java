@@ -0,0 +1,185 @@
+package com.abpro.proyecto.repository;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asignador de IDs por bloques
+ *
+ * Con un único AtomicLong, cada alta hace un incrementAndGet sobre la
+ * misma línea de caché y con muchos núcleos el CAS se vuelve el cuello de
+ * botella. Aquí el contador global entrega bloques de IDs consecutivos a
+ * franjas (una por núcleo, elegida por el ID del hilo) y cada franja los
+ * reparte de a uno; el contador compartido se toca una vez por bloque.
+ * El contador avanza siempre de a bloques enteros, también en los lotes,
+ * así que cada bloque de una franja empieza en un múltiplo del tamaño.
+ *
+ * Se usan franjas y no ThreadLocal porque con hilos virtuales cada
+ * petición es un hilo nuevo y desperdiciaría un bloque entero.
+ *
+ * Los IDs son únicos y crecientes dentro de cada franja, pero no entre
+ * franjas: un ID menor puede entregarse después que uno mayor de otra
+ * franja. Para paginar sin saltear altas, cada franja registra los IDs
+ * entregados que aún no se publicaron, y visibleHasta() da el límite bajo
+ * el cual ya no puede aparecer ningún ID nuevo.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+final class IdBlockAllocator {
+
+    // Thread.threadId() en Java 19+; getId() quedó obsoleto allí
+    private static final MethodHandle ID_HILO = buscarIdHilo();
+
+    private final AtomicLong contador = new AtomicLong();
+    private final Franja[] franjas;
+    private final int mascara;
+    private final int tamanioBloque;
+    // Rangos reservados por lotes aún sin publicar: primer ID -> último ID
+    private final ConcurrentSkipListMap<Long, Long> lotes = new ConcurrentSkipListMap<>();
+    // Hace atómicos el avance del contador por un lote y el registro de su rango
+    private final Object reservas = new Object();
+
+    /**
+     * @param franjas cantidad de franjas; se redondea a potencia de dos
+     */
+    IdBlockAllocator(int franjas, int tamanioBloque) {
+        if (tamanioBloque < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + tamanioBloque);
+        }
+        int cantidad = franjas <= 1 ? 1 : Integer.highestOneBit(franjas - 1) << 1;
+        this.franjas = new Franja[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.franjas[i] = new Franja();
+        }
+        this.mascara = cantidad - 1;
+        this.tamanioBloque = tamanioBloque;
+    }
+
+    /**
+     * Entrega un ID nuevo del bloque de la franja del hilo actual. Queda
+     * pendiente hasta que el mismo hilo llame a publicado(id).
+     */
+    long siguiente() {
+        Franja franja = franjaActual();
+        synchronized (franja) {
+            if (franja.siguiente > franja.fin) {
+                franja.fin = contador.addAndGet(tamanioBloque);
+                franja.siguiente = franja.fin - tamanioBloque + 1;
+            }
+            long id = franja.siguiente++;
+            franja.enCurso.add(id);
+            return id;
+        }
+    }
+
+    /**
+     * El ID entregado por siguiente() ya está almacenado y visible (o su
+     * alta falló). Debe llamarse desde el hilo que lo pidió.
+     */
+    void publicado(long id) {
+        Franja franja = franjaActual();
+        synchronized (franja) {
+            franja.enCurso.remove(id);
+        }
+    }
+
+    /**
+     * Reserva cantidad IDs consecutivos directamente del contador global.
+     * Se toman bloques enteros para no desalinear los bloques de las
+     * franjas; el resto del último bloque queda sin usar. El rango queda
+     * pendiente hasta llamar a publicadoLote(primerId).
+     *
+     * @return el primero del rango
+     */
+    long reservar(int cantidad) {
+        long bloques = Math.max(1, (cantidad + (long) tamanioBloque - 1) / tamanioBloque);
+        synchronized (reservas) {
+            long primerId = contador.getAndAdd(bloques * tamanioBloque) + 1;
+            lotes.put(primerId, primerId + cantidad - 1);
+            return primerId;
+        }
+    }
+
+    void publicadoLote(long primerId) {
+        lotes.remove(primerId);
+    }
+
+    /**
+     * Mayor ID hasta el cual no puede aparecer ninguna alta nueva: los IDs
+     * menores o iguales ya están publicados o no se entregarán nunca.
+     *
+     * El resto sin entregar de los bloques en curso se descarta (la franja
+     * pide otro bloque en su próxima alta); si no, una franja inactiva
+     * detendría el límite indefinidamente.
+     */
+    long visibleHasta() {
+        long limite;
+        synchronized (reservas) {
+            // Los bloques que se pidan después de esta lectura quedan por encima
+            limite = contador.get();
+            Map.Entry<Long, Long> menor = lotes.firstEntry();
+            if (menor != null) {
+                limite = Math.min(limite, menor.getKey() - 1);
+            }
+        }
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                franja.siguiente = franja.fin + 1;
+                if (!franja.enCurso.isEmpty()) {
+                    limite = Math.min(limite, franja.enCurso.first() - 1);
+                }
+            }
+        }
+        return limite;
+    }
+
+    int franjas() {
+        return franjas.length;
+    }
+
+    private Franja franjaActual() {
+        return franjas[(int) idHilo() & mascara];
+    }
+
+    private static long idHilo() {
+        try {
+            return (long) ID_HILO.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            throw new IllegalStateException("No se pudo obtener el ID del hilo", e);
+        }
+    }
+
+    private static MethodHandle buscarIdHilo() {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodType tipo = MethodType.methodType(long.class);
+        try {
+            return lookup.findVirtual(Thread.class, "threadId", tipo);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            try {
+                return lookup.findVirtual(Thread.class, "getId", tipo);
+            } catch (NoSuchMethodException | IllegalAccessException ex) {
+                throw new IllegalStateException("Thread no expone su ID", ex);
+            }
+        }
+    }
+
+    /**
+     * Rango [siguiente, fin] pendiente de entregar e IDs entregados sin
+     * publicar. El relleno separa las franjas en líneas de caché distintas:
+     * se crean juntas y sin él quedarían contiguas en memoria, compartiendo
+     * línea entre núcleos.
+     */
+    @SuppressWarnings("unused")
+    private static final class Franja {
+        private long p1, p2, p3, p4, p5, p6, p7;
+        private long siguiente = 1;
+        private long fin;
+        private final TreeSet<Long> enCurso = new TreeSet<>();
+        private long q1, q2, q3, q4, q5, q6, q7;
+    }
+}
@@ -0,0 +1,321 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Repositorio en memoria indexado por ID
+ *
+ * Usa un ConcurrentHashMap para que búsquedas, actualizaciones y
+ * eliminaciones sean O(1) y seguras con muchos hilos de Jetty a la vez.
+ * Las actualizaciones reemplazan la instancia almacenada de forma atómica.
+ *
+ * La paginación por cursor usa además un índice ordenado con los IDs
+ * almacenados, así que una página no recorre los IDs eliminados. Un alta
+ * reserva su ID antes de guardarlo; mientras haya reservas sin completar,
+ * las páginas solo llegan hasta el ID anterior a la menor de ellas, para
+ * que un cursor nunca quede más allá de un registro que todavía no se ve.
+ *
+ * Mantiene índices secundarios por edad y por nombre. Los cambios de índice
+ * de un registro existente se hacen dentro del compute del mapa, bajo el
+ * mismo bloqueo por clave, y las consultas verifican cada resultado contra
+ * el registro vigente.
+ *
+ * Cada escritura completada incrementa la versión global, y cada
+ * actualización reemplaza el registro por uno con la versión siguiente.
+ *
+ * Otros componentes (por ejemplo el log de persistencia) pueden observar
+ * los cambios registrando un PersonaChangeListener.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class InMemoryPersonaRepository implements PersonaRepository {
+
+    private static final Comparator<PersonaConId> POR_ID =
+            Comparator.comparingLong(PersonaConId::getId);
+
+    private static final long SIN_VERSION = Long.MIN_VALUE;
+
+    private final ConcurrentMap<Long, PersonaConId> personas = new ConcurrentHashMap<>();
+    private final AtomicLong contador = new AtomicLong();
+    // IDs almacenados, en orden, para findAfter
+    private final ConcurrentSkipListSet<Long> orden = new ConcurrentSkipListSet<>();
+    // Rangos de IDs reservados por altas en curso: primer ID -> último ID
+    private final ConcurrentSkipListMap<Long, Long> pendientes = new ConcurrentSkipListMap<>();
+    // Hace atómicos el avance del contador y el registro de su reserva
+    private final Object reservas = new Object();
+    private final AtomicLong versionGlobal = new AtomicLong();
+    private final IndiceEdad indiceEdad = new IndiceEdad();
+    private final IndiceNombre indiceNombre = new IndiceNombre();
+    private final List<PersonaChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addChangeListener(PersonaChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public List<PersonaConId> findAll() {
+        List<PersonaConId> resultado = new ArrayList<>(personas.values());
+        resultado.sort(POR_ID);
+        return resultado;
+    }
+
+    /**
+     * Recorre el índice ordenado a partir de afterId: el costo es
+     * proporcional al tamaño de la página, no a los IDs eliminados ni al
+     * total almacenado. No pasa de la menor reserva en curso.
+     */
+    @Override
+    public List<PersonaConId> findAfter(long afterId, int limit) {
+        long visibleHasta;
+        synchronized (reservas) {
+            Map.Entry<Long, Long> menor = pendientes.firstEntry();
+            visibleHasta = menor != null ? menor.getKey() - 1 : contador.get();
+        }
+        List<PersonaConId> pagina = new ArrayList<>(Math.min(limit, personas.size()));
+        for (Long id : orden.tailSet(afterId, false)) {
+            if (id > visibleHasta || pagina.size() >= limit) {
+                break;
+            }
+            // Puede haberse eliminado después de leer el índice
+            PersonaConId persona = personas.get(id);
+            if (persona != null) {
+                pagina.add(persona);
+            }
+        }
+        return pagina;
+    }
+
+    @Override
+    public List<PersonaConId> findByEdadBetween(int edadMin, int edadMax, int limit) {
+        List<PersonaConId> resultado = new ArrayList<>(Math.min(limit, personas.size()));
+        indiceEdad.recorrer(edadMin, edadMax, id -> {
+            PersonaConId persona = personas.get(id);
+            if (persona != null && persona.getEdad() >= edadMin && persona.getEdad() <= edadMax) {
+                resultado.add(persona);
+            }
+            return resultado.size() < limit;
+        });
+        return resultado;
+    }
+
+    @Override
+    public List<PersonaConId> findByNombreStartingWith(String prefijo, int limit) {
+        String normalizado = IndiceNombre.normalizar(prefijo);
+        List<PersonaConId> resultado = new ArrayList<>(Math.min(limit, personas.size()));
+        indiceNombre.recorrer(prefijo, id -> {
+            PersonaConId persona = personas.get(id);
+            if (persona != null && IndiceNombre.normalizar(persona.getNombre()).startsWith(normalizado)) {
+                resultado.add(persona);
+            }
+            return resultado.size() < limit;
+        });
+        return resultado;
+    }
+
+    @Override
+    public Optional<PersonaConId> findById(long id) {
+        return Optional.ofNullable(personas.get(id));
+    }
+
+    @Override
+    public PersonaConId save(Persona persona) {
+        long nuevoId = reservar(1);
+        try {
+            PersonaConId nuevaPersona = new PersonaConId(nuevoId, persona.getNombre(), persona.getEdad());
+            notificarCreada(nuevaPersona);
+            almacenar(nuevaPersona);
+            versionGlobal.incrementAndGet();
+            return nuevaPersona;
+        } finally {
+            pendientes.remove(nuevoId);
+        }
+    }
+
+    @Override
+    public List<PersonaConId> saveAll(List<? extends Persona> nuevas) {
+        // Reserva el rango [primerId, primerId + n) para este lote
+        long primerId = reservar(nuevas.size());
+        try {
+            List<PersonaConId> guardadas = new ArrayList<>(nuevas.size());
+            for (int i = 0; i < nuevas.size(); i++) {
+                Persona persona = nuevas.get(i);
+                PersonaConId nuevaPersona = new PersonaConId(primerId + i, persona.getNombre(), persona.getEdad());
+                notificarCreada(nuevaPersona);
+                almacenar(nuevaPersona);
+                guardadas.add(nuevaPersona);
+            }
+            versionGlobal.incrementAndGet();
+            return guardadas;
+        } finally {
+            pendientes.remove(primerId);
+        }
+    }
+
+    /**
+     * Avanza el contador y registra el rango como reserva en curso; quien
+     * reserva debe quitarlo de pendientes al terminar, aunque falle
+     *
+     * @return el primer ID del rango
+     */
+    private long reservar(int cantidad) {
+        synchronized (reservas) {
+            long primerId = contador.getAndAdd(cantidad) + 1;
+            pendientes.put(primerId, primerId + cantidad - 1);
+            return primerId;
+        }
+    }
+
+    /**
+     * Publica un alta: primero en el mapa y después en el índice ordenado
+     */
+    private void almacenar(PersonaConId persona) {
+        indexar(persona);
+        personas.put(persona.getId(), persona);
+        orden.add(persona.getId());
+    }
+
+    @Override
+    public Optional<PersonaConId> update(long id, Persona persona) {
+        return actualizar(id, persona, SIN_VERSION);
+    }
+
+    @Override
+    public Optional<PersonaConId> update(long id, Persona persona, long versionEsperada) {
+        return actualizar(id, persona, versionEsperada);
+    }
+
+    /**
+     * La comparación de versión ocurre dentro del compute, bajo el bloqueo
+     * de la clave, por lo que ninguna otra escritura puede intercalarse
+     *
+     * @param versionEsperada versión requerida, o SIN_VERSION para no comprobarla
+     */
+    private Optional<PersonaConId> actualizar(long id, Persona persona, long versionEsperada) {
+        Optional<PersonaConId> resultado = Optional.ofNullable(personas.computeIfPresent(id, (key, actual) -> {
+            if (versionEsperada != SIN_VERSION && actual.getVersion() != versionEsperada) {
+                throw new VersionConflictException(key, actual.getVersion());
+            }
+            PersonaConId actualizada = new PersonaConId(
+                    key, persona.getNombre(), persona.getEdad(), actual.getVersion() + 1);
+            for (PersonaChangeListener listener : listeners) {
+                listener.personaActualizada(actualizada);
+            }
+            desindexar(actual);
+            indexar(actualizada);
+            return actualizada;
+        }));
+        if (resultado.isPresent()) {
+            versionGlobal.incrementAndGet();
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean deleteById(long id) {
+        boolean[] eliminada = new boolean[1];
+        personas.computeIfPresent(id, (key, actual) -> {
+            for (PersonaChangeListener listener : listeners) {
+                listener.personaEliminada(actual);
+            }
+            desindexar(actual);
+            orden.remove(key);
+            eliminada[0] = true;
+            return null;
+        });
+        if (eliminada[0]) {
+            versionGlobal.incrementAndGet();
+        }
+        return eliminada[0];
+    }
+
+    @Override
+    public long count() {
+        return personas.size();
+    }
+
+    @Override
+    public long version() {
+        return versionGlobal.get();
+    }
+
+    /**
+     * Restaura una persona tal como quedó persistida, sin notificar a los
+     * listeners ni consumir IDs del contador (usado al recuperar el estado)
+     *
+     * El log no guarda versiones: cada restauración de un ID existente
+     * cuenta como una actualización más.
+     */
+    void restaurar(PersonaConId persona) {
+        personas.compute(persona.getId(), (key, actual) -> {
+            if (actual == null) {
+                indexar(persona);
+                orden.add(key);
+                return persona;
+            }
+            desindexar(actual);
+            PersonaConId restaurada = new PersonaConId(
+                    key, persona.getNombre(), persona.getEdad(), actual.getVersion() + 1);
+            indexar(restaurada);
+            return restaurada;
+        });
+    }
+
+    /**
+     * Elimina una persona durante la recuperación, sin notificar a los listeners
+     */
+    void restaurarEliminacion(long id) {
+        personas.computeIfPresent(id, (key, actual) -> {
+            desindexar(actual);
+            orden.remove(key);
+            return null;
+        });
+    }
+
+    /**
+     * Garantiza que el contador no vuelva a entregar IDs ya usados
+     */
+    void ajustarContador(long ultimoIdUsado) {
+        contador.accumulateAndGet(ultimoIdUsado, Math::max);
+    }
+
+    long ultimoId() {
+        return contador.get();
+    }
+
+    /**
+     * Recorre las personas almacenadas sin copiar la colección
+     * (vista débilmente consistente con las escrituras concurrentes)
+     */
+    void recorrer(Consumer<PersonaConId> consumidor) {
+        personas.values().forEach(consumidor);
+    }
+
+    private void notificarCreada(PersonaConId persona) {
+        for (PersonaChangeListener listener : listeners) {
+            listener.personaCreada(persona);
+        }
+    }
+
+    private void indexar(PersonaConId persona) {
+        indiceEdad.agregar(persona.getId(), persona.getEdad());
+        indiceNombre.agregar(persona.getId(), persona.getNombre());
+    }
+
+    private void desindexar(PersonaConId persona) {
+        indiceEdad.quitar(persona.getId(), persona.getEdad());
+        indiceNombre.quitar(persona.getId(), persona.getNombre());
+    }
+}
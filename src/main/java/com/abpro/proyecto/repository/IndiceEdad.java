@@ -0,0 +1,61 @@
+package com.abpro.proyecto.repository;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice secundario por edad
+ *
+ * La edad está acotada entre 0 y 150 por las validaciones de Persona,
+ * así que el índice es un arreglo de 151 cubetas (una por edad), cada una
+ * con el conjunto concurrente de IDs que tienen esa edad.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+class IndiceEdad {
+
+    static final int EDAD_MINIMA = 0;
+    static final int EDAD_MAXIMA = 150;
+
+    private final Set<Long>[] cubetas;
+
+    @SuppressWarnings("unchecked")
+    IndiceEdad() {
+        cubetas = (Set<Long>[]) new Set<?>[EDAD_MAXIMA + 1];
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    void agregar(long id, int edad) {
+        cubetas[validar(edad)].add(id);
+    }
+
+    void quitar(long id, int edad) {
+        cubetas[validar(edad)].remove(id);
+    }
+
+    /**
+     * Entrega al consumidor los IDs con edad entre min y max (inclusive),
+     * en orden de edad, hasta que el consumidor devuelva false
+     */
+    void recorrer(int min, int max, LongPredicate consumidor) {
+        int desde = Math.max(min, EDAD_MINIMA);
+        int hasta = Math.min(max, EDAD_MAXIMA);
+        for (int edad = desde; edad <= hasta; edad++) {
+            for (Long id : cubetas[edad]) {
+                if (!consumidor.test(id)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static int validar(int edad) {
+        if (edad < EDAD_MINIMA || edad > EDAD_MAXIMA) {
+            throw new IllegalArgumentException("Edad fuera de rango: " + edad);
+        }
+        return edad;
+    }
+}
@@ -0,0 +1,62 @@
+package com.abpro.proyecto.repository;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice secundario por nombre para búsquedas por prefijo
+ *
+ * Conjunto ordenado (skip list) de pares (nombre normalizado, ID). Una
+ * búsqueda por prefijo es un rango del conjunto, sin recorrer todos los
+ * nombres. Cada par se agrega y quita de forma atómica, sin estructuras
+ * intermedias por nombre. La comparación no distingue mayúsculas.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+class IndiceNombre {
+
+    private static final Comparator<Entrada> ORDEN = Comparator
+            .comparing((Entrada entrada) -> entrada.nombre)
+            .thenComparingLong(entrada -> entrada.id);
+
+    private final ConcurrentSkipListSet<Entrada> entradas = new ConcurrentSkipListSet<>(ORDEN);
+
+    void agregar(long id, String nombre) {
+        entradas.add(new Entrada(normalizar(nombre), id));
+    }
+
+    void quitar(long id, String nombre) {
+        entradas.remove(new Entrada(normalizar(nombre), id));
+    }
+
+    /**
+     * Entrega al consumidor los IDs cuyo nombre empieza con el prefijo,
+     * en orden alfabético, hasta que el consumidor devuelva false
+     */
+    void recorrer(String prefijo, LongPredicate consumidor) {
+        String desde = normalizar(prefijo);
+        Entrada inicio = new Entrada(desde, Long.MIN_VALUE);
+        Entrada fin = new Entrada(desde + '\uffff', Long.MIN_VALUE);
+        for (Entrada entrada : entradas.subSet(inicio, true, fin, false)) {
+            if (!consumidor.test(entrada.id)) {
+                return;
+            }
+        }
+    }
+
+    static String normalizar(String nombre) {
+        return nombre.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entrada {
+        private final String nombre;
+        private final long id;
+
+        private Entrada(String nombre, long id) {
+            this.nombre = nombre;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Repositorio fuera del heap sobre un archivo mapeado en memoria
+ *
+ * Cada persona ocupa un slot de tamaño fijo en el archivo, por lo que el
+ * dataset no genera objetos en el heap ni presión sobre el GC y se conserva
+ * entre reinicios. Las validaciones de Persona acotan el tamaño del slot:
+ * edad 0-150 cabe en un byte y un nombre de hasta 50 caracteres ocupa
+ * como máximo 150 bytes en UTF-8.
+ *
+ * Layout del slot (168 bytes): [id long][estado byte][edad byte]
+ * [largo nombre short][nombre UTF-8, 150 bytes][relleno 2 bytes]
+ * [versión del registro int].
+ *
+ * En el heap solo queda el índice id -> slot, un int por ID entregado
+ * (los IDs son densos porque los genera el contador), y un BitSet con los
+ * IDs vigentes, que se reconstruye al abrir el archivo: la paginación
+ * salta con nextSetBit sobre los eliminados en lugar de recorrerlos uno a
+ * uno. Las escrituras se
+ * serializan con un StampedLock; las lecturas por ID son optimistas y no
+ * bloquean. No hay índices secundarios: las búsquedas por edad y nombre
+ * recorren los slots, con memoria acotada por el límite pedido.
+ *
+ * Los cambios quedan en la caché de páginas del sistema operativo y se
+ * fuerzan a disco al cerrar el repositorio.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class MappedPersonaRepository implements PersonaRepository, Closeable {
+
+    static final int TAMANIO_SLOT = 168;
+    static final int MAX_BYTES_NOMBRE = 150;
+
+    private static final int OFFSET_ID = 0;
+    private static final int OFFSET_ESTADO = 8;
+    private static final int OFFSET_EDAD = 9;
+    private static final int OFFSET_LARGO = 10;
+    private static final int OFFSET_NOMBRE = 12;
+    private static final int OFFSET_VERSION = 164;
+    private static final byte LIBRE = 0;
+    private static final byte OCUPADO = 1;
+
+    // Cabecera: [magia int][versión int][contador long][slots usados int][versión global long]
+    private static final int TAMANIO_CABECERA = 64;
+    private static final int MAGIA = 0x50534C54;
+    private static final int VERSION = 1;
+    private static final int OFFSET_CONTADOR = 8;
+    private static final int OFFSET_SLOTS_USADOS = 16;
+    private static final int OFFSET_VERSION_GLOBAL = 24;
+
+    private final FileChannel canal;
+    private final int slotsPorRegion;
+    private final MappedByteBuffer cabecera;
+    private final StampedLock lock = new StampedLock();
+
+    // Escritos solo con el write lock; volatile para las lecturas optimistas
+    private volatile MappedByteBuffer[] regiones = new MappedByteBuffer[0];
+    private volatile int[] indice = new int[1024];
+    // IDs vigentes, para findAfter; se lee con el read lock
+    private final BitSet vivos = new BitSet();
+    private volatile long cantidad;
+    private volatile long versionGlobal;
+    private long contador;
+    private int slotsUsados;
+    private int[] libres = new int[64];
+    private int cantidadLibres;
+
+    public MappedPersonaRepository(Path archivo, int slotsPorRegion) throws IOException {
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        this.slotsPorRegion = slotsPorRegion;
+        this.canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean nuevo = canal.size() == 0;
+        this.cabecera = canal.map(FileChannel.MapMode.READ_WRITE, 0, TAMANIO_CABECERA);
+
+        if (nuevo) {
+            cabecera.putInt(0, MAGIA);
+            cabecera.putInt(4, VERSION);
+        } else if (cabecera.getInt(0) != MAGIA || cabecera.getInt(4) != VERSION) {
+            canal.close();
+            throw new IOException("Formato de archivo no reconocido: " + archivo);
+        } else {
+            recuperar();
+        }
+    }
+
+    @Override
+    public List<PersonaConId> findAll() {
+        long stamp = lock.readLock();
+        try {
+            List<PersonaConId> resultado = new ArrayList<>((int) cantidad);
+            for (int slot = 0; slot < slotsUsados; slot++) {
+                if (estado(slot) == OCUPADO) {
+                    resultado.add(leerSlot(slot));
+                }
+            }
+            resultado.sort(Comparator.comparingLong(PersonaConId::getId));
+            return resultado;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Salta de un ID vigente al siguiente con el BitSet: el costo es
+     * proporcional al tamaño de la página, no a los IDs eliminados
+     */
+    @Override
+    public List<PersonaConId> findAfter(long afterId, int limit) {
+        long stamp = lock.readLock();
+        try {
+            List<PersonaConId> pagina = new ArrayList<>(Math.min(limit, (int) cantidad));
+            if (afterId >= Integer.MAX_VALUE - 1) {
+                return pagina;
+            }
+            int[] actual = indice;
+            for (int id = vivos.nextSetBit((int) Math.max(afterId + 1, 1));
+                 id >= 0 && pagina.size() < limit;
+                 id = vivos.nextSetBit(id + 1)) {
+                pagina.add(leerSlot(actual[id] - 1));
+            }
+            return pagina;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Recorre los slots dos veces: la primera cuenta coincidencias por edad
+     * para saber hasta qué edad hace falta llegar, la segunda recoge solo
+     * esas, de modo que la memoria usada queda acotada por el límite
+     */
+    @Override
+    public List<PersonaConId> findByEdadBetween(int edadMin, int edadMax, int limit) {
+        long stamp = lock.readLock();
+        try {
+            int[] porEdad = new int[IndiceEdad.EDAD_MAXIMA + 1];
+            for (int slot = 0; slot < slotsUsados; slot++) {
+                if (estado(slot) == OCUPADO) {
+                    int edad = edad(slot);
+                    if (edad >= edadMin && edad <= edadMax) {
+                        porEdad[edad]++;
+                    }
+                }
+            }
+
+            int corte = IndiceEdad.EDAD_MAXIMA;
+            int acumulado = 0;
+            for (int edad = 0; edad <= IndiceEdad.EDAD_MAXIMA; edad++) {
+                acumulado += porEdad[edad];
+                if (acumulado >= limit) {
+                    corte = edad;
+                    break;
+                }
+            }
+
+            List<PersonaConId> resultado = new ArrayList<>(Math.min(limit, acumulado));
+            int restantesEnCorte = limit - (acumulado - porEdad[corte]);
+            for (int slot = 0; slot < slotsUsados; slot++) {
+                if (estado(slot) != OCUPADO) {
+                    continue;
+                }
+                int edad = edad(slot);
+                if (edad < edadMin || edad > edadMax || edad > corte) {
+                    continue;
+                }
+                if (edad == corte) {
+                    if (restantesEnCorte == 0) {
+                        continue;
+                    }
+                    restantesEnCorte--;
+                }
+                resultado.add(leerSlot(slot));
+            }
+            resultado.sort(Comparator.comparingInt(Persona::getEdad));
+            return resultado;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Recorre los slots conservando solo los limit nombres menores
+     * (montículo acotado), sin guardar todas las coincidencias
+     */
+    @Override
+    public List<PersonaConId> findByNombreStartingWith(String prefijo, int limit) {
+        String normalizado = IndiceNombre.normalizar(prefijo);
+        Comparator<PersonaConId> porNombre = Comparator
+                .comparing((PersonaConId persona) -> IndiceNombre.normalizar(persona.getNombre()))
+                .thenComparingLong(PersonaConId::getId);
+        PriorityQueue<PersonaConId> mejores = new PriorityQueue<>(porNombre.reversed());
+
+        long stamp = lock.readLock();
+        try {
+            for (int slot = 0; slot < slotsUsados; slot++) {
+                if (estado(slot) != OCUPADO) {
+                    continue;
+                }
+                PersonaConId persona = leerSlot(slot);
+                if (IndiceNombre.normalizar(persona.getNombre()).startsWith(normalizado)) {
+                    mejores.add(persona);
+                    if (mejores.size() > limit) {
+                        mejores.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        List<PersonaConId> resultado = new ArrayList<>(mejores);
+        resultado.sort(porNombre);
+        return resultado;
+    }
+
+    @Override
+    public Optional<PersonaConId> findById(long id) {
+        long stamp = lock.tryOptimisticRead();
+        PersonaConId persona = leerOptimista(id);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                persona = leerOptimista(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return Optional.ofNullable(persona);
+    }
+
+    @Override
+    public PersonaConId save(Persona persona) {
+        byte[] nombre = codificarNombre(persona);
+        long stamp = lock.writeLock();
+        try {
+            PersonaConId nuevaPersona = new PersonaConId(contador + 1, persona.getNombre(), persona.getEdad());
+            insertar(nuevaPersona, nombre);
+            guardarContador(contador + 1);
+            incrementarVersionGlobal();
+            return nuevaPersona;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<PersonaConId> saveAll(List<? extends Persona> nuevas) {
+        byte[][] nombres = new byte[nuevas.size()][];
+        for (int i = 0; i < nuevas.size(); i++) {
+            nombres[i] = codificarNombre(nuevas.get(i));
+        }
+
+        List<PersonaConId> guardadas = new ArrayList<>(nuevas.size());
+        long stamp = lock.writeLock();
+        try {
+            long primerId = contador + 1;
+            for (int i = 0; i < nuevas.size(); i++) {
+                Persona persona = nuevas.get(i);
+                PersonaConId nuevaPersona = new PersonaConId(primerId + i, persona.getNombre(), persona.getEdad());
+                insertar(nuevaPersona, nombres[i]);
+                guardadas.add(nuevaPersona);
+            }
+            guardarContador(contador + nuevas.size());
+            incrementarVersionGlobal();
+            return guardadas;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<PersonaConId> update(long id, Persona persona) {
+        return actualizar(id, persona, false, 0);
+    }
+
+    @Override
+    public Optional<PersonaConId> update(long id, Persona persona, long versionEsperada) {
+        return actualizar(id, persona, true, versionEsperada);
+    }
+
+    private Optional<PersonaConId> actualizar(long id, Persona persona, boolean condicional, long versionEsperada) {
+        byte[] nombre = codificarNombre(persona);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotDe(id);
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            MappedByteBuffer region = region(slot);
+            int posicionVersion = posicion(slot) + OFFSET_VERSION;
+            long version = Integer.toUnsignedLong(region.getInt(posicionVersion));
+            if (condicional && version != versionEsperada) {
+                throw new VersionConflictException(id, version);
+            }
+            escribirDatos(slot, persona.getEdad(), nombre);
+            region.putInt(posicionVersion, (int) (version + 1));
+            incrementarVersionGlobal();
+            return Optional.of(new PersonaConId(id, persona.getNombre(), persona.getEdad(), version + 1));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean deleteById(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotDe(id);
+            if (slot < 0) {
+                return false;
+            }
+            region(slot).put(posicion(slot) + OFFSET_ESTADO, LIBRE);
+            indice[(int) id] = 0;
+            vivos.clear((int) id);
+            if (cantidadLibres == libres.length) {
+                libres = Arrays.copyOf(libres, libres.length * 2);
+            }
+            libres[cantidadLibres++] = slot;
+            cantidad--;
+            incrementarVersionGlobal();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public long count() {
+        return cantidad;
+    }
+
+    @Override
+    public long version() {
+        return versionGlobal;
+    }
+
+    @Override
+    public void close() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            for (MappedByteBuffer region : regiones) {
+                region.force();
+            }
+            cabecera.force();
+            canal.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void recuperar() throws IOException {
+        contador = cabecera.getLong(OFFSET_CONTADOR);
+        slotsUsados = cabecera.getInt(OFFSET_SLOTS_USADOS);
+        versionGlobal = cabecera.getLong(OFFSET_VERSION_GLOBAL);
+        asegurarRegiones(slotsUsados);
+
+        for (int slot = 0; slot < slotsUsados; slot++) {
+            if (estado(slot) == OCUPADO) {
+                long id = region(slot).getLong(posicion(slot) + OFFSET_ID);
+                asegurarIndice(id);
+                indice[(int) id] = slot + 1;
+                vivos.set((int) id);
+                contador = Math.max(contador, id);
+                cantidad++;
+            } else {
+                if (cantidadLibres == libres.length) {
+                    libres = Arrays.copyOf(libres, libres.length * 2);
+                }
+                libres[cantidadLibres++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Debe llamarse con el write lock tomado
+     */
+    private void insertar(PersonaConId persona, byte[] nombre) {
+        int slot;
+        if (cantidadLibres > 0) {
+            slot = libres[--cantidadLibres];
+        } else {
+            slot = slotsUsados;
+            try {
+                asegurarRegiones(slot + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo ampliar el archivo de personas", e);
+            }
+            slotsUsados++;
+            cabecera.putInt(OFFSET_SLOTS_USADOS, slotsUsados);
+        }
+
+        MappedByteBuffer region = region(slot);
+        int base = posicion(slot);
+        region.putLong(base + OFFSET_ID, persona.getId());
+        region.putInt(base + OFFSET_VERSION, (int) persona.getVersion());
+        escribirDatos(slot, persona.getEdad(), nombre);
+        // El estado se escribe al final para no exponer un slot a medio escribir
+        region.put(base + OFFSET_ESTADO, OCUPADO);
+
+        asegurarIndice(persona.getId());
+        indice[persona.getId().intValue()] = slot + 1;
+        vivos.set(persona.getId().intValue());
+        cantidad++;
+    }
+
+    private void escribirDatos(int slot, int edad, byte[] nombre) {
+        MappedByteBuffer region = region(slot);
+        int base = posicion(slot);
+        region.put(base + OFFSET_EDAD, (byte) edad);
+        region.putShort(base + OFFSET_LARGO, (short) nombre.length);
+        region.put(base + OFFSET_NOMBRE, nombre);
+    }
+
+    private void incrementarVersionGlobal() {
+        versionGlobal++;
+        cabecera.putLong(OFFSET_VERSION_GLOBAL, versionGlobal);
+    }
+
+    private void guardarContador(long nuevoContador) {
+        contador = nuevoContador;
+        cabecera.putLong(OFFSET_CONTADOR, nuevoContador);
+    }
+
+    /**
+     * Lectura tolerante a escrituras concurrentes: valida cada valor antes
+     * de usarlo para no lanzar excepciones con datos inconsistentes, que
+     * luego se descartan si el stamp optimista no es válido
+     */
+    private PersonaConId leerOptimista(long id) {
+        int[] actual = indice;
+        if (id <= 0 || id >= actual.length) {
+            return null;
+        }
+        int slot = actual[(int) id] - 1;
+        MappedByteBuffer[] mapeadas = regiones;
+        if (slot < 0 || slot / slotsPorRegion >= mapeadas.length) {
+            return null;
+        }
+        MappedByteBuffer region = mapeadas[slot / slotsPorRegion];
+        int base = posicion(slot);
+        int largo = region.getShort(base + OFFSET_LARGO);
+        if (largo < 0 || largo > MAX_BYTES_NOMBRE) {
+            return null;
+        }
+        byte[] nombre = new byte[largo];
+        region.get(base + OFFSET_NOMBRE, nombre);
+        return new PersonaConId(id, new String(nombre, StandardCharsets.UTF_8),
+                Byte.toUnsignedInt(region.get(base + OFFSET_EDAD)),
+                Integer.toUnsignedLong(region.getInt(base + OFFSET_VERSION)));
+    }
+
+    private PersonaConId leerSlot(int slot) {
+        MappedByteBuffer region = region(slot);
+        int base = posicion(slot);
+        byte[] nombre = new byte[region.getShort(base + OFFSET_LARGO)];
+        region.get(base + OFFSET_NOMBRE, nombre);
+        return new PersonaConId(region.getLong(base + OFFSET_ID),
+                new String(nombre, StandardCharsets.UTF_8), edad(slot),
+                Integer.toUnsignedLong(region.getInt(base + OFFSET_VERSION)));
+    }
+
+    private byte estado(int slot) {
+        return region(slot).get(posicion(slot) + OFFSET_ESTADO);
+    }
+
+    private int edad(int slot) {
+        return Byte.toUnsignedInt(region(slot).get(posicion(slot) + OFFSET_EDAD));
+    }
+
+    private int slotDe(long id) {
+        int[] actual = indice;
+        if (id <= 0 || id >= actual.length) {
+            return -1;
+        }
+        return actual[(int) id] - 1;
+    }
+
+    private MappedByteBuffer region(int slot) {
+        return regiones[slot / slotsPorRegion];
+    }
+
+    private int posicion(int slot) {
+        return (slot % slotsPorRegion) * TAMANIO_SLOT;
+    }
+
+    private void asegurarRegiones(int slots) throws IOException {
+        int necesarias = (slots + slotsPorRegion - 1) / slotsPorRegion;
+        if (necesarias <= regiones.length) {
+            return;
+        }
+        MappedByteBuffer[] nuevas = Arrays.copyOf(regiones, necesarias);
+        long tamanioRegion = (long) slotsPorRegion * TAMANIO_SLOT;
+        for (int r = regiones.length; r < necesarias; r++) {
+            nuevas[r] = canal.map(FileChannel.MapMode.READ_WRITE,
+                    TAMANIO_CABECERA + r * tamanioRegion, tamanioRegion);
+        }
+        regiones = nuevas;
+    }
+
+    private void asegurarIndice(long id) {
+        if (id >= Integer.MAX_VALUE) {
+            throw new IllegalStateException("Se alcanzó el máximo de IDs del almacenamiento mapeado");
+        }
+        if (id >= indice.length) {
+            indice = Arrays.copyOf(indice, (int) Math.min(Integer.MAX_VALUE, Math.max(id + 1, indice.length * 2L)));
+        }
+    }
+
+    private static byte[] codificarNombre(Persona persona) {
+        int edad = persona.getEdad();
+        if (edad < IndiceEdad.EDAD_MINIMA || edad > IndiceEdad.EDAD_MAXIMA) {
+            throw new IllegalArgumentException("Edad fuera de rango: " + edad);
+        }
+        byte[] nombre = persona.getNombre().getBytes(StandardCharsets.UTF_8);
+        if (nombre.length > MAX_BYTES_NOMBRE) {
+            throw new IllegalArgumentException("El nombre supera " + MAX_BYTES_NOMBRE + " bytes en UTF-8");
+        }
+        return nombre;
+    }
+}
@@ -0,0 +1,22 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.PersonaConId;
+
+/**
+ * Observador de los cambios aplicados por InMemoryPersonaRepository
+ *
+ * Se invoca dentro de la sección crítica del registro afectado, antes de
+ * que el cambio sea visible, por lo que el orden de las notificaciones de
+ * un mismo ID coincide con el orden en que se aplican. Si el observador
+ * lanza una excepción, el cambio no se aplica.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public interface PersonaChangeListener {
+
+    void personaCreada(PersonaConId persona);
+
+    void personaActualizada(PersonaConId persona);
+
+    void personaEliminada(PersonaConId persona);
+}
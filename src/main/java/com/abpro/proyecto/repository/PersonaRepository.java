@@ -0,0 +1,108 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Repositorio de Personas
+ *
+ * Abstrae el almacenamiento para que el controlador no dependa de la
+ * estructura de datos concreta. Todas las implementaciones deben ser
+ * seguras frente a múltiples hilos de petición concurrentes.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public interface PersonaRepository {
+
+    /**
+     * Devuelve una copia de todas las personas, ordenadas por ID
+     */
+    List<PersonaConId> findAll();
+
+    /**
+     * Devuelve hasta limit personas con ID mayor que afterId, en orden de ID
+     * (paginación por keyset)
+     */
+    List<PersonaConId> findAfter(long afterId, int limit);
+
+    /**
+     * Devuelve hasta limit personas con edad entre edadMin y edadMax
+     * (inclusive), ordenadas por edad, usando el índice secundario
+     */
+    List<PersonaConId> findByEdadBetween(int edadMin, int edadMax, int limit);
+
+    /**
+     * Devuelve hasta limit personas cuyo nombre empieza con el prefijo
+     * (sin distinguir mayúsculas), ordenadas por nombre
+     */
+    List<PersonaConId> findByNombreStartingWith(String prefijo, int limit);
+
+    /**
+     * Busca una persona por su ID
+     */
+    Optional<PersonaConId> findById(long id);
+
+    /**
+     * Asigna un nuevo ID y guarda la persona
+     */
+    PersonaConId save(Persona persona);
+
+    /**
+     * Guarda varias personas reservando un bloque contiguo de IDs en un
+     * solo paso atómico
+     *
+     * @return las personas guardadas, en el mismo orden recibido
+     */
+    List<PersonaConId> saveAll(List<? extends Persona> personas);
+
+    /**
+     * Reemplaza los datos de una persona existente
+     *
+     * @return la persona actualizada, o vacío si el ID no existe
+     */
+    Optional<PersonaConId> update(long id, Persona persona);
+
+    /**
+     * Reemplaza los datos de una persona solo si su versión actual es la
+     * esperada; la comparación y el reemplazo son un único paso atómico
+     *
+     * @return la persona actualizada, o vacío si el ID no existe
+     * @throws VersionConflictException si la versión actual es otra
+     */
+    Optional<PersonaConId> update(long id, Persona persona, long versionEsperada);
+
+    /**
+     * Elimina una persona
+     *
+     * @return true si existía y fue eliminada
+     */
+    boolean deleteById(long id);
+
+    /**
+     * Cantidad de personas almacenadas
+     */
+    long count();
+
+    /**
+     * Versión global del almacenamiento: aumenta después de cada escritura
+     * completada, por lo que leerla antes de una consulta garantiza que el
+     * resultado incluye al menos todos los cambios hasta esa versión
+     */
+    long version();
+
+    /**
+     * Ejecuta varias escrituras como un solo lote: las implementaciones
+     * persistentes pueden hacer durables todas con una sola sincronización
+     * al final, en lugar de una por escritura. Al retornar, todas las
+     * escrituras del lote están confirmadas.
+     *
+     * Por defecto ejecuta las escrituras sobre este mismo repositorio.
+     */
+    default void writeBatch(Consumer<PersonaRepository> escrituras) {
+        escrituras.accept(this);
+    }
+}
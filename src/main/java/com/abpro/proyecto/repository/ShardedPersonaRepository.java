@@ -0,0 +1,318 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repositorio en memoria particionado para escrituras en muchos núcleos
+ *
+ * En InMemoryPersonaRepository todas las altas pasan por el mismo
+ * AtomicLong de IDs, el mismo contador de versión y el mismo mapa; con
+ * muchos hilos escribiendo, esos CAS compartidos dejan de escalar. Aquí:
+ * - los IDs salen de un IdBlockAllocator, que toca el contador global una
+ *   vez por bloque en lugar de una vez por alta
+ * - las personas se reparten en particiones (un ConcurrentHashMap cada
+ *   una) según el bloque de su ID, así que los IDs consecutivos que
+ *   entrega una franja caen en la misma partición
+ * - cada partición tiene su propio índice ordenado de IDs, y las páginas
+ *   mezclan esos índices, así que las altas no compiten por un índice
+ *   global
+ * - la versión global es un LongAdder: solo aumenta, por lo que su suma
+ *   también crece con cada escritura completada
+ *
+ * Las actualizaciones y eliminaciones son atómicas por ID igual que en
+ * InMemoryPersonaRepository (compute bajo el bloqueo de la clave). Los
+ * índices por edad y nombre son compartidos; ya son estructuras
+ * concurrentes sin un punto único de contención.
+ *
+ * Los IDs no siguen el orden global de creación: una franja puede
+ * entregar un ID menor después de que otra entregó uno mayor. Por eso las
+ * páginas solo llegan hasta IdBlockAllocator.visibleHasta(), por debajo
+ * de la menor alta en curso de cualquier franja o lote: un cursor nunca
+ * queda más allá de un registro que todavía no se ve. Solo guarda en
+ * memoria: no notifica a PersonaChangeListener ni se combina con el WAL.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class ShardedPersonaRepository implements PersonaRepository {
+
+    private static final Comparator<PersonaConId> POR_ID =
+            Comparator.comparingLong(PersonaConId::getId);
+
+    private static final long SIN_VERSION = Long.MIN_VALUE;
+
+    private final ConcurrentMap<Long, PersonaConId>[] particiones;
+    // IDs almacenados en cada partición, en orden, para findAfter
+    private final ConcurrentSkipListSet<Long>[] ordenes;
+    private final int mascara;
+    private final int bitsBloque;
+    private final IdBlockAllocator ids;
+    private final LongAdder versionGlobal = new LongAdder();
+    private final IndiceEdad indiceEdad = new IndiceEdad();
+    private final IndiceNombre indiceNombre = new IndiceNombre();
+
+    /**
+     * @param particiones  cantidad de particiones y de franjas de IDs; se redondea a potencia de dos
+     * @param tamanioBloque IDs por bloque; se redondea a potencia de dos
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedPersonaRepository(int particiones, int tamanioBloque) {
+        int cantidad = potenciaDeDos(particiones);
+        int bloque = potenciaDeDos(tamanioBloque);
+        this.particiones = (ConcurrentMap<Long, PersonaConId>[]) new ConcurrentMap<?, ?>[cantidad];
+        this.ordenes = (ConcurrentSkipListSet<Long>[]) new ConcurrentSkipListSet<?>[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.particiones[i] = new ConcurrentHashMap<>();
+            this.ordenes[i] = new ConcurrentSkipListSet<>();
+        }
+        this.mascara = cantidad - 1;
+        this.bitsBloque = Integer.numberOfTrailingZeros(bloque);
+        this.ids = new IdBlockAllocator(cantidad, bloque);
+    }
+
+    @Override
+    public List<PersonaConId> findAll() {
+        List<PersonaConId> resultado = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, count()));
+        for (ConcurrentMap<Long, PersonaConId> particion : particiones) {
+            resultado.addAll(particion.values());
+        }
+        resultado.sort(POR_ID);
+        return resultado;
+    }
+
+    /**
+     * Mezcla los índices ordenados de las particiones a partir de afterId:
+     * el costo es proporcional al tamaño de la página (por el logaritmo de
+     * la cantidad de particiones), no a los IDs eliminados ni a los
+     * reservados sin entregar. No pasa de la menor alta en curso.
+     */
+    @Override
+    public List<PersonaConId> findAfter(long afterId, int limit) {
+        long visibleHasta = ids.visibleHasta();
+        List<PersonaConId> pagina = new ArrayList<>((int) Math.min(limit, count()));
+        PriorityQueue<Frente> frentes = new PriorityQueue<>(ordenes.length);
+        for (ConcurrentSkipListSet<Long> orden : ordenes) {
+            Frente frente = new Frente(orden.tailSet(afterId, false).iterator());
+            if (frente.avanzar()) {
+                frentes.add(frente);
+            }
+        }
+        while (pagina.size() < limit && !frentes.isEmpty()) {
+            Frente frente = frentes.poll();
+            if (frente.id > visibleHasta) {
+                break;
+            }
+            // Puede haberse eliminado después de leer el índice
+            PersonaConId persona = particion(frente.id).get(frente.id);
+            if (persona != null) {
+                pagina.add(persona);
+            }
+            if (frente.avanzar()) {
+                frentes.add(frente);
+            }
+        }
+        return pagina;
+    }
+
+    @Override
+    public List<PersonaConId> findByEdadBetween(int edadMin, int edadMax, int limit) {
+        List<PersonaConId> resultado = new ArrayList<>((int) Math.min(limit, count()));
+        indiceEdad.recorrer(edadMin, edadMax, id -> {
+            PersonaConId persona = particion(id).get(id);
+            if (persona != null && persona.getEdad() >= edadMin && persona.getEdad() <= edadMax) {
+                resultado.add(persona);
+            }
+            return resultado.size() < limit;
+        });
+        return resultado;
+    }
+
+    @Override
+    public List<PersonaConId> findByNombreStartingWith(String prefijo, int limit) {
+        String normalizado = IndiceNombre.normalizar(prefijo);
+        List<PersonaConId> resultado = new ArrayList<>((int) Math.min(limit, count()));
+        indiceNombre.recorrer(prefijo, id -> {
+            PersonaConId persona = particion(id).get(id);
+            if (persona != null && IndiceNombre.normalizar(persona.getNombre()).startsWith(normalizado)) {
+                resultado.add(persona);
+            }
+            return resultado.size() < limit;
+        });
+        return resultado;
+    }
+
+    @Override
+    public Optional<PersonaConId> findById(long id) {
+        return Optional.ofNullable(particion(id).get(id));
+    }
+
+    @Override
+    public PersonaConId save(Persona persona) {
+        long nuevoId = ids.siguiente();
+        try {
+            PersonaConId nuevaPersona = new PersonaConId(nuevoId, persona.getNombre(), persona.getEdad());
+            almacenar(nuevaPersona);
+            versionGlobal.increment();
+            return nuevaPersona;
+        } finally {
+            ids.publicado(nuevoId);
+        }
+    }
+
+    /**
+     * El lote reserva su rango directamente del contador global para que
+     * sus IDs sean contiguos, como en InMemoryPersonaRepository; el rango
+     * ocupa bloques enteros, así que cada bloque cae en una sola partición
+     */
+    @Override
+    public List<PersonaConId> saveAll(List<? extends Persona> nuevas) {
+        long primerId = ids.reservar(nuevas.size());
+        try {
+            List<PersonaConId> guardadas = new ArrayList<>(nuevas.size());
+            for (int i = 0; i < nuevas.size(); i++) {
+                Persona persona = nuevas.get(i);
+                PersonaConId nuevaPersona = new PersonaConId(primerId + i, persona.getNombre(), persona.getEdad());
+                almacenar(nuevaPersona);
+                guardadas.add(nuevaPersona);
+            }
+            versionGlobal.increment();
+            return guardadas;
+        } finally {
+            ids.publicadoLote(primerId);
+        }
+    }
+
+    @Override
+    public Optional<PersonaConId> update(long id, Persona persona) {
+        return actualizar(id, persona, SIN_VERSION);
+    }
+
+    @Override
+    public Optional<PersonaConId> update(long id, Persona persona, long versionEsperada) {
+        return actualizar(id, persona, versionEsperada);
+    }
+
+    /**
+     * @param versionEsperada versión requerida, o SIN_VERSION para no comprobarla
+     */
+    private Optional<PersonaConId> actualizar(long id, Persona persona, long versionEsperada) {
+        Optional<PersonaConId> resultado = Optional.ofNullable(particion(id).computeIfPresent(id, (key, actual) -> {
+            if (versionEsperada != SIN_VERSION && actual.getVersion() != versionEsperada) {
+                throw new VersionConflictException(key, actual.getVersion());
+            }
+            PersonaConId actualizada = new PersonaConId(
+                    key, persona.getNombre(), persona.getEdad(), actual.getVersion() + 1);
+            desindexar(actual);
+            indexar(actualizada);
+            return actualizada;
+        }));
+        if (resultado.isPresent()) {
+            versionGlobal.increment();
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean deleteById(long id) {
+        boolean[] eliminada = new boolean[1];
+        particion(id).computeIfPresent(id, (key, actual) -> {
+            desindexar(actual);
+            orden(key).remove(key);
+            eliminada[0] = true;
+            return null;
+        });
+        if (eliminada[0]) {
+            versionGlobal.increment();
+        }
+        return eliminada[0];
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (ConcurrentMap<Long, PersonaConId> particion : particiones) {
+            total += particion.size();
+        }
+        return total;
+    }
+
+    @Override
+    public long version() {
+        return versionGlobal.sum();
+    }
+
+    /**
+     * Partición de un ID según su bloque: los IDs de un mismo bloque
+     * comparten partición
+     */
+    private ConcurrentMap<Long, PersonaConId> particion(long id) {
+        return particiones[indiceParticion(id)];
+    }
+
+    private ConcurrentSkipListSet<Long> orden(long id) {
+        return ordenes[indiceParticion(id)];
+    }
+
+    private int indiceParticion(long id) {
+        return (int) ((id - 1) >>> bitsBloque) & mascara;
+    }
+
+    /**
+     * Publica un alta: primero en el mapa y después en el índice ordenado
+     */
+    private void almacenar(PersonaConId persona) {
+        indexar(persona);
+        particion(persona.getId()).put(persona.getId(), persona);
+        orden(persona.getId()).add(persona.getId());
+    }
+
+    private void indexar(PersonaConId persona) {
+        indiceEdad.agregar(persona.getId(), persona.getEdad());
+        indiceNombre.agregar(persona.getId(), persona.getNombre());
+    }
+
+    private void desindexar(PersonaConId persona) {
+        indiceEdad.quitar(persona.getId(), persona.getEdad());
+        indiceNombre.quitar(persona.getId(), persona.getNombre());
+    }
+
+    private static int potenciaDeDos(int valor) {
+        return valor <= 1 ? 1 : Integer.highestOneBit(valor - 1) << 1;
+    }
+
+    /**
+     * Posición de la mezcla dentro del índice de una partición
+     */
+    private static final class Frente implements Comparable<Frente> {
+        private final Iterator<Long> ids;
+        private long id;
+
+        private Frente(Iterator<Long> ids) {
+            this.ids = ids;
+        }
+
+        private boolean avanzar() {
+            if (!ids.hasNext()) {
+                return false;
+            }
+            id = ids.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Frente otro) {
+            return Long.compare(id, otro.id);
+        }
+    }
+}
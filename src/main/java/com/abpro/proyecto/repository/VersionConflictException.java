@@ -0,0 +1,26 @@
+package com.abpro.proyecto.repository;
+
+/**
+ * Se lanza cuando una actualización condicional encuentra el registro en
+ * una versión distinta de la esperada (otro cliente lo modificó antes)
+ *
+ * No captura la traza de la pila: es un resultado esperado de la
+ * concurrencia optimista, no un error de programación.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long versionActual;
+
+    public VersionConflictException(long id, long versionActual) {
+        super("La persona con ID " + id + " está en la versión " + versionActual, null, false, false);
+        this.versionActual = versionActual;
+    }
+
+    public long getVersionActual() {
+        return versionActual;
+    }
+}
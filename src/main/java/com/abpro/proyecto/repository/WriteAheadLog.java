@@ -0,0 +1,506 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.PersonaConId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Log de escritura anticipada (write-ahead log) de personas
+ *
+ * Cada creación, actualización o eliminación se agrega al final del
+ * segmento actual ("personas-N.log") a través de un FileChannel. El fsync
+ * se hace con group commit: el primer hilo que necesita durabilidad fuerza
+ * el canal y, con ese único force, confirma también todo lo que otros
+ * hilos escribieron antes; los demás solo esperan.
+ *
+ * Cuando el segmento supera el umbral se compacta en segundo plano: se
+ * abre el segmento N+1 y se escribe "personas.snapshot" con el estado
+ * completo y la generación N+1. Cada escritura registra y aplica su cambio
+ * dentro de escribir(); la rotación espera a que terminen las que están en
+ * curso, así el snapshot ya contiene todo lo registrado en los segmentos
+ * que se borran. Al iniciar se carga el snapshot y se reaplican los
+ * segmentos desde esa generación. Como cada registro del log contiene el
+ * estado completo, reaplicar sobre un snapshot tomado mientras llegaban
+ * escrituras deja siempre el último valor.
+ *
+ * Formato de registro: [largo int][crc32 int][tipo byte][id long]
+ * y, salvo en eliminaciones, [edad int][largo nombre int][nombre UTF-8].
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+class WriteAheadLog implements PersonaChangeListener, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final byte TIPO_CREADA = 1;
+    private static final byte TIPO_ACTUALIZADA = 2;
+    private static final byte TIPO_ELIMINADA = 3;
+    private static final int CABECERA = Integer.BYTES * 2;
+
+    private static final String PREFIJO_SEGMENTO = "personas-";
+    private static final String EXTENSION_SEGMENTO = ".log";
+    private static final String SNAPSHOT = "personas.snapshot";
+    private static final int MAGIA_SNAPSHOT = 0x50455253;
+    private static final int VERSION_SNAPSHOT = 1;
+    private static final byte SNAPSHOT_REGISTRO = 1;
+    private static final byte SNAPSHOT_FIN = 0;
+
+    private final Path directorio;
+    private final long umbralCompactacion;
+    private final InMemoryPersonaRepository memoria;
+    private final ExecutorService compactador;
+    private final AtomicBoolean compactando = new AtomicBoolean();
+
+    // Compartido por las escrituras mientras registran y aplican su cambio;
+    // exclusivo al rotar el segmento
+    private final ReentrantReadWriteLock aplicacion = new ReentrantReadWriteLock();
+    // Las escrituras al segmento se serializan con este lock
+    private final ReentrantLock escritura = new ReentrantLock();
+    // Solo un hilo a la vez hace force o rota el segmento
+    private final Object sincronizacion = new Object();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+    private long generacion;
+    private long tamanioSegmento;
+    private volatile FileChannel canal;
+
+    // Posiciones lógicas: bytes agregados desde el inicio del proceso
+    private volatile long posicionEscrita;
+    private volatile long posicionDurable;
+
+    private WriteAheadLog(Path directorio, long umbralCompactacion, InMemoryPersonaRepository memoria) {
+        this.directorio = directorio;
+        this.umbralCompactacion = umbralCompactacion;
+        this.memoria = memoria;
+        this.compactador = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "wal-compactacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Abre el log del directorio, restaurando en memoria el snapshot y los
+     * segmentos existentes, y lo deja listo para agregar registros
+     */
+    static WriteAheadLog abrir(Path directorio, long umbralCompactacion,
+                               InMemoryPersonaRepository memoria) throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(directorio, umbralCompactacion, memoria);
+        wal.recuperar();
+        return wal;
+    }
+
+    @Override
+    public void personaCreada(PersonaConId persona) {
+        agregar(TIPO_CREADA, persona);
+    }
+
+    @Override
+    public void personaActualizada(PersonaConId persona) {
+        agregar(TIPO_ACTUALIZADA, persona);
+    }
+
+    @Override
+    public void personaEliminada(PersonaConId persona) {
+        agregar(TIPO_ELIMINADA, persona);
+    }
+
+    /**
+     * Ejecuta una escritura sobre la memoria (que registra su cambio en el
+     * log a través del listener y después lo aplica) sin que una rotación
+     * de segmento quede entre el registro y la aplicación
+     */
+    <T> T escribir(Supplier<T> escritura) {
+        aplicacion.readLock().lock();
+        try {
+            return escritura.get();
+        } finally {
+            aplicacion.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bloquea hasta que todo lo escrito hasta ahora esté en disco
+     */
+    void sincronizar() {
+        long objetivo = posicionEscrita;
+        if (posicionDurable >= objetivo) {
+            return;
+        }
+        synchronized (sincronizacion) {
+            // Otro hilo pudo haber hecho el force mientras esperábamos
+            if (posicionDurable >= objetivo) {
+                return;
+            }
+            long hasta = posicionEscrita;
+            try {
+                canal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo sincronizar el log de personas", e);
+            }
+            posicionDurable = hasta;
+        }
+    }
+
+    /**
+     * Rota el segmento y escribe un snapshot del estado actual
+     *
+     * La rotación toma el lock de aplicación en modo exclusivo: espera a
+     * que las escrituras en curso apliquen en memoria lo que ya registraron
+     * en el segmento anterior. Los segmentos anteriores se borran recién
+     * cuando el snapshot y su entrada en el directorio están en disco.
+     * Una compactación forzada y la automática no se superponen: comparten
+     * el archivo temporal del snapshot.
+     */
+    synchronized void compactar() throws IOException {
+        long nuevaGeneracion;
+        aplicacion.writeLock().lock();
+        try {
+            synchronized (sincronizacion) {
+                escritura.lock();
+                try {
+                    canal.force(false);
+                    posicionDurable = posicionEscrita;
+                    canal.close();
+                    nuevaGeneracion = generacion + 1;
+                    canal = abrirSegmento(nuevaGeneracion);
+                    generacion = nuevaGeneracion;
+                    tamanioSegmento = 0;
+                    // Las escrituras confirmadas en el segmento nuevo no deben perder su archivo
+                    sincronizarDirectorio();
+                } finally {
+                    escritura.unlock();
+                }
+            }
+        } finally {
+            aplicacion.writeLock().unlock();
+        }
+
+        escribirSnapshot(nuevaGeneracion);
+        for (long anterior : listarGeneraciones()) {
+            if (anterior < nuevaGeneracion) {
+                Files.deleteIfExists(rutaSegmento(anterior));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactador.shutdown();
+        try {
+            compactador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (sincronizacion) {
+            escritura.lock();
+            try {
+                canal.force(false);
+                posicionDurable = posicionEscrita;
+                canal.close();
+            } finally {
+                escritura.unlock();
+            }
+        }
+    }
+
+    private void agregar(byte tipo, PersonaConId persona) {
+        byte[] nombre = tipo == TIPO_ELIMINADA ? null : persona.getNombre().getBytes(StandardCharsets.UTF_8);
+        int largo = 1 + Long.BYTES + (nombre == null ? 0 : Integer.BYTES * 2 + nombre.length);
+        boolean compactar;
+
+        escritura.lock();
+        try {
+            ByteBuffer registro = buffer(CABECERA + largo);
+            registro.putInt(largo).putInt(0).put(tipo).putLong(persona.getId());
+            if (nombre != null) {
+                registro.putInt(persona.getEdad()).putInt(nombre.length).put(nombre);
+            }
+            crc.reset();
+            crc.update(registro.array(), CABECERA, largo);
+            registro.putInt(Integer.BYTES, (int) crc.getValue());
+            registro.flip();
+
+            long inicio = canal.position();
+            try {
+                while (registro.hasRemaining()) {
+                    canal.write(registro);
+                }
+            } catch (IOException e) {
+                // No dejar un registro a medias que invalide los siguientes
+                canal.truncate(inicio);
+                throw e;
+            }
+            tamanioSegmento += CABECERA + largo;
+            posicionEscrita += CABECERA + largo;
+            compactar = tamanioSegmento >= umbralCompactacion;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el log de personas", e);
+        } finally {
+            escritura.unlock();
+        }
+
+        if (compactar && compactando.compareAndSet(false, true)) {
+            compactador.execute(() -> {
+                try {
+                    compactar();
+                } catch (IOException | RuntimeException e) {
+                    log.error("Error al compactar el log de personas", e);
+                } finally {
+                    compactando.set(false);
+                }
+            });
+        }
+    }
+
+    private ByteBuffer buffer(int capacidad) {
+        if (buffer.capacity() < capacidad) {
+            buffer = ByteBuffer.allocate(Math.max(capacidad, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private void recuperar() throws IOException {
+        Files.createDirectories(directorio);
+
+        long generacionSnapshot = 0;
+        Path snapshot = directorio.resolve(SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            generacionSnapshot = leerSnapshot(snapshot);
+        }
+
+        long ultima = generacionSnapshot;
+        long largoValido = 0;
+        for (long g : listarGeneraciones()) {
+            if (g < generacionSnapshot) {
+                // Quedó de una compactación interrumpida: ya está en el snapshot
+                Files.delete(rutaSegmento(g));
+                continue;
+            }
+            largoValido = reproducir(rutaSegmento(g));
+            ultima = g;
+        }
+
+        canal = abrirSegmento(ultima);
+        sincronizarDirectorio();
+        if (canal.size() > largoValido) {
+            log.warn("Descartando {} bytes incompletos al final de {}",
+                    canal.size() - largoValido, rutaSegmento(ultima));
+            canal.truncate(largoValido);
+        }
+        canal.position(largoValido);
+        generacion = ultima;
+        tamanioSegmento = largoValido;
+    }
+
+    /**
+     * Reaplica un segmento sobre la memoria
+     *
+     * @return bytes válidos del segmento (se detiene en el primer registro
+     * incompleto o con CRC incorrecto, típico de una caída a mitad de escritura)
+     */
+    private long reproducir(Path segmento) throws IOException {
+        long validos = 0;
+        CRC32 verificacion = new CRC32();
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(segmento), 64 * 1024))) {
+            while (true) {
+                int largo;
+                try {
+                    largo = entrada.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (largo <= 0 || largo > 1024 * 1024) {
+                    break;
+                }
+                byte[] datos = new byte[largo];
+                int crcEsperado;
+                try {
+                    crcEsperado = entrada.readInt();
+                    entrada.readFully(datos);
+                } catch (EOFException e) {
+                    break;
+                }
+                verificacion.reset();
+                verificacion.update(datos);
+                if ((int) verificacion.getValue() != crcEsperado) {
+                    break;
+                }
+                aplicar(ByteBuffer.wrap(datos));
+                validos += CABECERA + largo;
+            }
+        }
+        return validos;
+    }
+
+    private void aplicar(ByteBuffer registro) {
+        byte tipo = registro.get();
+        long id = registro.getLong();
+        memoria.ajustarContador(id);
+        if (tipo == TIPO_ELIMINADA) {
+            memoria.restaurarEliminacion(id);
+            return;
+        }
+        int edad = registro.getInt();
+        byte[] nombre = new byte[registro.getInt()];
+        registro.get(nombre);
+        memoria.restaurar(new PersonaConId(id, new String(nombre, StandardCharsets.UTF_8), edad));
+    }
+
+    private void escribirSnapshot(long generacionBase) throws IOException {
+        Path temporal = directorio.resolve(SNAPSHOT + ".tmp");
+        // Leído después de rotar: cubre todos los IDs entregados hasta ahora
+        long contador = memoria.ultimoId();
+
+        try (FileChannel destino = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 checksum = new CRC32();
+            DataOutputStream salida = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(destino), 64 * 1024), checksum));
+            salida.writeInt(MAGIA_SNAPSHOT);
+            salida.writeInt(VERSION_SNAPSHOT);
+            salida.writeLong(generacionBase);
+            salida.writeLong(contador);
+
+            long[] cantidad = new long[1];
+            try {
+                memoria.recorrer(persona -> {
+                    try {
+                        salida.writeByte(SNAPSHOT_REGISTRO);
+                        salida.writeLong(persona.getId());
+                        salida.writeInt(persona.getEdad());
+                        salida.writeUTF(persona.getNombre());
+                        cantidad[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            salida.writeByte(SNAPSHOT_FIN);
+            salida.writeLong(cantidad[0]);
+            salida.writeLong(checksum.getValue());
+            salida.flush();
+            destino.force(true);
+        }
+
+        Files.move(temporal, directorio.resolve(SNAPSHOT),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // El renombrado solo es durable cuando el directorio está en disco
+        sincronizarDirectorio();
+    }
+
+    /**
+     * Fuerza a disco las entradas del directorio (archivos creados o renombrados)
+     */
+    private void sincronizarDirectorio() throws IOException {
+        try (FileChannel carpeta = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            carpeta.force(true);
+        } catch (IOException e) {
+            // Algunos sistemas (Windows) no permiten abrir un directorio como canal
+            if (!System.getProperty("os.name", "").startsWith("Windows")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Carga el snapshot en memoria
+     *
+     * @return la generación del primer segmento que falta reaplicar
+     */
+    private long leerSnapshot(Path snapshot) throws IOException {
+        CRC32 checksum = new CRC32();
+        try (InputStream archivo = Files.newInputStream(snapshot)) {
+            DataInputStream entrada = new DataInputStream(new CheckedInputStream(
+                    new BufferedInputStream(archivo, 64 * 1024), checksum));
+            if (entrada.readInt() != MAGIA_SNAPSHOT || entrada.readInt() != VERSION_SNAPSHOT) {
+                throw new IOException("Formato de snapshot no reconocido: " + snapshot);
+            }
+            long generacionBase = entrada.readLong();
+            long contador = entrada.readLong();
+
+            long cantidad = 0;
+            while (entrada.readByte() == SNAPSHOT_REGISTRO) {
+                long id = entrada.readLong();
+                int edad = entrada.readInt();
+                String nombre = entrada.readUTF();
+                memoria.restaurar(new PersonaConId(id, nombre, edad));
+                cantidad++;
+            }
+            long cantidadEsperada = entrada.readLong();
+            long checksumCalculado = checksum.getValue();
+            if (cantidad != cantidadEsperada || entrada.readLong() != checksumCalculado) {
+                throw new IOException("Snapshot corrupto: " + snapshot);
+            }
+
+            memoria.ajustarContador(contador);
+            return generacionBase;
+        }
+    }
+
+    private List<Long> listarGeneraciones() throws IOException {
+        List<Long> generaciones = new ArrayList<>();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.map(ruta -> ruta.getFileName().toString())
+                    .filter(nombre -> nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(EXTENSION_SEGMENTO))
+                    .forEach(nombre -> {
+                        String numero = nombre.substring(PREFIJO_SEGMENTO.length(),
+                                nombre.length() - EXTENSION_SEGMENTO.length());
+                        try {
+                            generaciones.add(Long.parseLong(numero));
+                        } catch (NumberFormatException e) {
+                            log.warn("Ignorando archivo desconocido en el directorio del log: {}", nombre);
+                        }
+                    });
+        }
+        Collections.sort(generaciones);
+        return generaciones;
+    }
+
+    private FileChannel abrirSegmento(long numero) throws IOException {
+        FileChannel nuevo = FileChannel.open(rutaSegmento(numero),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        nuevo.position(nuevo.size());
+        return nuevo;
+    }
+
+    private Path rutaSegmento(long numero) {
+        return directorio.resolve(PREFIJO_SEGMENTO + numero + EXTENSION_SEGMENTO);
+    }
+}
@@ -0,0 +1,201 @@
+package com.abpro.proyecto.validation;
+
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.model.Persona;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validador de Persona sin pasar por Hibernate Validator
+ *
+ * Lee una sola vez las anotaciones de Persona.nombre y Persona.edad y las
+ * convierte en restricciones simples; validar no usa reflexión, no
+ * interpola mensajes ni crea ConstraintViolation. Los mensajes son los de
+ * las anotaciones y los mapas de error de todas las combinaciones posibles
+ * se construyen al iniciar, por lo que una persona inválida no crea ningún
+ * mapa ni mensaje nuevo.
+ *
+ * Si un campo incumple varias restricciones se informa la primera en el
+ * orden en que están declaradas (por ejemplo, "no puede ser nulo" antes que
+ * "no puede estar vacío"). Si Persona usa una anotación que este validador
+ * no reproduce, falla al construirse en lugar de validar distinto.
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+public class PersonaValidator {
+
+    public static final String MENSAJE_ERROR = "Error de validación en los datos enviados";
+
+    private final Restriccion[] restriccionesNombre;
+    private final Restriccion[] restriccionesEdad;
+
+    // Mapa campo -> mensaje por combinación de fallos: nombre * (edad + 1) + edad,
+    // donde 0 es válido y n es la n-ésima restricción incumplida
+    private final Map<String, String>[] errores;
+
+    @SuppressWarnings("unchecked")
+    public PersonaValidator() {
+        this.restriccionesNombre = restricciones("nombre");
+        this.restriccionesEdad = restricciones("edad");
+
+        int opcionesEdad = restriccionesEdad.length + 1;
+        this.errores = (Map<String, String>[]) new Map<?, ?>[(restriccionesNombre.length + 1) * opcionesEdad];
+        for (int n = 0; n <= restriccionesNombre.length; n++) {
+            for (int e = 0; e <= restriccionesEdad.length; e++) {
+                if (n == 0 && e == 0) {
+                    continue;
+                }
+                Map<String, String> mapa = new LinkedHashMap<>(4);
+                if (n > 0) {
+                    mapa.put("nombre", restriccionesNombre[n - 1].mensaje);
+                }
+                if (e > 0) {
+                    mapa.put("edad", restriccionesEdad[e - 1].mensaje);
+                }
+                errores[n * opcionesEdad + e] = Collections.unmodifiableMap(mapa);
+            }
+        }
+    }
+
+    /**
+     * Valida una persona
+     *
+     * @return mapa inmutable campo -> mensaje, o null si la persona es válida
+     */
+    public Map<String, String> validar(Persona persona) {
+        int nombre = primeraIncumplida(restriccionesNombre, persona.getNombre());
+        int edad = primeraIncumplida(restriccionesEdad, persona.getEdad());
+        if (nombre == 0 && edad == 0) {
+            return null;
+        }
+        return errores[nombre * (restriccionesEdad.length + 1) + edad];
+    }
+
+    /**
+     * Cuerpo de la respuesta 400 para los errores devueltos por validar
+     */
+    public ApiResponse<Map<String, String>> respuestaError(Map<String, String> errores) {
+        return new ApiResponse<>(false, MENSAJE_ERROR, errores);
+    }
+
+    private static int primeraIncumplida(Restriccion[] restricciones, Object valor) {
+        for (int i = 0; i < restricciones.length; i++) {
+            if (!restricciones[i].cumple(valor)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Convierte las anotaciones de un campo en restricciones, en orden de declaración
+     */
+    private static Restriccion[] restricciones(String nombreCampo) {
+        Field campo;
+        try {
+            campo = Persona.class.getDeclaredField(nombreCampo);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Persona no tiene el campo " + nombreCampo, e);
+        }
+
+        List<Restriccion> restricciones = new ArrayList<>();
+        for (Annotation anotacion : campo.getDeclaredAnnotations()) {
+            if (anotacion instanceof NotNull) {
+                NotNull a = (NotNull) anotacion;
+                restricciones.add(new Restriccion(Tipo.NO_NULO, 0, 0, mensaje(campo, a.message(), a.groups())));
+            } else if (anotacion instanceof NotEmpty) {
+                NotEmpty a = (NotEmpty) anotacion;
+                restricciones.add(new Restriccion(Tipo.NO_VACIO, 0, 0, mensaje(campo, a.message(), a.groups())));
+            } else if (anotacion instanceof NotBlank) {
+                NotBlank a = (NotBlank) anotacion;
+                restricciones.add(new Restriccion(Tipo.NO_EN_BLANCO, 0, 0, mensaje(campo, a.message(), a.groups())));
+            } else if (anotacion instanceof Size) {
+                Size a = (Size) anotacion;
+                restricciones.add(new Restriccion(Tipo.TAMANIO, a.min(), a.max(), mensaje(campo, a.message(), a.groups())));
+            } else if (anotacion instanceof Min) {
+                Min a = (Min) anotacion;
+                restricciones.add(new Restriccion(Tipo.MINIMO, a.value(), 0, mensaje(campo, a.message(), a.groups())));
+            } else if (anotacion instanceof Max) {
+                Max a = (Max) anotacion;
+                restricciones.add(new Restriccion(Tipo.MAXIMO, 0, a.value(), mensaje(campo, a.message(), a.groups())));
+            } else if (anotacion.annotationType().getPackageName().startsWith("jakarta.validation")) {
+                throw new IllegalStateException("Restricción no soportada en Persona." + nombreCampo
+                        + ": @" + anotacion.annotationType().getSimpleName());
+            }
+        }
+        return restricciones.toArray(new Restriccion[0]);
+    }
+
+    /**
+     * Solo se reproducen mensajes literales del grupo por defecto: una
+     * plantilla ({min}, {jakarta...}) necesitaría el interpolador de Hibernate
+     */
+    private static String mensaje(Field campo, String mensaje, Class<?>[] grupos) {
+        if (mensaje.indexOf('{') >= 0 || grupos.length > 0) {
+            throw new IllegalStateException("Restricción no soportada en Persona." + campo.getName()
+                    + ": se requiere un mensaje literal en el grupo por defecto");
+        }
+        return mensaje.intern();
+    }
+
+    private enum Tipo {
+        NO_NULO, NO_VACIO, NO_EN_BLANCO, TAMANIO, MINIMO, MAXIMO
+    }
+
+    /**
+     * Una restricción de Bean Validation con sus parámetros ya resueltos
+     *
+     * Igual que en Bean Validation, solo @NotNull, @NotEmpty y @NotBlank
+     * rechazan null; las demás lo consideran válido.
+     */
+    private static final class Restriccion {
+        private final Tipo tipo;
+        private final long minimo;
+        private final long maximo;
+        private final String mensaje;
+
+        private Restriccion(Tipo tipo, long minimo, long maximo, String mensaje) {
+            this.tipo = tipo;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.mensaje = mensaje;
+        }
+
+        private boolean cumple(Object valor) {
+            switch (tipo) {
+                case NO_NULO:
+                    return valor != null;
+                case NO_VACIO:
+                    return valor != null && ((CharSequence) valor).length() > 0;
+                case NO_EN_BLANCO:
+                    return valor != null && !valor.toString().isBlank();
+                case TAMANIO:
+                    if (valor == null) {
+                        return true;
+                    }
+                    int largo = ((CharSequence) valor).length();
+                    return largo >= minimo && largo <= maximo;
+                case MINIMO:
+                    return valor == null || ((Number) valor).longValue() >= minimo;
+                case MAXIMO:
+                    return valor == null || ((Number) valor).longValue() <= maximo;
+                default:
+                    throw new IllegalStateException("Tipo de restricción desconocido: " + tipo);
+            }
+        }
+    }
+}
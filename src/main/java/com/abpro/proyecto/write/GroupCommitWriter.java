@@ -0,0 +1,206 @@
+package com.abpro.proyecto.write;
+
+import com.abpro.proyecto.config.ModoEscritura;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.repository.PersonaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Escritor único de personas con confirmación por lotes (group commit)
+ *
+ * Los hilos de petición encolan sus escrituras en una cola acotada y
+ * reciben un CompletableFuture; un único hilo escritor toma todas las
+ * pendientes (hasta un máximo por lote), las aplica en orden con
+ * PersonaRepository.writeBatch y recién entonces completa los futuros.
+ * Con el repositorio WAL un lote cuesta un solo fsync, así que el
+ * rendimiento deja de estar limitado a una escritura por sincronización
+ * del disco, y las escrituras no compiten entre sí por el repositorio.
+ *
+ * Cuando la cola está llena enviar() no espera: devuelve null para que
+ * la petición se rechace de inmediato (contrapresión) en lugar de
+ * acumular hilos bloqueados.
+ *
+ * Propiedades:
+ * - personas.escritura.capacidad-cola: escrituras pendientes admitidas (por defecto 4096)
+ * - personas.escritura.lote-maximo: escrituras por lote (por defecto 256)
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@Component
+@Conditional(ModoEscritura.Agrupada.class)
+public class GroupCommitWriter implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    // Marca de fin que close() encola detrás de las escrituras pendientes
+    private static final Escritura<Void> FIN = new Escritura<>(repository -> null);
+
+    private final PersonaRepository repository;
+    private final BlockingQueue<Escritura<?>> cola;
+    private final int loteMaximo;
+    private final Thread escritor;
+    private volatile boolean cerrado;
+
+    private final LongAdder lotes;
+    private final LongAdder escrituras;
+    private final LongAdder rechazadas;
+
+    @Autowired
+    public GroupCommitWriter(Environment env, PersonaRepository repository, MetricsRegistry metrics) {
+        this(repository,
+                env.getProperty("personas.escritura.capacidad-cola", Integer.class, 4096),
+                env.getProperty("personas.escritura.lote-maximo", Integer.class, 256),
+                metrics);
+    }
+
+    public GroupCommitWriter(PersonaRepository repository, int capacidadCola, int loteMaximo,
+                             MetricsRegistry metrics) {
+        this.repository = repository;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.loteMaximo = Math.max(1, loteMaximo);
+
+        this.lotes = metrics.contador("personas_write_batches_total", "Lotes de escrituras confirmados", "");
+        this.escrituras = metrics.contador("personas_write_batched_total",
+                "Escrituras confirmadas por lotes (dividir por personas_write_batches_total para el tamaño medio)", "");
+        this.rechazadas = metrics.contador("personas_write_rejected_total",
+                "Escrituras rechazadas por cola llena", "");
+
+        this.escritor = new Thread(this::procesar, "personas-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Encola una escritura; la función se ejecuta en el hilo escritor con
+     * el repositorio del lote y su resultado (o su excepción) completa el
+     * futuro cuando el lote está confirmado
+     *
+     * @return el futuro, o null si la cola está llena o el escritor se cerró
+     */
+    public <T> CompletableFuture<T> enviar(Function<PersonaRepository, T> operacion) {
+        Escritura<T> escritura = new Escritura<>(operacion);
+        if (cerrado || !cola.offer(escritura)) {
+            rechazadas.increment();
+            return null;
+        }
+        return escritura.futuro;
+    }
+
+    /**
+     * Escrituras encoladas que todavía no entraron en un lote
+     */
+    public int pendientes() {
+        return cola.size();
+    }
+
+    private void procesar() {
+        List<Escritura<?>> lote = new ArrayList<>(loteMaximo);
+        boolean terminar = false;
+        while (!terminar) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                // Solo close() debería detener el escritor, y lo hace con FIN
+                continue;
+            }
+            cola.drainTo(lote, loteMaximo - 1);
+            terminar = lote.remove(FIN);
+            if (terminar) {
+                // Lo que se haya encolado justo antes de cerrar también se confirma
+                cola.drainTo(lote);
+            }
+            if (!lote.isEmpty()) {
+                confirmar(lote);
+            }
+            lote.clear();
+        }
+    }
+
+    private void confirmar(List<Escritura<?>> lote) {
+        RuntimeException fallo = null;
+        try {
+            repository.writeBatch(loteRepositorio -> {
+                for (Escritura<?> escritura : lote) {
+                    escritura.aplicar(loteRepositorio);
+                }
+            });
+        } catch (RuntimeException e) {
+            // No se pudo confirmar el lote (por ejemplo, falló el fsync)
+            log.error("No se pudo confirmar un lote de {} escrituras", lote.size(), e);
+            fallo = e;
+        }
+        lotes.increment();
+        escrituras.add(lote.size());
+        for (Escritura<?> escritura : lote) {
+            escritura.completar(fallo);
+        }
+    }
+
+    /**
+     * Deja de aceptar escrituras, confirma las pendientes y detiene el hilo
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            cola.put(FIN);
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Una petición que vio el escritor abierto pudo encolar después del último lote
+        Escritura<?> tardia;
+        while ((tardia = cola.poll()) != null) {
+            tardia.completar(new IllegalStateException("El escritor de personas se detuvo"));
+        }
+    }
+
+    /**
+     * Una escritura encolada y su resultado, que el hilo escritor guarda
+     * hasta que el lote se confirma
+     */
+    private static final class Escritura<T> {
+
+        private final Function<PersonaRepository, T> operacion;
+        private final CompletableFuture<T> futuro = new CompletableFuture<>();
+        private T resultado;
+        private RuntimeException error;
+
+        private Escritura(Function<PersonaRepository, T> operacion) {
+            this.operacion = operacion;
+        }
+
+        private void aplicar(PersonaRepository loteRepositorio) {
+            try {
+                resultado = operacion.apply(loteRepositorio);
+            } catch (RuntimeException e) {
+                // Propia de esta escritura (404, conflicto de versión): no afecta al resto del lote
+                error = e;
+            }
+        }
+
+        private void completar(RuntimeException falloLote) {
+            if (error != null) {
+                futuro.completeExceptionally(error);
+            } else if (falloLote != null) {
+                futuro.completeExceptionally(falloLote);
+            } else {
+                futuro.complete(resultado);
+            }
+        }
+    }
+}
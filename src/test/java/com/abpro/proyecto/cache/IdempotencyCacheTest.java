@@ -0,0 +1,112 @@
+package com.abpro.proyecto.cache;
+
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.model.Persona;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para IdempotencyCache
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class IdempotencyCacheTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @Test
+    @DisplayName("Test 1: Un reintento recibe la respuesta original sin ejecutar otra vez")
+    public void testReintentoRepiteRespuesta() {
+        IdempotencyCache cache = nuevaCache(10, 1000);
+        Persona persona = new Persona("Juan", 30);
+
+        ResponseEntity<ApiResponse<?>> original = cache.ejecutar("clave-1", persona, this::crear);
+        ResponseEntity<ApiResponse<?>> repetida = cache.ejecutar("clave-1", new Persona("Juan", 30), this::crear);
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        assertSame(original.getBody(), repetida.getBody());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotencyCache.HEADER_REPETIDA));
+
+        ResponseEntity<ApiResponse<?>> otroCuerpo = cache.ejecutar("clave-1", new Persona("Ana", 30), this::crear);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, otroCuerpo.getStatusCode());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("Test 2: Las claves vencen y la cantidad no supera la capacidad")
+    public void testVencimientoYCapacidad() {
+        IdempotencyCache cache = nuevaCache(100, 1000);
+        Persona persona = new Persona("Juan", 30);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.ejecutar("clave-" + i, persona, this::crear);
+        }
+        assertTrue(cache.getCantidad() <= 100);
+
+        // La más reciente sigue vigente; tras el tiempo de vida se vuelve a ejecutar
+        cache.ejecutar("clave-999", persona, this::crear);
+        assertEquals(1000, ejecuciones.get());
+        reloj.addAndGet(1000);
+        cache.ejecutar("clave-999", persona, this::crear);
+        assertEquals(1001, ejecuciones.get());
+        assertEquals(1, cache.getCantidad());
+    }
+
+    @Test
+    @DisplayName("Test 3: Peticiones simultáneas con la misma clave crean una sola vez")
+    public void testPeticionesSimultaneas() throws Exception {
+        IdempotencyCache cache = nuevaCache(10, 1000);
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<ApiResponse<?>>> primera = executor.submit(() ->
+                    cache.ejecutar("clave", new Persona("Juan", 30), () -> {
+                        enCurso.countDown();
+                        await(liberar);
+                        return crear();
+                    }));
+            assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<ApiResponse<?>>> segunda = executor.submit(() ->
+                    cache.ejecutar("clave", new Persona("Juan", 30), this::crear));
+            liberar.countDown();
+
+            assertSame(primera.get(5, TimeUnit.SECONDS).getBody(), segunda.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(1, ejecuciones.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private IdempotencyCache nuevaCache(int capacidad, long vidaNanos) {
+        return new IdempotencyCache(capacidad, vidaNanos, reloj::get, new MetricsRegistry());
+    }
+
+    private ResponseEntity<ApiResponse<?>> crear() {
+        int n = ejecuciones.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("creada " + n, n));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
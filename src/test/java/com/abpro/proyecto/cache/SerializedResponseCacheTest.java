@@ -0,0 +1,70 @@
+package com.abpro.proyecto.cache;
+
+import com.abpro.proyecto.converter.ApiResponseJsonWriter;
+import com.abpro.proyecto.converter.FormatoRespuesta;
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para SerializedResponseCache
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class SerializedResponseCacheTest {
+
+    @Test
+    @DisplayName("Test 1: Reutiliza el cuerpo mientras la versión no cambie")
+    public void testAciertoPorVersion() {
+        SerializedResponseCache cache = nuevaCache(1024 * 1024);
+        AtomicInteger serializaciones = new AtomicInteger();
+
+        byte[] primero = cache.obtener(1L, 1, FormatoRespuesta.JSON, () -> {
+            serializaciones.incrementAndGet();
+            return ApiResponse.success("v1", "a");
+        });
+        byte[] segundo = cache.obtener(1L, 1, FormatoRespuesta.JSON, () -> ApiResponse.success("otra", "b"));
+        assertSame(primero, segundo);
+        assertEquals(1, serializaciones.get());
+
+        byte[] nuevaVersion = cache.obtener(1L, 2, FormatoRespuesta.JSON, () -> ApiResponse.success("v2", "c"));
+        assertTrue(new String(nuevaVersion).contains("\"v2\""));
+
+        cache.invalidar(1L);
+        assertEquals(0, cache.getCantidad());
+        assertEquals(0, cache.getBytesUsados());
+    }
+
+    @Test
+    @DisplayName("Test 2: El tamaño total se mantiene bajo la capacidad")
+    public void testDesalojoPorTamanio() {
+        long capacidad = 16 * 1024;
+        SerializedResponseCache cache = nuevaCache(capacidad);
+        String dato = "x".repeat(200);
+
+        for (long id = 0; id < 1000; id++) {
+            cache.obtener(id, 1, FormatoRespuesta.JSON, () -> ApiResponse.success("persona", dato));
+        }
+
+        assertTrue(cache.getBytesUsados() <= capacidad);
+        assertTrue(cache.getCantidad() > 0);
+    }
+
+    @Test
+    @DisplayName("Test 3: Con capacidad 0 solo serializa")
+    public void testDesactivada() {
+        SerializedResponseCache cache = nuevaCache(0);
+        byte[] cuerpo = cache.obtener(1L, 1, FormatoRespuesta.JSON, () -> ApiResponse.success("ok", 1));
+        assertTrue(cuerpo.length > 0);
+        assertEquals(0, cache.getCantidad());
+    }
+
+    private static SerializedResponseCache nuevaCache(long capacidad) {
+        return new SerializedResponseCache(capacidad, new ApiResponseJsonWriter(), new MetricsRegistry());
+    }
+}
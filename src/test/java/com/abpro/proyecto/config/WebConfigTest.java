@@ -0,0 +1,49 @@
+package com.abpro.proyecto.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas para WebConfig
+ *
+ * WebConfig registra los componentes con @Import en lugar de escanear el
+ * paquete; esta prueba hace el escaneo para detectar un componente nuevo
+ * que no se agregó a la lista
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class WebConfigTest {
+
+    @Test
+    @DisplayName("Test 1: @Import registra los mismos componentes que encontraría @ComponentScan")
+    public void testImportCoincideConEscaneo() {
+        // El escaneo evalúa los @Conditional: se une lo encontrado en cada modo de escritura
+        Set<String> escaneados = new TreeSet<>();
+        for (String modo : List.of(ModoEscritura.DIRECTA, ModoEscritura.AGRUPADA)) {
+            MockEnvironment env = new MockEnvironment().withProperty(ModoEscritura.PROPIEDAD, modo);
+            ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(true, env);
+            escaner.findCandidateComponents("com.abpro.proyecto").stream()
+                    .map(BeanDefinition::getBeanClassName)
+                    .filter(nombre -> !nombre.equals(WebConfig.class.getName()))
+                    .forEach(escaneados::add);
+        }
+
+        Set<String> importados = Arrays.stream(WebConfig.class.getAnnotation(Import.class).value())
+                .map(Class::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        assertEquals(escaneados, importados);
+    }
+}
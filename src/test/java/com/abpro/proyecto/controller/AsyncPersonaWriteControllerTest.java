@@ -0,0 +1,129 @@
+package com.abpro.proyecto.controller;
+
+import com.abpro.proyecto.config.WebConfig;
+import com.abpro.proyecto.model.Persona;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas para AsyncPersonaWriteController
+ *
+ * Con "personas.escritura=agrupada" las escrituras individuales responden
+ * de forma asíncrona, con los mismos códigos y cuerpos que en el modo directo
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {WebConfig.class})
+@WebAppConfiguration
+@TestPropertySource(properties = "personas.escritura=agrupada")
+public class AsyncPersonaWriteControllerTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        this.mockMvc = MockMvcBuilders
+                .webAppContextSetup(this.webApplicationContext)
+                .build();
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Test 1: Crear, actualizar y eliminar responden cuando se confirma su lote")
+    public void testEscriturasAsincronas() throws Exception {
+        assertFalse(webApplicationContext.containsBean("personaWriteController"));
+
+        MvcResult alta = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Lucía", 28))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String cuerpo = mockMvc.perform(asyncDispatch(alta))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.data.nombre").value("Lucía"))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(cuerpo).path("data").path("id").asLong();
+        String etag = alta.getResponse().getHeader("ETag");
+
+        MvcResult modificacion = mockMvc.perform(put("/personas/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", etag)
+                        .content(objectMapper.writeValueAsString(new Persona("Lucía Gómez", 29))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(modificacion))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.edad").value(29));
+
+        MvcResult baja = mockMvc.perform(delete("/personas/" + id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(baja))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        mockMvc.perform(get("/personas/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Test 2: Validación, If-Match desactualizado e ID inexistente conservan sus respuestas")
+    public void testErroresAsincronos() throws Exception {
+        MvcResult invalida = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("", 25))))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(invalida))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.nombre").exists());
+
+        MvcResult alta = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Tomás", 40))))
+                .andReturn();
+        JsonNode creada = objectMapper.readTree(
+                mockMvc.perform(asyncDispatch(alta)).andReturn().getResponse().getContentAsString());
+        long id = creada.path("data").path("id").asLong();
+        String etagOriginal = alta.getResponse().getHeader("ETag");
+
+        for (int i = 0; i < 2; i++) {
+            MvcResult modificacion = mockMvc.perform(put("/personas/" + id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("If-Match", etagOriginal)
+                            .content(objectMapper.writeValueAsString(new Persona("Tomás", 41 + i))))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(modificacion))
+                    .andExpect(i == 0 ? status().isOk() : status().isPreconditionFailed());
+        }
+
+        MvcResult inexistente = mockMvc.perform(delete("/personas/999999"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(inexistente))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+}
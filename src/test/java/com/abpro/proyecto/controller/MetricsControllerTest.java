@@ -0,0 +1,63 @@
+package com.abpro.proyecto.controller;
+
+import com.abpro.proyecto.config.WebConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas para MetricsController
+ *
+ * Verifica que las peticiones queden registradas por ruta y estado
+ * y que la salida use el formato de Prometheus
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {WebConfig.class})
+@WebAppConfiguration
+public class MetricsControllerTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        this.mockMvc = MockMvcBuilders
+                .webAppContextSetup(this.webApplicationContext)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Test 1: Las peticiones se cuentan por patrón de ruta y estado")
+    public void testMetricasPorRuta() throws Exception {
+        mockMvc.perform(get("/personas/health"));
+        mockMvc.perform(get("/personas/987654"));
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(containsString("# TYPE http_requests_total counter")))
+                .andExpect(content().string(containsString(
+                        "http_requests_total{method=\"GET\",route=\"/personas/health\",status=\"200\"}")))
+                .andExpect(content().string(containsString(
+                        "http_request_errors_total{method=\"GET\",route=\"/personas/{id}\",status=\"404\"}")))
+                .andExpect(content().string(containsString(
+                        "http_request_duration_seconds{method=\"GET\",route=\"/personas/{id}\",quantile=\"0.99\"}")));
+    }
+}
@@ -1,8 +1,11 @@
 package com.abpro.proyecto.controller;
 
 import com.abpro.proyecto.config.WebConfig;
+import com.abpro.proyecto.dto.Lote;
 import com.abpro.proyecto.model.Persona;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,12 +16,20 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Pruebas unitarias para PersonaController
@@ -64,7 +75,7 @@ public class PersonaControllerTest {
         mockMvc.perform(get("/personas"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data").isArray());
+                .andExpect(jsonPath("$.data.items").isArray());
     }
 
     @Test
@@ -133,4 +144,376 @@ public class PersonaControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.success").value(false));
     }
+
+    @Test
+    @DisplayName("Test 8: Listar con limit pagina por cursor sin repetir personas")
+    public void testListarPaginadoPorCursor() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/personas")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Persona("Página " + i, 20 + i))));
+        }
+
+        String primera = mockMvc.perform(get("/personas").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items", hasSize(2)))
+                .andExpect(jsonPath("$.data.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(primera).path("data").path("nextCursor").asText();
+        long ultimoId = objectMapper.readTree(primera).path("data").path("items").get(1).path("id").asLong();
+
+        mockMvc.perform(get("/personas").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].id").value(greaterThan((int) ultimoId)));
+    }
+
+    @Test
+    @DisplayName("Test 9: Listar con limit fuera de rango o cursor inválido debe retornar 400")
+    public void testListarParametrosInvalidos() throws Exception {
+        mockMvc.perform(get("/personas").param("limit", "100000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(get("/personas").param("after", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @DisplayName("Test 10: Exportar debe escribir una persona por línea en NDJSON")
+    public void testExportarNdjson() throws Exception {
+        mockMvc.perform(post("/personas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Persona("Exportada", 44))));
+
+        MvcResult resultado = mockMvc.perform(get("/personas/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertTrue(lineas.length >= 1);
+        for (String linea : lineas) {
+            assertTrue(objectMapper.readTree(linea).has("id"));
+        }
+        assertTrue(cuerpo.contains("\"nombre\":\"Exportada\""));
+    }
+
+    @Test
+    @DisplayName("Test 11: Exportar con Accept-Encoding gzip debe comprimir la salida")
+    public void testExportarGzip() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/personas/export").header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] comprimido = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            String cuerpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(cuerpo.isEmpty() || cuerpo.endsWith("\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test 12: Crear por lotes asigna IDs contiguos y reporta errores por elemento")
+    public void testCrearLote() throws Exception {
+        String lote = objectMapper.writeValueAsString(List.of(
+                new Persona("Lote Uno", 10),
+                new Persona("", 20),
+                new Persona("Lote Tres", 30)));
+
+        String cuerpo = mockMvc.perform(post("/personas/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[1].success").value(false))
+                .andExpect(jsonPath("$.data[1].errors.nombre").exists())
+                .andExpect(jsonPath("$.data[2].success").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        long primerId = objectMapper.readTree(cuerpo).path("data").get(0).path("data").path("id").asLong();
+        long tercerId = objectMapper.readTree(cuerpo).path("data").get(2).path("data").path("id").asLong();
+        assertEquals(primerId + 1, tercerId);
+    }
+
+    @Test
+    @DisplayName("Test 13: Actualizar y eliminar por lotes reportan IDs inexistentes")
+    public void testActualizarYEliminarLote() throws Exception {
+        String creada = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Por Lote", 40))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(creada).path("data").path("id").asLong();
+
+        String actualizaciones = "[{\"id\":" + id + ",\"nombre\":\"Actualizada\",\"edad\":41},"
+                + "{\"id\":999999,\"nombre\":\"Fantasma\",\"edad\":1}]";
+        mockMvc.perform(put("/personas/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(actualizaciones))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].data.nombre").value("Actualizada"))
+                .andExpect(jsonPath("$.data[1].success").value(false));
+
+        mockMvc.perform(delete("/personas/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + id + ", 999999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[1].success").value(false));
+    }
+
+    @Test
+    @DisplayName("Test 14: Buscar por rango de edad y por prefijo de nombre")
+    public void testBuscarPorEdadYNombre() throws Exception {
+        mockMvc.perform(post("/personas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Persona("Maricela Índice", 149))));
+
+        mockMvc.perform(get("/personas/edad").param("min", "149").param("max", "150"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].nombre", hasItem("Maricela Índice")));
+        mockMvc.perform(get("/personas/nombre").param("prefijo", "maricela"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].edad", hasItem(149)));
+        mockMvc.perform(get("/personas/edad").param("min", "40").param("max", "30"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test 15: GET con If-None-Match vigente responde 304 sin cuerpo")
+    public void testGetCondicional() throws Exception {
+        String creada = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Etag Uno", 30))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(creada).path("data").path("id").asLong();
+
+        String etag = mockMvc.perform(get("/personas/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/personas/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String etagLista = mockMvc.perform(get("/personas"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/personas").header("If-None-Match", etagLista))
+                .andExpect(status().isNotModified());
+
+        // Cualquier escritura cambia la versión global
+        mockMvc.perform(post("/personas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Persona("Etag Dos", 31))));
+        mockMvc.perform(get("/personas").header("If-None-Match", etagLista))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Test 16: PUT con If-Match desactualizado responde 412 y no modifica")
+    public void testActualizarConIfMatch() throws Exception {
+        MvcResult creada = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Optimista", 40))))
+                .andReturn();
+        long id = objectMapper.readTree(creada.getResponse().getContentAsString()).path("data").path("id").asLong();
+        String etagOriginal = creada.getResponse().getHeader("ETag");
+
+        String etagNuevo = mockMvc.perform(put("/personas/" + id)
+                        .header("If-Match", etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Primer Cambio", 41))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(2))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/personas/" + id)
+                        .header("If-Match", etagOriginal)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Cambio Perdido", 42))))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", etagNuevo));
+
+        mockMvc.perform(get("/personas/" + id))
+                .andExpect(jsonPath("$.data.nombre").value("Primer Cambio"));
+    }
+
+    @Test
+    @DisplayName("Test 17: GET repetido sirve el mismo cuerpo cacheado hasta que la persona cambia")
+    public void testCacheDeRespuestas() throws Exception {
+        String creada = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Persona("Cacheada", 50))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(creada).path("data").path("id").asLong();
+
+        String primera = mockMvc.perform(get("/personas/" + id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        String segunda = mockMvc.perform(get("/personas/" + id))
+                .andReturn().getResponse().getContentAsString();
+        // El timestamp es el de la serialización original
+        assertEquals(primera, segunda);
+
+        mockMvc.perform(put("/personas/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Persona("Modificada", 51))));
+        mockMvc.perform(get("/personas/" + id))
+                .andExpect(jsonPath("$.data.nombre").value("Modificada"));
+    }
+
+    @Test
+    @DisplayName("Test 18: Crear y obtener en CBOR según Content-Type y Accept")
+    public void testFormatoCbor() throws Exception {
+        MediaType cbor = MediaType.parseMediaType("application/cbor");
+        CBORMapper cborMapper = new CBORMapper();
+
+        byte[] creada = mockMvc.perform(post("/personas")
+                        .contentType(cbor)
+                        .accept(cbor)
+                        .content(cborMapper.writeValueAsBytes(new Persona("Binaria", 33))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        long id = cborMapper.readTree(creada).path("data").path("id").asLong();
+
+        MvcResult obtenida = mockMvc.perform(get("/personas/" + id).accept(cbor))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(cbor))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+        JsonNode persona = cborMapper.readTree(obtenida.getResponse().getContentAsByteArray()).path("data");
+        assertEquals("Binaria", persona.path("nombre").asText());
+
+        // Cada representación tiene su propio ETag; JSON sigue siendo el formato por defecto
+        String etagJson = mockMvc.perform(get("/personas/" + id))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(!etagJson.equals(obtenida.getResponse().getHeader("ETag")));
+
+        mockMvc.perform(post("/personas")
+                        .contentType(cbor)
+                        .accept(cbor)
+                        .content(cborMapper.writeValueAsBytes(new Persona("", -1))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(cbor));
+    }
+
+    @Test
+    @DisplayName("Test 19: Los errores responden problem details sin exponer detalles internos")
+    public void testProblemDetails() throws Exception {
+        mockMvc.perform(get("/personas/987654321"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.detail").value("Persona con ID 987654321 no encontrada"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Persona con ID 987654321 no encontrada"));
+
+        mockMvc.perform(delete("/personas/987654321"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Persona con ID 987654321 no encontrada"));
+
+        // JSON mal formado: 400 de Spring, no un 500 con el mensaje del parser
+        mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\": "))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Bad Request"));
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(content().string(containsString(
+                        "personas_errors_total{clase=\"PersonaNotFoundException\"}")));
+    }
+
+    @Test
+    @DisplayName("Test 20: Un POST repetido con la misma Idempotency-Key no crea otra persona")
+    public void testIdempotencyKey() throws Exception {
+        String cuerpo = objectMapper.writeValueAsString(new Persona("Reintento", 41));
+
+        String primera = mockMvc.perform(post("/personas")
+                        .header("Idempotency-Key", "reintento-41")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String segunda = mockMvc.perform(post("/personas")
+                        .header("Idempotency-Key", "reintento-41")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(primera).path("data").path("id"),
+                objectMapper.readTree(segunda).path("data").path("id"));
+    }
+
+    @Test
+    @DisplayName("Test 21: Listar con fields y compact devuelve solo las propiedades pedidas")
+    public void testListarProyectado() throws Exception {
+        mockMvc.perform(post("/personas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Persona("Proyectada", 33))));
+
+        mockMvc.perform(get("/personas").param("fields", "nombre,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.items[0].nombre").value("Proyectada"))
+                .andExpect(jsonPath("$.data.items[0].id").isNumber())
+                .andExpect(jsonPath("$.data.items[0].edad").doesNotExist())
+                .andExpect(jsonPath("$.data.items[0].version").doesNotExist());
+
+        mockMvc.perform(get("/personas").param("fields", "edad").param("compact", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").doesNotExist())
+                .andExpect(jsonPath("$.items[0].edad").value(33))
+                .andExpect(jsonPath("$.items[0].nombre").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // La respuesta completa no cambia por haber cacheado las proyectadas
+        mockMvc.perform(get("/personas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items[0].edad").value(33))
+                .andExpect(jsonPath("$.data.items[0].version").isNumber());
+
+        mockMvc.perform(get("/personas").param("fields", "id,apellido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @DisplayName("Test 22: Un lote con más elementos que el máximo se rechaza al leerlo")
+    public void testLoteDemasiadoGrande() throws Exception {
+        StringBuilder ids = new StringBuilder("[");
+        for (int i = 1; i <= Lote.MAXIMO + 1; i++) {
+            ids.append(i == 1 ? "" : ",").append(i);
+        }
+        ids.append(']');
+
+        mockMvc.perform(delete("/personas/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("El lote no puede tener más de " + Lote.MAXIMO + " elementos"));
+
+        mockMvc.perform(delete("/personas/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": 1}"))
+                .andExpect(status().isBadRequest());
+    }
 }
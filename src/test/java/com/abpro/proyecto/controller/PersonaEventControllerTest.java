@@ -0,0 +1,106 @@
+package com.abpro.proyecto.controller;
+
+import com.abpro.proyecto.config.WebConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas para PersonaEventController
+ *
+ * Las respuestas SSE quedan abiertas: se lee lo escrito hasta el momento
+ * en la respuesta simulada, esperando a que llegue cada evento
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {WebConfig.class})
+@WebAppConfiguration
+public class PersonaEventControllerTest {
+
+    private static final long ESPERA_MS = 5000;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        this.mockMvc = MockMvcBuilders
+                .webAppContextSetup(this.webApplicationContext)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Test 1: Los suscriptores reciben las altas y pueden reanudar con Last-Event-ID")
+    public void testEventosYReanudacion() throws Exception {
+        MockHttpServletResponse flujo = suscribir(null);
+
+        String creada = mockMvc.perform(post("/personas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"Evento SSE\",\"edad\":33}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = Long.parseLong(creada.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        String recibido = esperar(flujo, "\"nombre\":\"Evento SSE\"");
+        Matcher evento = Pattern.compile("id:(\\S+)\nevent:creada\ndata:\\{\"id\":" + id + ",").matcher(recibido);
+        assertTrue(evento.find(), recibido);
+        String idEvento = evento.group(1);
+
+        // Cambios hechos mientras el cliente estaba desconectado
+        mockMvc.perform(delete("/personas/" + id)).andExpect(status().isOk());
+
+        MockHttpServletResponse reanudado = suscribir(idEvento);
+        String pendientes = esperar(reanudado, "event:eliminada");
+        assertTrue(pendientes.contains("data:{\"id\":" + id + "}"), pendientes);
+        assertFalse(pendientes.contains("event:creada\ndata:{\"id\":" + id + ","), pendientes);
+    }
+
+    @Test
+    @DisplayName("Test 2: Un Last-Event-ID que ya no se puede reanudar produce un evento desincronizado")
+    public void testDesincronizado() throws Exception {
+        MockHttpServletResponse flujo = suscribir("arranque-anterior-42");
+        assertTrue(esperar(flujo, "event:desincronizado").startsWith("id:"));
+    }
+
+    private MockHttpServletResponse suscribir(String lastEventId) throws Exception {
+        var peticion = get("/personas/eventos").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            peticion.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(peticion)
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static String esperar(MockHttpServletResponse flujo, String texto) throws Exception {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        String contenido = flujo.getContentAsString();
+        while (!contenido.contains(texto) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+            contenido = flujo.getContentAsString();
+        }
+        assertTrue(contenido.contains(texto), "No llegó '" + texto + "': " + contenido);
+        return contenido;
+    }
+}
@@ -0,0 +1,84 @@
+package com.abpro.proyecto.converter;
+
+import com.abpro.proyecto.dto.ApiResponse;
+import com.abpro.proyecto.dto.Pagina;
+import com.abpro.proyecto.dto.ResultadoItem;
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas unitarias para ApiResponseJsonWriter
+ *
+ * Compara la salida con la del ObjectMapper por defecto de Spring MVC
+ * para las mismas instancias (y por lo tanto el mismo timestamp)
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class ApiResponseJsonWriterTest {
+
+    private final ApiResponseJsonWriter writer = new ApiResponseJsonWriter();
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    @DisplayName("Test 1: Persona, página y errores producen el mismo JSON que Jackson")
+    public void testMismoJsonQueJackson() throws Exception {
+        Map<String, String> errores = new LinkedHashMap<>();
+        errores.put("nombre", "El nombre no puede estar vacío");
+        errores.put("edad", null);
+
+        List<ApiResponse<?>> respuestas = List.of(
+                ApiResponse.success("Persona encontrada", new PersonaConId(1L, "José \"Pepe\" Ñúñez\n", 30, 7)),
+                ApiResponse.success("Lista", new Pagina<>(List.of(new PersonaConId(2L, "Ana", 0)), "Y3Vyc29y")),
+                ApiResponse.success("Lista vacía", new Pagina<>(List.of(), null)),
+                ApiResponse.error("Persona con ID 9 no encontrada"),
+                new ApiResponse<>(false, "Error de validación", errores),
+                ApiResponse.success("Lote", Arrays.asList(
+                        ResultadoItem.ok(0, new PersonaConId(3L, "Luis", 40)),
+                        ResultadoItem.invalido(1, errores),
+                        ResultadoItem.ok(2, 5L),
+                        null)),
+                ApiResponse.success("Texto", "Total de personas registradas: 3"),
+                ApiResponse.success("Sin ID", new PersonaConId()),
+                ApiResponse.success("Persona", new Persona("Eva", 20)),
+                ApiResponse.success("Otro tipo", new BigDecimal("1.50"))
+        );
+
+        for (ApiResponse<?> respuesta : respuestas) {
+            assertEquals(mapper.writeValueAsString(respuesta),
+                    new String(writer.aBytes(respuesta), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Test 2: El timestamp respeta el formato de Jackson con segundos y nanos en cero")
+    public void testFormatosDeTimestamp() throws Exception {
+        LocalDateTime[] instantes = {
+                LocalDateTime.of(2025, 10, 23, 22, 50),
+                LocalDateTime.of(2025, 10, 23, 22, 50, 7),
+                LocalDateTime.of(2025, 10, 23, 22, 50, 0, 120_000_000),
+                LocalDateTime.of(2025, 10, 23, 22, 50, 7, 1),
+                LocalDateTime.of(2025, 10, 23, 22, 50, 7, 999_999_999)
+        };
+
+        for (LocalDateTime instante : instantes) {
+            ApiResponse<String> respuesta = ApiResponse.success("ok", null);
+            respuesta.setTimestamp(instante);
+            assertEquals(mapper.writeValueAsString(respuesta),
+                    new String(writer.aBytes(respuesta), StandardCharsets.UTF_8));
+        }
+    }
+}
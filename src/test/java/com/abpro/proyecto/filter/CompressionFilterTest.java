@@ -0,0 +1,399 @@
+package com.abpro.proyecto.filter;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para CompressionFilter
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class CompressionFilterTest {
+
+    private static final int UMBRAL = 256;
+
+    private CompressionFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        filter = new CompressionFilter(UMBRAL, 6);
+        request = new MockHttpServletRequest("GET", "/personas");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("Test 1: Una respuesta menor que el umbral sale sin comprimir")
+    public void testRespuestaChicaSinComprimir() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+
+        filter.doFilter(request, response, escribir("{\"status\":\"UP\"}"));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("{\"status\":\"UP\"}", response.getContentAsString());
+        assertEquals(15, response.getContentLength());
+    }
+
+    @Test
+    @DisplayName("Test 2: Una respuesta grande se comprime con gzip y se descomprime igual")
+    public void testComprimeGzip() throws Exception {
+        request.addHeader("Accept-Encoding", "deflate, gzip");
+        String cuerpo = cuerpoGrande();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            ((HttpServletResponse) res).setHeader("ETag", "\"abc\"");
+            res.getOutputStream().write(cuerpo.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals("\"abc--gzip\"", response.getHeader("ETag"));
+        assertTrue(response.getContentAsByteArray().length < cuerpo.length());
+        byte[] original = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        assertEquals(cuerpo, new String(original, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test 3: Con deflate preferido se usa el formato zlib")
+    public void testComprimeDeflate() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip;q=0.5, deflate");
+        String cuerpo = cuerpoGrande();
+
+        // Dos respuestas seguidas para reutilizar el compresor del pool
+        for (int i = 0; i < 2; i++) {
+            response = new MockHttpServletResponse();
+            filter.doFilter(request, response, escribir(cuerpo));
+
+            assertEquals("deflate", response.getHeader("Content-Encoding"));
+            byte[] original = new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+            assertEquals(cuerpo, new String(original, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Test 4: Sin Accept-Encoding o con Content-Encoding propio no se comprime")
+    public void testSinCompresion() throws Exception {
+        String cuerpo = cuerpoGrande();
+        filter.doFilter(request, response, escribir(cuerpo));
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(cuerpo, response.getContentAsString());
+
+        request.addHeader("Accept-Encoding", "gzip");
+        response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader("Content-Encoding", "identity");
+            res.getOutputStream().write(cuerpo.getBytes(StandardCharsets.UTF_8));
+        });
+        assertEquals("identity", response.getHeader("Content-Encoding"));
+        assertEquals(cuerpo, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Test 5: El sufijo se quita de If-None-Match y se repite en el 304")
+    public void testQuitaSufijoEtag() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("If-None-Match", "\"abc--gzip\"");
+        AtomicReference<String> recibido = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            recibido.set(((HttpServletRequest) req).getHeader("If-None-Match"));
+            ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            ((HttpServletResponse) res).setHeader("ETag", "\"abc\"");
+        });
+
+        assertEquals("\"abc\"", recibido.get());
+        assertEquals(304, response.getStatus());
+        assertEquals("\"abc--gzip\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("Test 6: Si sigue en otro hilo sin decidir, sale sin comprimir y sin Content-Length")
+    public void testAsincronaSinDecidir() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        request.setAsyncSupported(true);
+        String inicio = "[{\"id\":0},";
+        String resto = cuerpoGrande();
+        AtomicReference<ServletResponse> asincrona = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.getOutputStream().write(inicio.getBytes(StandardCharsets.UTF_8));
+            req.startAsync(req, res);
+            asincrona.set(res);
+        });
+        enOtroHilo(asincrona.get(), resto);
+        redespachar((req, res) -> { });
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Content-Length"));
+        assertEquals(inicio + resto, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Test 7: Una respuesta comprimida que sigue en otro hilo se cierra en el re-despacho")
+    public void testAsincronaComprimida() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        request.setAsyncSupported(true);
+        String inicio = cuerpoGrande();
+        String resto = cuerpoGrande();
+        AtomicReference<ServletResponse> asincrona = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(inicio.getBytes(StandardCharsets.UTF_8));
+            req.startAsync(req, res);
+            asincrona.set(res);
+        });
+        enOtroHilo(asincrona.get(), resto);
+        redespachar((req, res) -> { });
+        request.getAsyncContext().complete();
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Content-Length"));
+        byte[] original = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        assertEquals(inicio + resto, new String(original, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test 8: Si se completa sin re-despacho el compresor vuelve al pool y no admite más escrituras")
+    public void testAsincronaCompletadaSinRedespacho() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        request.setAsyncSupported(true);
+        AtomicReference<ServletResponse> asincrona = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.getOutputStream().write(cuerpoGrande().getBytes(StandardCharsets.UTF_8));
+            req.startAsync(req, res);
+            asincrona.set(res);
+        });
+        request.getAsyncContext().complete();
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertThrows(IOException.class, () -> asincrona.get().getOutputStream().write(new byte[UMBRAL]));
+    }
+
+    @Test
+    @DisplayName("Test 9: Un flush después de completar sin re-despacho no falla")
+    public void testFlushDespuesDeCompletar() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        request.setAsyncSupported(true);
+        AtomicReference<ServletResponse> asincrona = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.getOutputStream().write(cuerpoGrande().getBytes(StandardCharsets.UTF_8));
+            req.startAsync(req, res);
+            asincrona.set(res);
+        });
+        request.getAsyncContext().complete();
+
+        assertDoesNotThrow(() -> asincrona.get().getOutputStream().flush());
+        assertDoesNotThrow(() -> asincrona.get().flushBuffer());
+    }
+
+    @Test
+    @DisplayName("Test 10: Con WriteListener antes de decidir, el listener pasa al stream real sin comprimir")
+    public void testNoBloqueanteSinDecidir() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        request.setAsyncSupported(true);
+        SalidaNoBloqueante real = new SalidaNoBloqueante();
+        String cuerpo = cuerpoGrande();
+        AtomicBoolean terminado = new AtomicBoolean();
+
+        filter.doFilter(request, conSalida(real), (req, res) -> {
+            req.startAsync(req, res);
+            ServletOutputStream out = res.getOutputStream();
+            out.setWriteListener(new EscrituraNoBloqueante(out, cuerpo, terminado));
+        });
+        real.hastaTerminar(terminado);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(cuerpo, real.contenido.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test 11: Con WriteListener después de comprimir, lo comprimido se entrega en onWritePossible")
+    public void testNoBloqueanteComprimida() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        request.setAsyncSupported(true);
+        SalidaNoBloqueante real = new SalidaNoBloqueante();
+        String inicio = cuerpoGrande();
+        String resto = cuerpoGrande();
+        AtomicBoolean terminado = new AtomicBoolean();
+
+        filter.doFilter(request, conSalida(real), (req, res) -> {
+            res.setContentType("application/json");
+            ServletOutputStream out = res.getOutputStream();
+            out.write(inicio.getBytes(StandardCharsets.UTF_8));
+            req.startAsync(req, res);
+            out.setWriteListener(new EscrituraNoBloqueante(out, resto, terminado));
+        });
+        real.hastaTerminar(terminado);
+        request.getAsyncContext().complete();
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        byte[] original = new GZIPInputStream(new ByteArrayInputStream(real.contenido.toByteArray())).readAllBytes();
+        assertEquals(inicio + resto, new String(original, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Respuesta cuyo stream es el no bloqueante de la prueba
+     */
+    private HttpServletResponse conSalida(ServletOutputStream salida) {
+        return new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return salida;
+            }
+        };
+    }
+
+    /**
+     * Stream no bloqueante como el del contenedor: con listener, cada
+     * escritura queda pendiente hasta que la prueba llama a permitir()
+     */
+    private static final class SalidaNoBloqueante extends ServletOutputStream {
+
+        private final ByteArrayOutputStream contenido = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean listo = true;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] datos, int desde, int largo) {
+            if (listener != null) {
+                if (!listo) {
+                    throw new IllegalStateException("Escritura pendiente");
+                }
+                listo = false;
+            }
+            contenido.write(datos, desde, largo);
+        }
+
+        @Override
+        public boolean isReady() {
+            return listo;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            this.listener = listener;
+        }
+
+        private void hastaTerminar(AtomicBoolean terminado) throws IOException {
+            for (int i = 0; !terminado.get(); i++) {
+                assertTrue(i < 10_000, "La escritura no bloqueante no terminó");
+                listo = true;
+                listener.onWritePossible();
+            }
+        }
+    }
+
+    /**
+     * Aplicación no bloqueante: escribe de a trozos mientras isReady(),
+     * cierra el stream y espera a que se entregue todo
+     */
+    private static final class EscrituraNoBloqueante implements WriteListener {
+
+        private final ServletOutputStream out;
+        private final byte[] cuerpo;
+        private final AtomicBoolean terminado;
+        private int escritos;
+        private boolean cerrado;
+
+        private EscrituraNoBloqueante(ServletOutputStream out, String cuerpo, AtomicBoolean terminado) {
+            this.out = out;
+            this.cuerpo = cuerpo.getBytes(StandardCharsets.UTF_8);
+            this.terminado = terminado;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (out.isReady()) {
+                if (escritos < cuerpo.length) {
+                    int largo = Math.min(100, cuerpo.length - escritos);
+                    out.write(cuerpo, escritos, largo);
+                    escritos += largo;
+                } else if (!cerrado) {
+                    out.close();
+                    cerrado = true;
+                } else {
+                    terminado.set(true);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            fail(error);
+        }
+    }
+
+    /**
+     * Escribe el resto del cuerpo desde otro hilo, como un StreamingResponseBody
+     */
+    private static void enOtroHilo(ServletResponse res, String resto) throws Exception {
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread hilo = new Thread(() -> {
+            try {
+                res.getOutputStream().write(resto.getBytes(StandardCharsets.UTF_8));
+                res.flushBuffer();
+            } catch (IOException e) {
+                error.set(e);
+            }
+        });
+        hilo.start();
+        hilo.join();
+        if (error.get() != null) {
+            throw error.get();
+        }
+    }
+
+    /**
+     * Re-despacho ASYNC con que Spring MVC termina la respuesta
+     */
+    private void redespachar(FilterChain chain) throws Exception {
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, chain);
+    }
+
+    private static FilterChain escribir(String cuerpo) {
+        return (req, res) -> res.getWriter().write(cuerpo);
+    }
+
+    private static String cuerpoGrande() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            sb.append("{\"id\":").append(i).append(",\"nombre\":\"Persona ").append(i).append("\"},");
+        }
+        return sb.append("{}]").toString();
+    }
+}
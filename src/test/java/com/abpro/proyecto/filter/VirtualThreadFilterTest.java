@@ -0,0 +1,90 @@
+package com.abpro.proyecto.filter;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para VirtualThreadFilter
+ *
+ * Usa un executor común en lugar de hilos virtuales para poder
+ * ejecutarse también en Java 17
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class VirtualThreadFilterTest {
+
+    private ExecutorService executor;
+    private VirtualThreadFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        filter = new VirtualThreadFilter(executor, 1000);
+        request = new MockHttpServletRequest("GET", "/personas");
+        request.setAsyncSupported(true);
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Test 1: La cadena se ejecuta en el executor y la petición se completa")
+    public void testEjecutaEnExecutor() throws Exception {
+        AtomicReference<Thread> hiloCadena = new AtomicReference<>();
+        FilterChain chain = (req, res) -> hiloCadena.set(Thread.currentThread());
+
+        filter.doFilter(request, response, chain);
+        esperarExecutor();
+
+        assertNotNull(hiloCadena.get());
+        assertNotSame(Thread.currentThread(), hiloCadena.get());
+        assertFalse(request.isAsyncStarted(), "La petición debe completarse al terminar la cadena");
+    }
+
+    @Test
+    @DisplayName("Test 2: Si la aplicación inicia su propio async, el filtro no completa la petición")
+    public void testAsyncDeLaAplicacion() throws Exception {
+        FilterChain chain = (req, res) -> req.startAsync();
+
+        filter.doFilter(request, response, chain);
+        esperarExecutor();
+
+        assertTrue(request.isAsyncStarted());
+    }
+
+    @Test
+    @DisplayName("Test 3: Una excepción en la cadena responde 500")
+    public void testErrorEnLaCadena() throws Exception {
+        FilterChain chain = (req, res) -> {
+            throw new IllegalStateException("falla");
+        };
+
+        filter.doFilter(request, response, chain);
+        esperarExecutor();
+
+        assertEquals(500, response.getStatus());
+        assertFalse(request.isAsyncStarted());
+    }
+
+    private void esperarExecutor() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,38 @@
+package com.abpro.proyecto.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para LatencyHistogram
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Test 1: Cada valor cae en una cubeta cuyo límite superior lo cubre con error menor a 1/16")
+    public void testCubetas() {
+        for (long micros = 0; micros < 1_000_000; micros += 7) {
+            long limite = LatencyHistogram.limiteSuperior(LatencyHistogram.indice(micros));
+            assertTrue(limite >= micros);
+            assertTrue(limite - micros <= Math.max(1, micros / 16));
+        }
+    }
+
+    @Test
+    @DisplayName("Test 2: Percentiles aproximados sobre una distribución conocida")
+    public void testPercentiles() {
+        LatencyHistogram histograma = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histograma.registrar(i * 1_000_000L);
+        }
+
+        assertEquals(1000, histograma.getCantidad());
+        assertEquals(0.5, histograma.percentilSegundos(0.5), 0.5 / 16);
+        assertEquals(0.99, histograma.percentilSegundos(0.99), 0.99 / 16);
+        assertEquals(0.0, new LatencyHistogram().percentilSegundos(0.99));
+    }
+}
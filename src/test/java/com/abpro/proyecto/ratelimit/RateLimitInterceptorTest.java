@@ -0,0 +1,84 @@
+package com.abpro.proyecto.ratelimit;
+
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para RateLimitInterceptor y TokenBucket
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class RateLimitInterceptorTest {
+
+    private static final RateLimitInterceptor.Limites SIN_LIMITES = new RateLimitInterceptor.Limites(0, 0, 0);
+
+    @Test
+    @DisplayName("Test 1: El balde de un cliente se agota y se recarga con el tiempo")
+    public void testTokenBucket() {
+        long inicio = 1_000_000_000L;
+        TokenBucket balde = new TokenBucket(10, 2, inicio);
+
+        assertEquals(0, balde.intentar(inicio));
+        assertEquals(0, balde.intentar(inicio));
+        long espera = balde.intentar(inicio);
+        assertEquals(100_000_000L, espera, "Una ficha cada 100 ms");
+        assertFalse(balde.lleno(inicio));
+
+        assertEquals(0, balde.intentar(inicio + espera));
+        assertTrue(balde.lleno(inicio + 1_000_000_000L));
+    }
+
+    @Test
+    @DisplayName("Test 2: Las escrituras de un cliente reciben 429 sin afectar sus lecturas ni a otros clientes")
+    public void testLimitePorCliente() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(
+                SIN_LIMITES, new RateLimitInterceptor.Limites(0, 2, 0), metrics);
+
+        assertTrue(interceptor.preHandle(peticion("POST", "10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(peticion("POST", "10.0.0.1"), new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rechazada = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(peticion("POST", "10.0.0.1"), rechazada, null));
+        assertEquals(429, rechazada.getStatus());
+        assertEquals("1", rechazada.getHeader("Retry-After"));
+        assertEquals("application/problem+json", rechazada.getContentType());
+
+        assertTrue(interceptor.preHandle(peticion("GET", "10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(peticion("POST", "10.0.0.2"), new MockHttpServletResponse(), null));
+
+        StringBuilder salida = new StringBuilder();
+        metrics.escribirPrometheus(salida);
+        assertTrue(salida.toString().contains(
+                "personas_ratelimit_rejections_total{tipo=\"escritura\",motivo=\"cliente\"} 1"));
+    }
+
+    @Test
+    @DisplayName("Test 3: Superar la concurrencia máxima responde 503 hasta que termine una petición")
+    public void testConcurrenciaMaxima() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(
+                new RateLimitInterceptor.Limites(0, 0, 1), SIN_LIMITES, new MetricsRegistry());
+
+        MockHttpServletRequest primera = peticion("GET", "10.0.0.1");
+        assertTrue(interceptor.preHandle(primera, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rechazada = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(peticion("GET", "10.0.0.2"), rechazada, null));
+        assertEquals(503, rechazada.getStatus());
+        assertNotNull(rechazada.getHeader("Retry-After"));
+
+        interceptor.afterCompletion(primera, new MockHttpServletResponse(), null, null);
+        assertTrue(interceptor.preHandle(peticion("GET", "10.0.0.2"), new MockHttpServletResponse(), null));
+    }
+
+    private static MockHttpServletRequest peticion(String metodo, String cliente) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, "/personas");
+        request.setRemoteAddr(cliente);
+        return request;
+    }
+}
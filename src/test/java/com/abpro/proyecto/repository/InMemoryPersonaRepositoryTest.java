@@ -0,0 +1,199 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para InMemoryPersonaRepository
+ *
+ * Verifica las operaciones CRUD y que no se pierdan inserciones
+ * cuando varios hilos escriben al mismo tiempo
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class InMemoryPersonaRepositoryTest {
+
+    private InMemoryPersonaRepository repository;
+
+    @BeforeEach
+    public void setup() {
+        repository = new InMemoryPersonaRepository();
+    }
+
+    @Test
+    @DisplayName("Test 1: Guardar asigna IDs crecientes y permite buscar por ID")
+    public void testGuardarYBuscar() {
+        PersonaConId primera = repository.save(new Persona("Ana", 20));
+        PersonaConId segunda = repository.save(new Persona("Luis", 30));
+
+        assertTrue(segunda.getId() > primera.getId());
+        assertEquals("Luis", repository.findById(segunda.getId()).orElseThrow().getNombre());
+        assertTrue(repository.findById(999).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test 2: Actualizar reemplaza los datos sin cambiar el ID")
+    public void testActualizar() {
+        PersonaConId persona = repository.save(new Persona("Ana", 20));
+
+        PersonaConId actualizada = repository.update(persona.getId(), new Persona("Ana María", 21)).orElseThrow();
+
+        assertEquals(persona.getId(), actualizada.getId());
+        assertEquals("Ana María", repository.findById(persona.getId()).orElseThrow().getNombre());
+        assertTrue(repository.update(999, new Persona("Nadie", 1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test 3: Eliminar quita la persona y retorna false si no existe")
+    public void testEliminar() {
+        PersonaConId persona = repository.save(new Persona("Ana", 20));
+
+        assertTrue(repository.deleteById(persona.getId()));
+        assertFalse(repository.deleteById(persona.getId()));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Test 4: Inserciones concurrentes no se pierden y findAll queda ordenado por ID")
+    public void testInsercionesConcurrentes() throws InterruptedException {
+        int hilos = 8;
+        int porHilo = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        for (int h = 0; h < hilos; h++) {
+            executor.submit(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    repository.save(new Persona("Persona", i % 150));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<PersonaConId> todas = repository.findAll();
+        assertEquals(hilos * porHilo, todas.size());
+        for (int i = 1; i < todas.size(); i++) {
+            assertTrue(todas.get(i - 1).getId() < todas.get(i).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 5: Los índices por edad y nombre se mantienen al actualizar y eliminar")
+    public void testIndicesSecundarios() {
+        PersonaConId mario = repository.save(new Persona("Mario", 35));
+        PersonaConId marta = repository.save(new Persona("Marta", 38));
+        repository.save(new Persona("Pedro", 35));
+        repository.save(new Persona("Ana", 50));
+
+        assertEquals(3, repository.findByEdadBetween(30, 40, 10).size());
+        assertEquals(2, repository.findByNombreStartingWith("mar", 10).size());
+
+        repository.update(mario.getId(), new Persona("Luis", 60));
+        repository.deleteById(marta.getId());
+
+        assertEquals(1, repository.findByEdadBetween(30, 40, 10).size());
+        assertTrue(repository.findByNombreStartingWith("Mar", 10).isEmpty());
+        assertEquals("Luis", repository.findByEdadBetween(60, 60, 10).get(0).getNombre());
+    }
+
+    @Test
+    @DisplayName("Test 6: Actualizar sin cambiar edad ni nombre conserva la entrada en los índices")
+    public void testActualizarMismosDatosConservaIndice() {
+        PersonaConId persona = repository.save(new Persona("Sofía", 22));
+
+        repository.update(persona.getId(), new Persona("Sofía", 22));
+
+        assertEquals(1, repository.findByEdadBetween(22, 22, 10).size());
+        assertEquals(1, repository.findByNombreStartingWith("so", 10).size());
+    }
+
+    @Test
+    @DisplayName("Test 7: La actualización condicional rechaza una versión desactualizada")
+    public void testActualizacionCondicional() {
+        PersonaConId persona = repository.save(new Persona("Ana", 20));
+        long versionGlobal = repository.version();
+        assertEquals(1, persona.getVersion());
+
+        PersonaConId actualizada = repository.update(persona.getId(), new Persona("Ana María", 21), 1).orElseThrow();
+        assertEquals(2, actualizada.getVersion());
+        assertTrue(repository.version() > versionGlobal);
+
+        VersionConflictException conflicto = assertThrows(VersionConflictException.class,
+                () -> repository.update(persona.getId(), new Persona("Otra", 22), 1));
+        assertEquals(2, conflicto.getVersionActual());
+        assertEquals("Ana María", repository.findById(persona.getId()).orElseThrow().getNombre());
+        assertTrue(repository.update(999, new Persona("Nadie", 1), 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test 8: Paginar después de eliminar casi todo devuelve solo registros vigentes")
+    public void testPaginarTrasEliminaciones() {
+        for (int i = 0; i < 10_000; i++) {
+            repository.save(new Persona("Persona", 30));
+        }
+        for (long id = 1; id <= 9_990; id++) {
+            repository.deleteById(id);
+        }
+
+        List<PersonaConId> pagina = repository.findAfter(0, 5);
+
+        assertEquals(5, pagina.size());
+        assertEquals(9_991, pagina.get(0).getId());
+        assertEquals(9_995, pagina.get(4).getId());
+        assertEquals(5, repository.findAfter(9_995, 100).size());
+    }
+
+    @Test
+    @DisplayName("Test 9: Paginar durante altas concurrentes no saltea ningún ID")
+    public void testPaginarDuranteAltasConcurrentes() throws InterruptedException {
+        int hilos = 8;
+        int porHilo = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            executor.submit(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    if (hilo % 2 == 0) {
+                        repository.save(new Persona("Persona", 20));
+                    } else if (i % 10 == 0) {
+                        repository.saveAll(List.of(new Persona("Lote", 21), new Persona("Lote", 22)));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        // Un lector avanza con el cursor mientras se escribe, y al final lee lo que quede
+        Set<Long> vistos = new HashSet<>();
+        long cursor = 0;
+        boolean ultimaPasada = false;
+        while (true) {
+            List<PersonaConId> pagina = repository.findAfter(cursor, 50);
+            for (PersonaConId persona : pagina) {
+                assertTrue(persona.getId() > cursor);
+                vistos.add(persona.getId());
+            }
+            if (!pagina.isEmpty()) {
+                cursor = pagina.get(pagina.size() - 1).getId();
+            } else if (ultimaPasada) {
+                break;
+            } else if (executor.isTerminated()) {
+                ultimaPasada = true;
+            }
+        }
+
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(repository.count(), vistos.size());
+    }
+}
@@ -0,0 +1,144 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para MappedPersonaRepository
+ *
+ * Usa regiones pequeñas para ejercitar el crecimiento del archivo
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class MappedPersonaRepositoryTest {
+
+    private static final int SLOTS_POR_REGION = 4;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Test 1: CRUD y nombres con caracteres multibyte")
+    public void testOperacionesBasicas() throws IOException {
+        try (MappedPersonaRepository repository = abrir()) {
+            PersonaConId persona = repository.save(new Persona("José Ñúñez", 150));
+            assertEquals("José Ñúñez", repository.findById(persona.getId()).orElseThrow().getNombre());
+            assertEquals(150, repository.findById(persona.getId()).orElseThrow().getEdad());
+
+            repository.update(persona.getId(), new Persona("José", 0));
+            assertEquals(0, repository.findById(persona.getId()).orElseThrow().getEdad());
+
+            assertTrue(repository.deleteById(persona.getId()));
+            assertTrue(repository.findById(persona.getId()).isEmpty());
+            assertEquals(0, repository.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 2: Los datos y el contador sobreviven al reinicio")
+    public void testReabrir() throws IOException {
+        try (MappedPersonaRepository repository = abrir()) {
+            for (int i = 0; i < 10; i++) {
+                repository.save(new Persona("Persona " + i, i));
+            }
+            repository.deleteById(3);
+        }
+
+        try (MappedPersonaRepository repository = abrir()) {
+            assertEquals(9, repository.count());
+            assertEquals("Persona 9", repository.findById(10).orElseThrow().getNombre());
+            assertTrue(repository.findById(3).isEmpty());
+            assertEquals(11, repository.save(new Persona("Nueva", 1)).getId());
+            // El slot liberado se reutiliza: el archivo no necesita crecer
+            assertEquals(10, repository.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 5: Las versiones de registro y global se conservan al reiniciar")
+    public void testVersiones() throws IOException {
+        long versionGlobal;
+        try (MappedPersonaRepository repository = abrir()) {
+            PersonaConId persona = repository.save(new Persona("Ana", 20));
+            assertEquals(2, repository.update(persona.getId(), new Persona("Ana", 21), 1).orElseThrow().getVersion());
+            assertThrows(VersionConflictException.class,
+                    () -> repository.update(persona.getId(), new Persona("Ana", 22), 1));
+            versionGlobal = repository.version();
+        }
+
+        try (MappedPersonaRepository repository = abrir()) {
+            assertEquals(2, repository.findById(1).orElseThrow().getVersion());
+            assertEquals(versionGlobal, repository.version());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 3: Paginación y búsquedas por edad y nombre respetan orden y límite")
+    public void testConsultas() throws IOException {
+        try (MappedPersonaRepository repository = abrir()) {
+            repository.saveAll(List.of(
+                    new Persona("Marta", 40), new Persona("Mario", 31),
+                    new Persona("Pedro", 30), new Persona("Marcela", 35)));
+
+            List<PersonaConId> pagina = repository.findAfter(1, 2);
+            assertEquals(List.of(2L, 3L), List.of(pagina.get(0).getId(), pagina.get(1).getId()));
+
+            List<PersonaConId> porEdad = repository.findByEdadBetween(30, 40, 2);
+            assertEquals(List.of(30, 31), List.of(porEdad.get(0).getEdad(), porEdad.get(1).getEdad()));
+
+            List<PersonaConId> porNombre = repository.findByNombreStartingWith("mar", 2);
+            assertEquals(List.of("Marcela", "Mario"),
+                    List.of(porNombre.get(0).getNombre(), porNombre.get(1).getNombre()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test 4: Un nombre que no cabe en el slot se rechaza")
+    public void testNombreDemasiadoLargo() throws IOException {
+        try (MappedPersonaRepository repository = abrir()) {
+            String nombre = "語".repeat(51);
+            assertThrows(IllegalArgumentException.class, () -> repository.save(new Persona(nombre, 20)));
+            assertEquals(0, repository.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 6: La paginación salta los eliminados, también después de reabrir")
+    public void testPaginarTrasEliminaciones() throws IOException {
+        try (MappedPersonaRepository repository = abrir()) {
+            for (int i = 0; i < 1000; i++) {
+                repository.save(new Persona("Persona " + i, i % 100));
+            }
+            for (long id = 2; id <= 999; id++) {
+                repository.deleteById(id);
+            }
+            assertEquals(List.of(1L, 1000L), ids(repository.findAfter(0, 10)));
+            assertEquals(List.of(1000L), ids(repository.findAfter(1, 10)));
+        }
+
+        try (MappedPersonaRepository repository = abrir()) {
+            assertEquals(List.of(1L, 1000L), ids(repository.findAfter(0, 10)));
+            assertTrue(repository.findAfter(1000, 10).isEmpty());
+            assertTrue(repository.findAfter(Long.MAX_VALUE, 10).isEmpty());
+            long nueva = repository.save(new Persona("Nueva", 1)).getId();
+            assertEquals(List.of(1000L, nueva), ids(repository.findAfter(1, 10)));
+        }
+    }
+
+    private static List<Long> ids(List<PersonaConId> personas) {
+        return personas.stream().map(PersonaConId::getId).toList();
+    }
+
+    private MappedPersonaRepository abrir() throws IOException {
+        return new MappedPersonaRepository(directorio.resolve("personas.dat"), SLOTS_POR_REGION);
+    }
+}
@@ -0,0 +1,173 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para ShardedPersonaRepository
+ *
+ * Verifica que los IDs asignados por bloques sean únicos y crecientes por
+ * hilo, y que los listados sigan ordenados por ID entre particiones
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class ShardedPersonaRepositoryTest {
+
+    private ShardedPersonaRepository repository;
+
+    @BeforeEach
+    public void setup() {
+        // Bloques chicos para que las altas recorran varias particiones
+        repository = new ShardedPersonaRepository(4, 8);
+    }
+
+    @Test
+    @DisplayName("Test 1: Altas concurrentes con IDs únicos, crecientes por hilo y listados en orden")
+    public void testAltasConcurrentes() throws InterruptedException {
+        int hilos = 8;
+        int porHilo = 1000;
+        ConcurrentLinkedQueue<String> errores = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        for (int h = 0; h < hilos; h++) {
+            executor.submit(() -> {
+                long anterior = 0;
+                for (int i = 0; i < porHilo; i++) {
+                    long id = repository.save(new Persona("Persona", i % 150)).getId();
+                    if (id <= anterior) {
+                        errores.add(id + " después de " + anterior);
+                    }
+                    anterior = id;
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(errores.isEmpty(), errores.toString());
+
+        List<PersonaConId> todas = repository.findAll();
+        assertEquals(hilos * porHilo, todas.size());
+        assertEquals(hilos * porHilo, repository.count());
+        for (int i = 1; i < todas.size(); i++) {
+            assertTrue(todas.get(i - 1).getId() < todas.get(i).getId());
+        }
+
+        // Las páginas por cursor entregan las mismas personas, sin repetir ni saltear
+        List<PersonaConId> paginadas = new ArrayList<>();
+        long cursor = 0;
+        List<PersonaConId> pagina;
+        while (!(pagina = repository.findAfter(cursor, 100)).isEmpty()) {
+            paginadas.addAll(pagina);
+            cursor = pagina.get(pagina.size() - 1).getId();
+        }
+        assertEquals(todas, paginadas);
+    }
+
+    @Test
+    @DisplayName("Test 2: Los lotes reciben IDs contiguos que no se cruzan con los de las altas")
+    public void testLoteContiguo() {
+        PersonaConId suelta = repository.save(new Persona("Suelta", 10));
+        List<PersonaConId> lote = repository.saveAll(List.of(
+                new Persona("Ana", 20), new Persona("Luis", 30), new Persona("Eva", 40)));
+
+        assertEquals(lote.get(0).getId() + 1, lote.get(1).getId());
+        assertEquals(lote.get(1).getId() + 1, lote.get(2).getId());
+
+        Set<Long> ids = new HashSet<>();
+        ids.add(suelta.getId());
+        lote.forEach(persona -> ids.add(persona.getId()));
+        ids.add(repository.save(new Persona("Otra", 50)).getId());
+        assertEquals(5, ids.size());
+        assertEquals("Luis", repository.findById(lote.get(1).getId()).orElseThrow().getNombre());
+        assertEquals(2, repository.findByEdadBetween(25, 45, 10).size());
+    }
+
+    @Test
+    @DisplayName("Test 3: Actualizar, eliminar y la versión global se comportan como en memoria")
+    public void testActualizarYEliminar() {
+        PersonaConId persona = repository.save(new Persona("Mario", 35));
+        long version = repository.version();
+
+        PersonaConId actualizada = repository.update(persona.getId(), new Persona("Marta", 36), 1).orElseThrow();
+        assertEquals(2, actualizada.getVersion());
+        assertTrue(repository.version() > version);
+        assertThrows(VersionConflictException.class,
+                () -> repository.update(persona.getId(), new Persona("Otra", 1), 1));
+        assertEquals("Marta", repository.findByNombreStartingWith("mar", 10).get(0).getNombre());
+        assertTrue(repository.findByEdadBetween(35, 35, 10).isEmpty());
+
+        assertTrue(repository.deleteById(persona.getId()));
+        assertFalse(repository.deleteById(persona.getId()));
+        assertTrue(repository.findByNombreStartingWith("mar", 10).isEmpty());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Test 4: Paginar durante altas y lotes concurrentes no saltea ningún ID")
+    public void testPaginarDuranteAltasConcurrentes() throws InterruptedException {
+        int hilos = 8;
+        int porHilo = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            executor.submit(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    if (hilo % 2 == 0) {
+                        repository.save(new Persona("Persona", 20));
+                    } else if (i % 10 == 0) {
+                        repository.saveAll(List.of(new Persona("Lote", 21), new Persona("Lote", 22)));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        // Un lector avanza con el cursor mientras se escribe, y al final lee lo que quede
+        Set<Long> vistos = new HashSet<>();
+        long cursor = 0;
+        boolean ultimaPasada = false;
+        while (true) {
+            List<PersonaConId> pagina = repository.findAfter(cursor, 50);
+            for (PersonaConId persona : pagina) {
+                assertTrue(persona.getId() > cursor);
+                vistos.add(persona.getId());
+            }
+            if (!pagina.isEmpty()) {
+                cursor = pagina.get(pagina.size() - 1).getId();
+            } else if (ultimaPasada) {
+                break;
+            } else if (executor.isTerminated()) {
+                ultimaPasada = true;
+            }
+        }
+
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(repository.count(), vistos.size());
+    }
+
+    @Test
+    @DisplayName("Test 5: Un lote ocupa bloques enteros y no desalinea los bloques de las franjas")
+    public void testLoteAlineado() {
+        List<PersonaConId> lote = repository.saveAll(List.of(
+                new Persona("Ana", 20), new Persona("Luis", 30), new Persona("Eva", 40)));
+        assertEquals(1, lote.get(0).getId());
+
+        // El bloque siguiente empieza en un múltiplo del tamaño (8), no después del lote
+        long siguiente = repository.save(new Persona("Suelta", 10)).getId();
+        assertEquals(9, siguiente);
+        assertEquals(3, repository.findAfter(0, 10).size() - 1);
+    }
+}
@@ -0,0 +1,199 @@
+package com.abpro.proyecto.repository;
+
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para WalPersonaRepository
+ *
+ * Verifica que el estado y el contador de IDs se recuperen al reabrir
+ * el repositorio, con y sin snapshot, ante un log truncado y con
+ * compactaciones concurrentes con las escrituras
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class WalPersonaRepositoryTest {
+
+    private static final long UMBRAL = 64 * 1024 * 1024;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Test 1: Reabrir restaura personas, cambios y contador")
+    public void testRecuperarDesdeLog() throws IOException {
+        long idActualizada;
+        long idEliminada;
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            idActualizada = repository.save(new Persona("Ana", 20)).getId();
+            idEliminada = repository.save(new Persona("Luis", 30)).getId();
+            repository.update(idActualizada, new Persona("Ana María", 21));
+            repository.deleteById(idEliminada);
+        }
+
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            assertEquals(1, repository.count());
+            assertEquals("Ana María", repository.findById(idActualizada).orElseThrow().getNombre());
+            assertTrue(repository.findById(idEliminada).isEmpty());
+            // El contador no reutiliza el ID eliminado
+            assertTrue(repository.save(new Persona("Nueva", 5)).getId() > idEliminada);
+            assertEquals(1, repository.findByNombreStartingWith("ana", 10).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 2: Compactar genera un snapshot y los cambios posteriores se reaplican")
+    public void testRecuperarDesdeSnapshot() throws IOException {
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            repository.saveAll(List.of(new Persona("Uno", 1), new Persona("Dos", 2)));
+            repository.compactar();
+            repository.save(new Persona("Tres", 3));
+            repository.deleteById(1);
+        }
+
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            assertEquals(2, repository.count());
+            assertTrue(repository.findById(1).isEmpty());
+            assertEquals(4, repository.save(new Persona("Cuatro", 4)).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 3: Un registro incompleto al final del log se descarta")
+    public void testLogTruncado() throws IOException {
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            repository.save(new Persona("Completa", 40));
+            repository.save(new Persona("Incompleta", 41));
+        }
+        Path segmento = directorio.resolve("personas-0.log");
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            assertEquals(1, repository.count());
+            PersonaConId nueva = repository.save(new Persona("Después", 42));
+            assertEquals("Después", repository.findById(nueva.getId()).orElseThrow().getNombre());
+        }
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            assertEquals(2, repository.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test 4: Las escrituras confirmadas durante una compactación sobreviven al reabrir")
+    public void testEscriturasDuranteCompactacion() throws Exception {
+        Map<Long, String> confirmadas = new ConcurrentHashMap<>();
+        Set<Long> eliminadas = ConcurrentHashMap.newKeySet();
+        int hilos = 4;
+        int porHilo = 1500;
+
+        // Umbral chico: además de las forzadas, compacta solo en segundo plano
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, 16 * 1024)) {
+            ExecutorService executor = Executors.newFixedThreadPool(hilos);
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                tareas.add(executor.submit(() -> {
+                    for (int i = 0; i < porHilo; i++) {
+                        PersonaConId guardada = repository.save(new Persona("Persona " + i, i % 100));
+                        confirmadas.put(guardada.getId(), guardada.getNombre());
+                        if (i % 3 == 0) {
+                            repository.update(guardada.getId(), new Persona("Actualizada " + i, 1));
+                            confirmadas.put(guardada.getId(), "Actualizada " + i);
+                        }
+                        if (i % 5 == 0) {
+                            repository.deleteById(guardada.getId());
+                            confirmadas.remove(guardada.getId());
+                            eliminadas.add(guardada.getId());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            executor.shutdown();
+            while (!executor.isTerminated()) {
+                repository.compactar();
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            assertEquals(confirmadas.size(), repository.count());
+            for (Map.Entry<Long, String> persona : confirmadas.entrySet()) {
+                assertEquals(persona.getValue(),
+                        repository.findById(persona.getKey()).map(PersonaConId::getNombre).orElse(null),
+                        "ID " + persona.getKey());
+            }
+            for (long id : eliminadas) {
+                assertTrue(repository.findById(id).isEmpty(), "ID " + id);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test 5: Una compactación espera a que se aplique lo ya registrado en el segmento")
+    public void testCompactacionEsperaEscriturasEnCurso() throws Exception {
+        InMemoryPersonaRepository memoria = new InMemoryPersonaRepository();
+        WriteAheadLog wal = WriteAheadLog.abrir(directorio, UMBRAL, memoria);
+        memoria.addChangeListener(wal);
+        ExecutorService compactador = Executors.newSingleThreadExecutor();
+        List<Future<?>> compactacion = new ArrayList<>();
+        // Después de registrar el alta en el log, y antes de aplicarla, lanza
+        // una compactación y le da tiempo de terminar
+        memoria.addChangeListener(new PersonaChangeListener() {
+            @Override
+            public void personaCreada(PersonaConId persona) {
+                if ("En curso".equals(persona.getNombre())) {
+                    compactacion.add(compactador.submit(() -> {
+                        wal.compactar();
+                        return null;
+                    }));
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void personaActualizada(PersonaConId persona) {
+            }
+
+            @Override
+            public void personaEliminada(PersonaConId persona) {
+            }
+        });
+
+        long id = wal.escribir(() -> memoria.save(new Persona("En curso", 30))).getId();
+        wal.sincronizar();
+        compactacion.get(0).get(10, TimeUnit.SECONDS);
+        compactador.shutdown();
+        wal.close();
+
+        try (WalPersonaRepository repository = new WalPersonaRepository(directorio, UMBRAL)) {
+            assertEquals("En curso", repository.findById(id).orElseThrow().getNombre());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.abpro.proyecto.validation;
+
+import com.abpro.proyecto.model.Persona;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para PersonaValidator
+ *
+ * Compara cada resultado con el de Hibernate Validator sobre las mismas
+ * anotaciones de Persona
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class PersonaValidatorTest {
+
+    private static Validator hibernate;
+    private static PersonaValidator validator;
+
+    @BeforeAll
+    public static void setup() {
+        hibernate = Validation.buildDefaultValidatorFactory().getValidator();
+        validator = new PersonaValidator();
+    }
+
+    @Test
+    @DisplayName("Test 1: Coincide con Hibernate Validator en los casos límite")
+    public void testCompatibleConHibernate() {
+        String[] nombres = {null, "", " ", "A", "Al", "  ", "Juan Pérez", "a".repeat(50), "a".repeat(51),
+                "😀", "😀".repeat(25), "😀".repeat(26)};
+        Integer[] edades = {null, Integer.MIN_VALUE, -1, 0, 1, 150, 151, Integer.MAX_VALUE};
+
+        for (String nombre : nombres) {
+            for (Integer edad : edades) {
+                Persona persona = new Persona(nombre, edad);
+                Map<String, Set<String>> esperados = new HashMap<>();
+                for (ConstraintViolation<Persona> violacion : hibernate.validate(persona)) {
+                    esperados.computeIfAbsent(violacion.getPropertyPath().toString(), k -> new HashSet<>())
+                            .add(violacion.getMessage());
+                }
+
+                Map<String, String> errores = validator.validar(persona);
+                if (esperados.isEmpty()) {
+                    assertNull(errores, persona.toString());
+                } else {
+                    assertNotNull(errores, persona.toString());
+                    assertEquals(esperados.keySet(), errores.keySet(), persona.toString());
+                    errores.forEach((campo, mensaje) ->
+                            assertTrue(esperados.get(campo).contains(mensaje), persona + ": " + mensaje));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test 2: Informa la primera restricción incumplida y reutiliza el mapa")
+    public void testMensajesPrecalculados() {
+        Map<String, String> errores = validator.validar(new Persona(null, null));
+        assertEquals("El nombre no puede ser nulo", errores.get("nombre"));
+        assertEquals("La edad no puede ser nula", errores.get("edad"));
+
+        assertSame(errores, validator.validar(new Persona(null, null)));
+        assertThrows(UnsupportedOperationException.class, () -> errores.put("otro", "x"));
+    }
+}
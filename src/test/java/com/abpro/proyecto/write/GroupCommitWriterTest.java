@@ -0,0 +1,134 @@
+package com.abpro.proyecto.write;
+
+import com.abpro.proyecto.exception.PersonaNotFoundException;
+import com.abpro.proyecto.metrics.MetricsRegistry;
+import com.abpro.proyecto.model.Persona;
+import com.abpro.proyecto.model.PersonaConId;
+import com.abpro.proyecto.repository.InMemoryPersonaRepository;
+import com.abpro.proyecto.repository.PersonaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para GroupCommitWriter
+ *
+ * Un repositorio de prueba detiene el primer lote hasta que la prueba lo
+ * libera, para que las escrituras siguientes se acumulen en la cola
+ *
+ * @author Equipo de Desarrollo ABPRO
+ */
+public class GroupCommitWriterTest {
+
+    private RepositorioRetenido repository;
+    private MetricsRegistry metrics;
+    private GroupCommitWriter escritor;
+
+    @BeforeEach
+    public void setup() {
+        repository = new RepositorioRetenido();
+        metrics = new MetricsRegistry();
+        escritor = new GroupCommitWriter(repository, 4, 100, metrics);
+    }
+
+    @AfterEach
+    public void cerrar() {
+        repository.liberar.countDown();
+        escritor.close();
+    }
+
+    @Test
+    @DisplayName("Test 1: Las escrituras acumuladas se confirman en un solo lote y en orden")
+    public void testLoteAgrupado() throws Exception {
+        CompletableFuture<PersonaConId> primera = escritor.enviar(repo -> repo.save(new Persona("Primera", 20)));
+        assertTrue(repository.retenido.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<PersonaConId>> siguientes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            siguientes.add(escritor.enviar(repo -> repo.save(new Persona("Persona", 30))));
+        }
+        CompletableFuture<Boolean> inexistente = escritor.enviar(repo -> {
+            throw new PersonaNotFoundException(99);
+        });
+        // Ninguna se completa antes de que su lote se confirme
+        assertFalse(siguientes.get(0).isDone());
+        assertEquals(4, escritor.pendientes());
+
+        repository.liberar.countDown();
+        assertEquals(1, primera.get(5, TimeUnit.SECONDS).getId());
+        for (int i = 0; i < siguientes.size(); i++) {
+            assertEquals(i + 2, siguientes.get(i).get(5, TimeUnit.SECONDS).getId());
+        }
+        // El error de una escritura no afecta al resto de su lote
+        ExecutionException error = assertThrows(ExecutionException.class, () -> inexistente.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PersonaNotFoundException.class, error.getCause());
+        assertEquals(2, repository.lotes.get());
+
+        StringBuilder salida = new StringBuilder();
+        metrics.escribirPrometheus(salida);
+        assertTrue(salida.toString().contains("personas_write_batches_total 2"), salida.toString());
+        assertTrue(salida.toString().contains("personas_write_batched_total 5"), salida.toString());
+    }
+
+    @Test
+    @DisplayName("Test 2: Con la cola llena se rechaza sin bloquear y close() confirma las pendientes")
+    public void testContrapresion() throws Exception {
+        CompletableFuture<PersonaConId> primera = escritor.enviar(repo -> repo.save(new Persona("Primera", 20)));
+        assertTrue(repository.retenido.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<PersonaConId>> encoladas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            encoladas.add(escritor.enviar(repo -> repo.save(new Persona("Persona", 30))));
+        }
+        assertNull(escritor.enviar(repo -> repo.save(new Persona("Rechazada", 40))));
+
+        StringBuilder salida = new StringBuilder();
+        metrics.escribirPrometheus(salida);
+        assertTrue(salida.toString().contains("personas_write_rejected_total 1"), salida.toString());
+
+        repository.liberar.countDown();
+        escritor.close();
+        assertTrue(primera.isDone());
+        for (CompletableFuture<PersonaConId> encolada : encoladas) {
+            assertTrue(encolada.isDone());
+            assertFalse(encolada.isCompletedExceptionally());
+        }
+        assertEquals(5, repository.count());
+        assertNull(escritor.enviar(repo -> repo.save(new Persona("Cerrado", 50))));
+    }
+
+    /**
+     * Repositorio en memoria que cuenta los lotes y retiene el primero
+     */
+    private static final class RepositorioRetenido extends InMemoryPersonaRepository {
+
+        final CountDownLatch retenido = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+        final AtomicInteger lotes = new AtomicInteger();
+
+        @Override
+        public void writeBatch(Consumer<PersonaRepository> escrituras) {
+            if (lotes.incrementAndGet() == 1) {
+                retenido.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.writeBatch(escrituras);
+        }
+    }
+}